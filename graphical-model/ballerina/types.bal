@@ -80,18 +80,46 @@ public type Edge record {|
     GraphicalMetadata graphical?;
 |};
 
+# Compiled Workflow Graph - Indexed execution graph of a workflow model, generated ahead of time
+# so that the runtime does not need to index the model on startup
+#
+# + nodeIds - node identifiers by node ordinal
+# + nodeKinds - node kinds by node ordinal
+# + startNodes - ordinals of the start event nodes
+# + outgoingEdges - outgoing edge ordinals by node ordinal
+# + incomingEdges - incoming edge ordinals by node ordinal
+# + edgeStart - start node ordinal by edge ordinal
+# + edgeEnd - end node ordinal by edge ordinal
+# + edgeConditions - condition ordinal by edge ordinal, or -1 if the edge is unconditional
+# + conditions - condition names by condition ordinal
+public type CompiledWorkflowGraph readonly & record {|
+    string[] nodeIds;
+    string[] nodeKinds;
+    int[] startNodes;
+    int[][] outgoingEdges;
+    int[][] incomingEdges;
+    int[] edgeStart;
+    int[] edgeEnd;
+    int[] edgeConditions;
+    string[] conditions;
+|};
+
 # While Node - Represents a while loop in the workflow
 # 
 # + kind - "While" node type
 # + description - additional description of the while node
 # + condition - condition name to evaluate for the while loop
 # + nodes - map of node identifiers to their corresponding nodes within the while loop
+# + edges - edges between the nested nodes, which run in the order of these edges in each iteration
+# + historyLimit - number of iterations after which the loop history is compacted and the loop continues as new
 # + graphical - graphical metadata for the while node
 public type WhileNode record {|
     "While" kind;
     string description?;
     string condition;
     map<Node> nodes;
+    Edge[] edges?;
+    int historyLimit?;
     GraphicalMetadata graphical?;
 |};
 
@@ -101,17 +129,37 @@ public type WhileNode record {|
 # + description - additional description of the for each node
 # + collectionType - type of the collection to iterate over
 # + iteratorVariable - name of the variable to use for iterating over the collection
+# + collection - name of the workflow variable or input holding the collection, the node identifier by default
 # + nodes - map of node identifiers to their corresponding nodes within the for each loop
+# + edges - edges between the nested nodes, which run in the order of these edges for each element
+# + mode - how the elements of the collection are executed, sequential by default
+# + maxConcurrency - maximum number of elements (or chunks) executed at a time in parallel and chunked modes
+# + chunkSize - number of elements executed one after the other by a single worker in chunked mode
 # + graphical - graphical metadata for the for each node
 public type ForEachNode record {|
     "ForEach" kind;
     string description?;
     typedesc<map<anydata>|anydata[]> collectionType;
     string iteratorVariable;
+    string collection?;
     map<Node> nodes;
+    Edge[] edges?;
+    ForEachMode mode?;
+    int maxConcurrency?;
+    int chunkSize?;
     GraphicalMetadata graphical?;
 |};
 
+# ForEach Mode - Execution mode of a for each loop
+#
+# SEQUENTIAL - elements are executed one at a time, in order
+# PARALLEL - elements are executed concurrently, bounded by the max concurrency
+# CHUNKED - elements are split into chunks that are executed concurrently, bounded by the max concurrency
+public type ForEachMode "SEQUENTIAL"|"PARALLEL"|"CHUNKED";
+
+# Function that evaluates a named condition of the workflow model against the workflow context
+public type ConditionFunction isolated function (WorkflowContext context) returns boolean|error;
+
 # Workflow Model - Distinct type to represent a workflow model
 public type WorkflowModel distinct object {};
 
@@ -18,18 +18,374 @@ import ballerina/jballerina.java;
 
 # Memory provider interface for workflow persistence
 public type MemoryProvider object {
-    // Methods for storing and retrieving workflow state
+
+    # Save the state of a workflow instance
+    #
+    # + model - The workflow model of the instance
+    # + context - The workflow context of the instance
+    # + return - Error if the state cannot be saved
+    function save(WorkflowModelDescriptor model, WorkflowContext context) returns error?;
+
+    # Load the state of a workflow instance
+    #
+    # + model - The workflow model of the instance
+    # + id - The identifier of the instance
+    # + return - The workflow context of the instance, nil if not found, or error if the state cannot be loaded
+    function load(WorkflowModelDescriptor model, string id) returns WorkflowContext|error?;
+
+    # Remove the state of a workflow instance
+    #
+    # + id - The identifier of the instance
+    # + return - Error if the state cannot be removed
+    function remove(string id) returns error?;
 };
 
 # In-memory provider implementation
+#
+# Binary states are stored as a log of checkpoints: a full snapshot followed by the deltas of the
+# steps executed since. A new full snapshot replaces the log every `snapshotInterval` checkpoints.
 public class InMemoryProvider {
     *MemoryProvider;
+
+    private final SerializationFormat format;
+    private final int snapshotInterval;
+    private final map<byte[][]> checkpoints = {};
+    private final map<ContextCodec> codecs = {};
     
-    public function init() {
-        // Initialize in-memory storage
+    public function init(SerializationFormat format = "BINARY", int snapshotInterval = 50) {
+        self.format = format;
+        self.snapshotInterval = snapshotInterval;
+    }
+
+    public function save(WorkflowModelDescriptor model, WorkflowContext context) returns error? {
+        ContextCodec codec = self.getCodec(model);
+        if self.format == "JSON" {
+            self.checkpoints[context.id] = [check codec.encode(context, "JSON")];
+            return;
+        }
+        byte[] checkpoint = check codec.checkpoint(context, self.snapshotInterval);
+        byte[][]? log = self.checkpoints[context.id];
+        if log is () || isSnapshot(checkpoint) {
+            self.checkpoints[context.id] = [checkpoint];
+        } else {
+            log.push(checkpoint);
+        }
+        codec.commit(context);
+    }
+
+    public function load(WorkflowModelDescriptor model, string id) returns WorkflowContext|error? {
+        byte[][]? log = self.checkpoints[id];
+        if log is () {
+            return ();
+        }
+        return self.getCodec(model).restore(log);
+    }
+
+    public function remove(string id) returns error? {
+        _ = self.checkpoints.removeIfHasKey(id);
+        discardCheckpoints(id);
+    }
+
+    private function getCodec(WorkflowModelDescriptor model) returns ContextCodec {
+        ContextCodec? codec = self.codecs[model.name];
+        if codec is () {
+            ContextCodec newCodec = new (model);
+            self.codecs[model.name] = newCodec;
+            return newCodec;
+        }
+        return codec;
     }
 };
 
+/////////////////////////////////////////////////////////////////////////////////////////////////////
+// Workflow Context Serialization
+/////////////////////////////////////////////////////////////////////////////////////////////////////
+
+# Serialization format of the workflow context
+#
+# BINARY - compact binary encoding using the node output types of the workflow model
+# JSON - JSON encoding, for debugging
+public type SerializationFormat "BINARY"|"JSON";
+
+# Codec for the workflow contexts of a workflow model
+#
+# Records of the node output types are encoded with field ordinals instead of field names, strings are
+# deduplicated against the workflow model, and integers and lengths are varint encoded. Decoding detects
+# the format of the data, so JSON encoded contexts can be decoded as well. Binary data carries a
+# fingerprint of the workflow model, and fails to decode with the codec of a different model.
+public class ContextCodec {
+
+    # Create the codec of a workflow model
+    #
+    # + model - The workflow model descriptor
+    public function init(WorkflowModelDescriptor model) {
+        initContextCodec(self, model);
+    }
+
+    # Encode a workflow context
+    #
+    # + context - The workflow context
+    # + format - The serialization format
+    # + return - Encoded workflow context or error
+    public function encode(WorkflowContext context, SerializationFormat format = "BINARY") returns byte[]|error {
+        if format == "JSON" {
+            return context.toJsonString().toBytes();
+        }
+        return encodeContext(self, context);
+    }
+
+    # Decode a workflow context
+    #
+    # + data - The encoded workflow context
+    # + return - Decoded workflow context or error
+    public function decode(byte[] data) returns WorkflowContext|error {
+        if data.length() > 0 && data[0] == JSON_OBJECT_START {
+            return (check string:fromBytes(data)).fromJsonStringWithType();
+        }
+        return decodeContext(self, data);
+    }
+
+    # Create a checkpoint of a workflow context
+    #
+    # The first checkpoint of an instance is a full snapshot. Later checkpoints only contain the results and
+    # variables changed since the previous checkpoint and the appended history, except for every
+    # `snapshotInterval`-th checkpoint, and the first one after the history was compacted, which are full snapshots.
+    # The changes covered by the checkpoint stay recorded until it is committed, so a checkpoint that fails to
+    # save is covered again by the next one.
+    #
+    # + context - The workflow context
+    # + snapshotInterval - Number of checkpoints after which a full snapshot is written
+    # + return - The checkpoint or error
+    public function checkpoint(WorkflowContext context, int snapshotInterval = 50) returns byte[]|error {
+        return checkpointContext(self, context, snapshotInterval);
+    }
+
+    # Commit the latest checkpoint of a workflow context, once it is saved
+    #
+    # + context - The workflow context
+    public function commit(WorkflowContext context) {
+        commitCheckpoint(context);
+    }
+
+    # Restore a workflow context from its checkpoints
+    #
+    # + checkpoints - A full snapshot followed by the delta checkpoints taken after it
+    # + return - The restored workflow context or error
+    public function restore(byte[][] checkpoints) returns WorkflowContext|error {
+        if checkpoints.length() == 0 || !isSnapshot(checkpoints[0]) {
+            return error("Checkpoints must start with a full snapshot");
+        }
+        WorkflowContext context = check self.decode(checkpoints[0]);
+        foreach int i in 1 ..< checkpoints.length() {
+            check applyCheckpoint(self, context, checkpoints[i]);
+        }
+        return context;
+    }
+}
+
+const JSON_OBJECT_START = 0x7B;
+const DELTA_CHECKPOINT_START = 0xB8;
+
+# Check whether a checkpoint is a full snapshot rather than a delta
+#
+# + checkpoint - The checkpoint
+# + return - True if the checkpoint is a full snapshot
+public function isSnapshot(byte[] checkpoint) returns boolean {
+    return checkpoint.length() > 0 && checkpoint[0] != DELTA_CHECKPOINT_START;
+}
+
+# Set a workflow variable, recording the change for the next checkpoint
+#
+# + context - The workflow context
+# + name - The name of the variable
+# + value - The value of the variable
+public function setWorkflowVariable(WorkflowContext context, string name, anydata value) = @java:Method {
+    'class: "io.ballerina.workflow.ContextChanges",
+    name: "setVariable"
+} external;
+
+function initContextCodec(ContextCodec codec, WorkflowModelDescriptor model) = @java:Method {
+    'class: "io.ballerina.workflow.ContextCodec",
+    name: "init"
+} external;
+
+function encodeContext(ContextCodec codec, WorkflowContext context) returns byte[]|error = @java:Method {
+    'class: "io.ballerina.workflow.ContextCodec",
+    name: "encode"
+} external;
+
+function decodeContext(ContextCodec codec, byte[] data) returns WorkflowContext|error = @java:Method {
+    'class: "io.ballerina.workflow.ContextCodec",
+    name: "decode"
+} external;
+
+function checkpointContext(ContextCodec codec, WorkflowContext context, int snapshotInterval) returns byte[]|error = @java:Method {
+    'class: "io.ballerina.workflow.ContextChanges",
+    name: "checkpoint"
+} external;
+
+function applyCheckpoint(ContextCodec codec, WorkflowContext context, byte[] data) returns error? = @java:Method {
+    'class: "io.ballerina.workflow.ContextChanges",
+    name: "applyDelta"
+} external;
+
+function commitCheckpoint(WorkflowContext context) = @java:Method {
+    'class: "io.ballerina.workflow.ContextChanges",
+    name: "commit"
+} external;
+
+function discardCheckpoints(string id) = @java:Method {
+    'class: "io.ballerina.workflow.ContextChanges",
+    name: "discard"
+} external;
+
+/////////////////////////////////////////////////////////////////////////////////////////////////////
+// Parked Workflow State
+/////////////////////////////////////////////////////////////////////////////////////////////////////
+
+# Configuration of the parked state store
+#
+# + segmentSize - size in bytes of the memory segments states are written into, and the maximum size of a state
+# + file - file to map the segments from, if not set the segments are allocated in direct memory
+# + compactionThreshold - fraction of a filled segment below which its live states are relocated and the segment
+# is reused, 0 to only reuse segments once they are empty
+public type ParkedStateStoreConfig record {|
+    int segmentSize = 64 * 1024 * 1024;
+    string file?;
+    float compactionThreshold = 0.25;
+|};
+
+# Off-heap store for the state of parked workflow instances
+#
+# Instances waiting on an event or a timer can be parked here, keeping their state serialized outside of
+# the heap, in direct memory or a memory mapped file. Only an index entry per instance remains on the heap.
+# Workflows run with `execute` are parked whenever they wait on events, and taken out when `deliver` resumes them.
+public class ParkedStateStore {
+
+    private final ContextCodec codec;
+
+    # Create a parked state store
+    #
+    # + codec - The codec used to serialize the parked contexts
+    # + config - The store configuration
+    # + return - Error if the backing file cannot be opened
+    public function init(ContextCodec codec, ParkedStateStoreConfig config = {}) returns error? {
+        self.codec = codec;
+        check initParkedStateStore(self, config);
+    }
+
+    # Execute a workflow model, parking the instance if it waits on events
+    #
+    # + model - The workflow model descriptor to execute
+    # + inputs - Initial input variables for the workflow
+    # + conditions - Functions evaluating the edge conditions of the model, by condition name
+    # + return - The workflow context, completed or waiting on events, or error
+    public function execute(WorkflowModelDescriptor model, map<anydata> inputs = {},
+            map<ConditionFunction> conditions = {}) returns WorkflowContext|error {
+        WorkflowContext context = check executeWorkflow(model, inputs, conditions);
+        if getWaitingEvents(context).length() > 0 {
+            check self.park(context);
+        }
+        return context;
+    }
+
+    # Deliver an event to a parked workflow instance, resuming it
+    #
+    # The instance is taken out of the store and parked again if it waits on further events. If it fails to
+    # resume, its state is parked back unchanged.
+    #
+    # + model - The workflow model descriptor of the instance
+    # + id - The identifier of the instance
+    # + nodeId - The identifier of the event node
+    # + payload - The payload of the event
+    # + conditions - Functions evaluating the edge conditions of the model, by condition name
+    # + return - The resumed workflow context, or error if the instance is not parked or fails to resume
+    public function deliver(WorkflowModelDescriptor model, string id, string nodeId, anydata payload,
+            map<ConditionFunction> conditions = {}) returns WorkflowContext|error {
+        byte[]? state = takeState(self, id);
+        if state is () {
+            return error(string `Workflow instance '${id}' is not parked`);
+        }
+        WorkflowContext|error context = self.codec.decode(state);
+        if context is WorkflowContext {
+            context = resumeWorkflow(model, context, nodeId, payload, conditions);
+        }
+        if context is error {
+            check parkState(self, id, state);
+            return context;
+        }
+        if getWaitingEvents(context).length() > 0 {
+            check self.park(context);
+        }
+        return context;
+    }
+
+    # Park a workflow instance, replacing any state parked for it before
+    #
+    # + context - The workflow context of the instance
+    # + return - Error if the state cannot be serialized or stored
+    public function park(WorkflowContext context) returns error? {
+        return parkState(self, context.id, check self.codec.encode(context));
+    }
+
+    # Take a parked workflow instance out of the store
+    #
+    # + id - The identifier of the instance
+    # + return - The workflow context, nil if the instance is not parked, or error if it cannot be restored
+    public function unpark(string id) returns WorkflowContext|error? {
+        byte[]? state = takeState(self, id);
+        if state is () {
+            return ();
+        }
+        return self.codec.decode(state);
+    }
+
+    # Check whether a workflow instance is parked
+    #
+    # + id - The identifier of the instance
+    # + return - True if the instance is parked
+    public function isParked(string id) returns boolean = @java:Method {
+        'class: "io.ballerina.workflow.ParkedStateStore",
+        name: "contains"
+    } external;
+
+    # Get the number of parked workflow instances
+    #
+    # + return - The number of parked instances
+    public function size() returns int = @java:Method {
+        'class: "io.ballerina.workflow.ParkedStateStore"
+    } external;
+
+    # Get the number of states relocated by the compaction of segments
+    #
+    # + return - The number of relocated states
+    public function getRelocations() returns int = @java:Method {
+        'class: "io.ballerina.workflow.ParkedStateStore"
+    } external;
+
+    # Release the memory of the store, and delete its backing file if any
+    #
+    # + return - Error if the backing file cannot be deleted
+    public function close() returns error? = @java:Method {
+        'class: "io.ballerina.workflow.ParkedStateStore"
+    } external;
+}
+
+function initParkedStateStore(ParkedStateStore store, ParkedStateStoreConfig config) returns error? = @java:Method {
+    'class: "io.ballerina.workflow.ParkedStateStore",
+    name: "init"
+} external;
+
+function parkState(ParkedStateStore store, string id, byte[] state) returns error? = @java:Method {
+    'class: "io.ballerina.workflow.ParkedStateStore",
+    name: "park"
+} external;
+
+function takeState(ParkedStateStore store, string id) returns byte[]? = @java:Method {
+    'class: "io.ballerina.workflow.ParkedStateStore",
+    name: "take"
+} external;
+
 /////////////////////////////////////////////////////////////////////////////////////////////////////
 // Workflow Execution Context
 /////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -63,6 +419,9 @@ public function createWorkflowInstance(WorkflowModelDescriptor model, map<anydat
 
 # Execute a workflow step for a given node
 #
+# The output delivered to the context variables under the node identifier, such as the payload
+# of an event, becomes the result of the node.
+#
 # + context - The workflow context
 # + nodeId - The identifier of the node to execute
 # + return - Updated workflow context or error
@@ -73,14 +432,89 @@ public function executeWorkflowStep(WorkflowContext context, string nodeId) retu
 
 # Execute a complete workflow model
 #
+# Execution stops at the event nodes whose payload is not delivered yet, see `getWaitingEvents` and `resumeWorkflow`.
+#
 # + model - The workflow model descriptor to execute
 # + inputs - Initial input variables for the workflow
+# + conditions - Functions evaluating the edge conditions of the model, by condition name
 # + return - Final workflow context with results or error
-public function executeWorkflow(WorkflowModelDescriptor model, map<anydata> inputs = {}) returns WorkflowContext|error = @java:Method {
+public function executeWorkflow(WorkflowModelDescriptor model, map<anydata> inputs = {}, map<ConditionFunction> conditions = {}) returns WorkflowContext|error = @java:Method {
     'class: "io.ballerina.workflow.WorkflowExecutor",
     name: "execute"
 } external;
 
+# Execute a workflow model using its precompiled execution graph
+#
+# + model - The workflow model descriptor to execute
+# + graph - The precompiled execution graph of the model
+# + inputs - Initial input variables for the workflow
+# + conditions - Functions evaluating the edge conditions of the model, by condition name
+# + return - Final workflow context with results or error
+public function executeCompiledWorkflow(WorkflowModelDescriptor model, CompiledWorkflowGraph graph, map<anydata> inputs = {}, map<ConditionFunction> conditions = {}) returns WorkflowContext|error = @java:Method {
+    'class: "io.ballerina.workflow.WorkflowExecutor",
+    name: "executeCompiled"
+} external;
+
+# Resume a workflow instance waiting on an event
+#
+# The event node runs with the payload as its output, and the workflow continues from it until it
+# completes or waits on further events.
+#
+# + model - The workflow model descriptor of the instance
+# + context - The workflow context of the instance
+# + nodeId - The identifier of the event node
+# + payload - The payload of the event
+# + conditions - Functions evaluating the edge conditions of the model, by condition name
+# + return - Updated workflow context or error if the instance is not waiting on the event or a node fails
+public function resumeWorkflow(WorkflowModelDescriptor model, WorkflowContext context, string nodeId, anydata payload, map<ConditionFunction> conditions = {}) returns WorkflowContext|error = @java:Method {
+    'class: "io.ballerina.workflow.WorkflowExecutor",
+    name: "resume"
+} external;
+
+# Get the event nodes a workflow instance is waiting on
+#
+# Executing a workflow stops at the event nodes whose payload is not delivered yet, until the instance
+# is resumed with the payload.
+#
+# + context - The workflow context
+# + return - Identifiers of the event nodes the instance waits on, empty if it is not waiting
+public function getWaitingEvents(WorkflowContext context) returns string[] = @java:Method {
+    'class: "io.ballerina.workflow.WorkflowExecutor"
+} external;
+
+# Execute a ForEach node over a collection
+# 
+# The nested nodes run in the order of the nested edges for each element. The results of the nested
+# nodes are stored for each element, in the order of the collection, as the result of the ForEach node.
+#
+# + context - The workflow context
+# + nodeId - The identifier of the ForEach node
+# + node - The ForEach node to execute
+# + collection - The collection to iterate over
+# + conditions - Functions evaluating the conditions of the nested edges, by condition name
+# + return - Updated workflow context or error if any element fails
+public function executeForEach(WorkflowContext context, string nodeId, ForEachNode node, map<anydata>|anydata[] collection, map<ConditionFunction> conditions = {}) returns WorkflowContext|error = @java:Method {
+    'class: "io.ballerina.workflow.ForEachExecutor",
+    name: "execute"
+} external;
+
+# Execute a While node until its condition evaluates to false
+#
+# The loop keeps a single state slot in the workflow results and compacts its history once
+# the history limit of the node is reached, so the context does not grow with the iterations.
+# The condition is evaluated against the iteration context, which holds the latest iteration results.
+#
+# + context - The workflow context
+# + nodeId - The identifier of the While node
+# + node - The While node
+# + condition - The function that evaluates the loop condition
+# + conditions - Functions evaluating the conditions of the nested edges, by condition name
+# + return - Updated workflow context or error if the condition or a nested node fails
+public function executeWhile(WorkflowContext context, string nodeId, WhileNode node, ConditionFunction condition, map<ConditionFunction> conditions = {}) returns WorkflowContext|error = @java:Method {
+    'class: "io.ballerina.workflow.WhileExecutor",
+    name: "execute"
+} external;
+
 # Get the next executable nodes in the workflow
 #
 # + context - The workflow context
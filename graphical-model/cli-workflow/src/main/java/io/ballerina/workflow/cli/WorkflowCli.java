@@ -20,6 +20,7 @@ package io.ballerina.workflow.cli;
 
 import io.ballerina.workflow.cli.commands.GenerateCommand;
 import io.ballerina.workflow.cli.commands.NewCommand;
+import io.ballerina.workflow.cli.commands.WatchCommand;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
@@ -35,6 +36,7 @@ import picocli.CommandLine.Command;
          subcommands = {
              NewCommand.class,
              GenerateCommand.class,
+             WatchCommand.class,
              CommandLine.HelpCommand.class
          })
 public class WorkflowCli {
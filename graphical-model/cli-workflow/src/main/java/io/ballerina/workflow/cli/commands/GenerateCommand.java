@@ -18,9 +18,7 @@
 
 package io.ballerina.workflow.cli.commands;
 
-import io.ballerina.workflow.cli.generators.ClientGenerator;
-import io.ballerina.workflow.cli.generators.ImplementationGenerator;
-import io.ballerina.workflow.cli.parsers.WorkflowModelParser;
+import io.ballerina.workflow.cli.generators.WorkflowCodeGenerator;
 import io.ballerina.workflow.cli.utils.WorkflowModel;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -29,7 +27,6 @@ import picocli.CommandLine.Parameters;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.concurrent.Callable;
 
 /**
@@ -59,8 +56,8 @@ public class GenerateCommand implements Callable<Integer> {
         
         try {
             // Find the workflow model file
-            String fileName = workflowName.toLowerCase().replace(" ", "_") + ".bal";
-            Path workflowFile = Paths.get("workflows", fileName);
+            String fileName = WorkflowCodeGenerator.toFileStem(workflowName) + ".bal";
+            Path workflowFile = WorkflowCodeGenerator.WORKFLOWS_DIR.resolve(fileName);
             
             if (!Files.exists(workflowFile)) {
                 System.err.println("Error: Workflow model file not found: " + workflowFile);
@@ -70,23 +67,13 @@ public class GenerateCommand implements Callable<Integer> {
             
             // Parse the workflow model
             System.out.println("Parsing workflow model...");
-            WorkflowModel model = WorkflowModelParser.parse(workflowFile);
+            WorkflowCodeGenerator generator = new WorkflowCodeGenerator();
+            WorkflowModel model = generator.loadModel(workflowFile);
             
-            // Create generated directory structure
-            Path generatedDir = Paths.get("generated", workflowName.toLowerCase().replace(" ", "_"));
-            Files.createDirectories(generatedDir);
-            
-            // Generate client code
+            // Generate client code, types and context
             System.out.println("Generating client code...");
-            ClientGenerator clientGenerator = new ClientGenerator(model);
-            String clientCode = clientGenerator.generate();
-            
-            // Write client files
-            Files.write(generatedDir.resolve("client.bal"), clientCode.getBytes());
-            
-            // Generate types and context
-            String typesCode = clientGenerator.generateTypes();
-            Files.write(generatedDir.resolve("types.bal"), typesCode.getBytes());
+            Path generatedDir = WorkflowCodeGenerator.getGeneratedDir(workflowFile);
+            generator.generateClient(model, generatedDir);
             
             System.out.println("Generated client code:");
             System.out.println("   " + generatedDir.toAbsolutePath());
@@ -95,12 +82,12 @@ public class GenerateCommand implements Callable<Integer> {
             
             // Handle implementation generation
             if (createImpl || updateImpl) {
-                handleImplementationGeneration(model, createImpl);
+                generator.generateImplementation(model, createImpl, generatedDir);
             }
             
             System.out.println();
             System.out.println("Integration example:");
-            System.out.println("   import generated." + workflowName.toLowerCase().replace(" ", "_") + ";");
+            System.out.println("   import generated." + WorkflowCodeGenerator.toFileStem(workflowName) + ";");
             System.out.println();
             System.out.println("   " + model.getCapitalizedName() + "WorkflowClient client = check new(new " + 
                              model.getCapitalizedName() + "WorkflowImpl(), new workflow:InMemoryProvider());");
@@ -116,43 +103,4 @@ public class GenerateCommand implements Callable<Integer> {
             return 1;
         }
     }
-    
-    private void handleImplementationGeneration(WorkflowModel model, boolean createMode) throws IOException {
-        Path implFile = Paths.get("workflow.bal");
-        ImplementationGenerator implGenerator = new ImplementationGenerator(model);
-        
-        if (createMode) {
-            if (Files.exists(implFile)) {
-                System.err.println("Warning: workflow.bal already exists, skipping implementation generation");
-                System.err.println("   Use --update-impl to update existing implementation");
-                return;
-            }
-            
-            System.out.println("Creating implementation file...");
-            String implCode = implGenerator.generateComplete();
-            Files.write(implFile, implCode.getBytes());
-            System.out.println("Created workflow.bal with basic implementation");
-            
-        } else { // updateMode
-            if (!Files.exists(implFile)) {
-                System.err.println("Warning: workflow.bal not found, creating new file");
-                System.err.println("   Use --create-impl for initial creation");
-                String implCode = implGenerator.generateComplete();
-                Files.write(implFile, implCode.getBytes());
-                System.out.println("Created workflow.bal with basic implementation");
-                return;
-            }
-            
-            System.out.println("Updating implementation file...");
-            String existingContent = Files.readString(implFile);
-            String updatedContent = implGenerator.updateExisting(existingContent);
-            
-            if (!updatedContent.equals(existingContent)) {
-                Files.write(implFile, updatedContent.getBytes());
-                System.out.println("Updated workflow.bal with new methods");
-            } else {
-                System.out.println("No updates needed for workflow.bal");
-            }
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.cli.commands;
+
+import io.ballerina.workflow.cli.generators.WorkflowCodeGenerator;
+import io.ballerina.workflow.cli.utils.WorkflowModel;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to watch the workflows directory and regenerate code on every change.
+ * 
+ * The command runs in a single long-lived JVM, so the Ballerina parser and the parsed
+ * models stay warm between saves and only the workflows whose model file changed are
+ * regenerated.
+ *
+ * @since 0.1.0
+ */
+@Command(name = "watch",
+         description = "Watch the workflows directory and regenerate code when a workflow model changes")
+public class WatchCommand implements Callable<Integer> {
+
+    // Editors often emit several events for a single save, so wait for them to settle
+    private static final long SETTLE_MILLIS = 20;
+
+    @Option(names = {"--update-impl"}, 
+            description = "Update existing workflow.bal implementation file (add new methods only)")
+    private boolean updateImpl;
+
+    private final WorkflowCodeGenerator generator = new WorkflowCodeGenerator();
+
+    @Override
+    public Integer call() throws Exception {
+        Path workflowsDir = WorkflowCodeGenerator.WORKFLOWS_DIR;
+        if (!Files.isDirectory(workflowsDir)) {
+            System.err.println("Error: Workflows directory not found: " + workflowsDir.toAbsolutePath());
+            System.err.println("   Run 'workflow new <name>' to create a workflow first");
+            return 1;
+        }
+        
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            workflowsDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, 
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            
+            // Generate everything once, which also warms up the parser
+            try (DirectoryStream<Path> workflowFiles = Files.newDirectoryStream(workflowsDir, "*.bal")) {
+                for (Path workflowFile : workflowFiles) {
+                    regenerate(workflowFile);
+                }
+            }
+            
+            System.out.println("Watching " + workflowsDir.toAbsolutePath() + " for changes (Ctrl+C to stop)");
+            watch(watchService, workflowsDir);
+            return 0;
+            
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error watching workflows: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    private void watch(WatchService watchService, Path workflowsDir) throws InterruptedException {
+        while (true) {
+            WatchKey key = watchService.take();
+            Set<Path> changedFiles = new LinkedHashSet<>();
+            Set<Path> deletedFiles = new LinkedHashSet<>();
+            
+            // Drain the burst of events of a save before regenerating
+            while (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path workflowFile = workflowsDir.resolve((Path) event.context());
+                    if (!workflowFile.getFileName().toString().endsWith(".bal")) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        changedFiles.remove(workflowFile);
+                        deletedFiles.add(workflowFile);
+                    } else {
+                        deletedFiles.remove(workflowFile);
+                        changedFiles.add(workflowFile);
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("Error: Workflows directory is no longer accessible");
+                    return;
+                }
+                key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            
+            deletedFiles.forEach(generator::evict);
+            changedFiles.forEach(this::regenerate);
+        }
+    }
+    
+    private void regenerate(Path workflowFile) {
+        long startTime = System.nanoTime();
+        try {
+            Optional<WorkflowModel> model = generator.reloadIfChanged(workflowFile);
+            if (model.isEmpty()) {
+                return;
+            }
+            
+            Path generatedDir = WorkflowCodeGenerator.getGeneratedDir(workflowFile);
+            generator.generateClient(model.get(), generatedDir);
+            if (updateImpl) {
+                generator.generateImplementation(model.get(), false, generatedDir);
+            }
+            
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            System.out.println("Regenerated " + generatedDir + " (" + elapsedMillis + " ms)");
+        } catch (Exception e) {
+            // Keep watching, the next save will most likely fix the model
+            System.err.println("Error: Could not regenerate " + workflowFile + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -24,8 +24,8 @@ import io.ballerina.workflow.cli.utils.WorkflowModel.WorkflowNode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generator for workflow client code.
@@ -151,7 +151,7 @@ public class ClientGenerator {
     }
     
     private String generateStartEventMethod(WorkflowNode node) {
-        String methodName = findNodeId(node);
+        String methodName = node.getId();
         String inputParams = generateInputParameters(node);
         String returnType = node.hasOutput() ? node.getOutputType() : "string";
         
@@ -181,7 +181,7 @@ public class ClientGenerator {
     }
     
     private String generateEventMethod(WorkflowNode node) {
-        String methodName = findNodeId(node);
+        String methodName = node.getId();
         String inputParams = generateInputParameters(node);
         
         return String.format("""
@@ -206,16 +206,14 @@ public class ClientGenerator {
         interface_.append(String.format("public type %sWorkflow object {\n", model.getCapitalizedName()));
         
         // Add methods for StartEvent and Activity nodes
-        model.getNodes().forEach((id, node) -> {
-            if ("StartEvent".equals(node.getKind()) || "Activity".equals(node.getKind())) {
-                String inputParams = generateFunctionParameters(node);
-                String returnType = node.hasOutput() ? node.getOutputType() : "error?";
-                
-                interface_.append(String.format("    public function %s(Context ctx%s) returns %s;\n", 
-                    id, 
-                    inputParams.isEmpty() ? "" : ", " + inputParams,
-                    returnType));
-            }
+        Stream.concat(model.getStartEventNodes().stream(), model.getActivityNodes().stream()).forEach(node -> {
+            String inputParams = generateFunctionParameters(node);
+            String returnType = node.hasOutput() ? node.getOutputType() : "error?";
+            
+            interface_.append(String.format("    public function %s(Context ctx%s) returns %s;\n", 
+                node.getId(), 
+                inputParams.isEmpty() ? "" : ", " + inputParams,
+                returnType));
         });
         
         // Add condition methods
@@ -281,12 +279,4 @@ public class ClientGenerator {
             .map(input -> String.format("# + %s - %s parameter", input.getName(), input.getType()))
             .collect(Collectors.joining("\n            "));
     }
-    
-    private String findNodeId(WorkflowNode node) {
-        return model.getNodes().entrySet().stream()
-            .filter(entry -> entry.getValue() == node)
-            .map(Map.Entry::getKey)
-            .findFirst()
-            .orElse("unknown");
-    }
 }
\ No newline at end of file
@@ -18,16 +18,33 @@
 
 package io.ballerina.workflow.cli.generators;
 
+import io.ballerina.compiler.syntax.tree.ClassDefinitionNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.NodeList;
+import io.ballerina.compiler.syntax.tree.NodeParser;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.compiler.syntax.tree.TypeReferenceNode;
+import io.ballerina.tools.text.TextDocuments;
 import io.ballerina.workflow.cli.utils.WorkflowModel;
 import io.ballerina.workflow.cli.utils.WorkflowModel.WorkflowNode;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generator for workflow implementation code.
@@ -79,19 +96,74 @@ public class ImplementationGenerator {
     
     /**
      * Update existing implementation by adding missing methods.
+     * 
+     * The existing content is parsed into a syntax tree and the missing node and condition
+     * methods are appended to the implementation class through tree modification, so the
+     * formatting of the user's code is preserved as is.
      *
      * @param existingContent The current content of the implementation file
-     * @return Updated content with new methods added
+     * @return Updated content with new methods added, or empty if the update was skipped because the
+     *         file has syntax errors or no implementation class
      */
-    public String updateExisting(String existingContent) {
-        Set<String> existingMethods = extractExistingMethods(existingContent);
+    public Optional<String> updateExisting(String existingContent) {
+        SyntaxTree syntaxTree = SyntaxTree.from(TextDocuments.from(existingContent));
+        if (syntaxTree.hasDiagnostics()) {
+            System.err.println("Warning: workflow.bal has syntax errors, skipping implementation update");
+            return Optional.empty();
+        }
+        
+        ModulePartNode rootNode = syntaxTree.rootNode();
+        Optional<ClassDefinitionNode> implClass = findImplementationClass(rootNode);
+        if (implClass.isEmpty()) {
+            System.err.println("Warning: Could not find " + getImplementationClassName() + " in workflow.bal");
+            return Optional.empty();
+        }
+        
+        List<String> newMethods = generateMissingMethods(extractExistingMethods(implClass.get()));
+        if (newMethods.isEmpty()) {
+            return Optional.of(existingContent);
+        }
+        
+        NodeList<Node> members = implClass.get().members();
+        for (String newMethod : newMethods) {
+            members = members.add(NodeParser.parseObjectMember("\n" + indent(newMethod) + "\n"));
+        }
+        
+        ClassDefinitionNode updatedClass = implClass.get().modify().withMembers(members).apply();
+        ModulePartNode updatedRoot = rootNode.replace(implClass.get(), updatedClass);
+        return Optional.of(syntaxTree.modifyWith(updatedRoot).toSourceCode());
+    }
+    
+    /**
+     * Compute a fingerprint of an implementation file against the current model.
+     * 
+     * The fingerprint covers the file content and the methods required by the model, so an
+     * unchanged fingerprint means the file is already up to date and need not be parsed again.
+     *
+     * @param content The content of the implementation file
+     * @return Hex encoded SHA-256 fingerprint
+     */
+    public String fingerprint(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String method : getRequiredMethods()) {
+                digest.update(method.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private List<String> generateMissingMethods(Set<String> existingMethods) {
         List<String> newMethods = new ArrayList<>();
         
         // Generate missing node methods
-        model.getNodes().forEach((id, node) -> {
-            if (("StartEvent".equals(node.getKind()) || "Activity".equals(node.getKind())) 
-                && !existingMethods.contains(id)) {
-                newMethods.add(generateNodeMethod(id, node));
+        Stream.concat(model.getStartEventNodes().stream(), model.getActivityNodes().stream()).forEach(node -> {
+            if (!existingMethods.contains(node.getId())) {
+                newMethods.add(generateNodeMethod(node.getId(), node));
             }
         });
         
@@ -102,27 +174,61 @@ public class ImplementationGenerator {
             }
         });
         
-        if (newMethods.isEmpty()) {
-            return existingContent;
+        return newMethods;
+    }
+    
+    private List<String> getRequiredMethods() {
+        List<String> methods = new ArrayList<>();
+        Stream.concat(model.getStartEventNodes().stream(), model.getActivityNodes().stream())
+            .forEach(node -> methods.add(node.getId() + ":" + generateFunctionParameters(node)));
+        methods.addAll(model.getUniqueConditions());
+        return methods;
+    }
+    
+    private Optional<ClassDefinitionNode> findImplementationClass(ModulePartNode rootNode) {
+        String className = getImplementationClassName();
+        ClassDefinitionNode fallback = null;
+        for (ModuleMemberDeclarationNode member : rootNode.members()) {
+            if (member.kind() != SyntaxKind.CLASS_DEFINITION) {
+                continue;
+            }
+            ClassDefinitionNode classDefinition = (ClassDefinitionNode) member;
+            if (className.equals(classDefinition.className().text())) {
+                return Optional.of(classDefinition);
+            }
+            if (fallback == null && includesWorkflowType(classDefinition)) {
+                fallback = classDefinition;
+            }
         }
-        
-        // Find the last closing brace and insert new methods before it
-        int lastBraceIndex = existingContent.lastIndexOf("}");
-        if (lastBraceIndex == -1) {
-            return existingContent + "\n\n" + String.join("\n\n    ", newMethods);
+        return Optional.ofNullable(fallback);
+    }
+    
+    private boolean includesWorkflowType(ClassDefinitionNode classDefinition) {
+        String typeName = model.getCapitalizedName() + "Workflow";
+        for (Node member : classDefinition.members()) {
+            if (member.kind() == SyntaxKind.TYPE_REFERENCE) {
+                String reference = ((TypeReferenceNode) member).typeName().toSourceCode().trim();
+                if (reference.equals(typeName) || reference.endsWith(":" + typeName)) {
+                    return true;
+                }
+            }
         }
-        
-        String beforeBrace = existingContent.substring(0, lastBraceIndex).trim();
-        String newMethodsStr = "    " + String.join("\n\n    ", newMethods);
-        
-        return beforeBrace + "\n\n" + newMethodsStr + "\n}";
+        return false;
+    }
+    
+    private String getImplementationClassName() {
+        return model.getCapitalizedName() + "WorkflowImpl";
+    }
+    
+    private static String indent(String code) {
+        return code.lines()
+            .map(line -> line.isEmpty() ? line : "    " + line)
+            .collect(Collectors.joining("\n"));
     }
     
     private String generateNodeMethods() {
-        return model.getNodes().entrySet().stream()
-            .filter(entry -> "StartEvent".equals(entry.getValue().getKind()) || 
-                           "Activity".equals(entry.getValue().getKind()))
-            .map(entry -> generateNodeMethod(entry.getKey(), entry.getValue()))
+        return Stream.concat(model.getStartEventNodes().stream(), model.getActivityNodes().stream())
+            .map(node -> generateNodeMethod(node.getId(), node))
             .collect(Collectors.joining("\n\n    "));
     }
     
@@ -218,23 +324,13 @@ public class ImplementationGenerator {
         }
     }
     
-    private Set<String> extractExistingMethods(String content) {
+    private Set<String> extractExistingMethods(ClassDefinitionNode classDefinition) {
         Set<String> methods = new HashSet<>();
-        
-        // Simple regex to find function definitions
-        // This is a basic implementation - in production, you'd want proper AST parsing
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.startsWith("public function ")) {
-                String methodName = line.substring("public function ".length());
-                int parenIndex = methodName.indexOf("(");
-                if (parenIndex > 0) {
-                    methods.add(methodName.substring(0, parenIndex));
-                }
+        for (Node member : classDefinition.members()) {
+            if (member.kind() == SyntaxKind.OBJECT_METHOD_DEFINITION) {
+                methods.add(((FunctionDefinitionNode) member).functionName().text());
             }
         }
-        
         return methods;
     }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.cli.generators;
+
+import io.ballerina.workflow.cli.parsers.WorkflowModelParser;
+import io.ballerina.workflow.cli.parsers.WorkflowModelParser.ParseException;
+import io.ballerina.workflow.cli.utils.WorkflowModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Drives code generation for the workflows of a project.
+ * 
+ * Parsed models are cached against the content of their model files, so a long-lived
+ * instance (as used by the watch command) only parses and regenerates workflows whose
+ * model file has actually changed.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowCodeGenerator {
+
+    public static final Path WORKFLOWS_DIR = Paths.get("workflows");
+    public static final Path GENERATED_DIR = Paths.get("generated");
+
+    private static final String IMPL_FILE = "workflow.bal";
+    private static final String IMPL_FINGERPRINT_FILE = ".workflow-impl.sha256";
+
+    private final Map<Path, CachedModel> models = new HashMap<>();
+
+    /**
+     * Get the file name stem used for the model file and the generated directory of a workflow.
+     *
+     * @param workflowName Name of the workflow
+     * @return File name stem, e.g. "order_processing"
+     */
+    public static String toFileStem(String workflowName) {
+        return workflowName.toLowerCase().replace(" ", "_");
+    }
+
+    /**
+     * Get the directory that holds the generated code of a workflow model file.
+     *
+     * @param workflowFile Path to the workflow model file
+     * @return Generated code directory
+     */
+    public static Path getGeneratedDir(Path workflowFile) {
+        String fileName = workflowFile.getFileName().toString();
+        return GENERATED_DIR.resolve(fileName.substring(0, fileName.length() - ".bal".length()));
+    }
+
+    /**
+     * Load a workflow model, reusing the cached model when the file has not changed.
+     *
+     * @param workflowFile Path to the workflow model file
+     * @return Parsed workflow model
+     * @throws IOException If file cannot be read
+     * @throws ParseException If parsing fails
+     */
+    public WorkflowModel loadModel(Path workflowFile) throws IOException, ParseException {
+        String content = Files.readString(workflowFile);
+        CachedModel cached = models.get(workflowFile.toAbsolutePath());
+        if (cached != null && cached.content().equals(content)) {
+            return cached.model();
+        }
+        return parseAndCache(workflowFile, content);
+    }
+
+    /**
+     * Reload a workflow model only if its file content differs from the cached model.
+     *
+     * @param workflowFile Path to the workflow model file
+     * @return The newly parsed model, or empty if the file is unchanged
+     * @throws IOException If file cannot be read
+     * @throws ParseException If parsing fails
+     */
+    public Optional<WorkflowModel> reloadIfChanged(Path workflowFile) throws IOException, ParseException {
+        String content = Files.readString(workflowFile);
+        CachedModel cached = models.get(workflowFile.toAbsolutePath());
+        if (cached != null && cached.content().equals(content)) {
+            return Optional.empty();
+        }
+        return Optional.of(parseAndCache(workflowFile, content));
+    }
+
+    /**
+     * Drop the cached model of a workflow model file.
+     *
+     * @param workflowFile Path to the workflow model file
+     */
+    public void evict(Path workflowFile) {
+        models.remove(workflowFile.toAbsolutePath());
+    }
+
+    /**
+     * Generate the client and types files of a workflow.
+     *
+     * @param model Workflow model
+     * @param generatedDir Directory to write the generated files to
+     * @throws IOException If the files cannot be written
+     */
+    public void generateClient(WorkflowModel model, Path generatedDir) throws IOException {
+        Files.createDirectories(generatedDir);
+        
+        ClientGenerator clientGenerator = new ClientGenerator(model);
+        Files.write(generatedDir.resolve("client.bal"), clientGenerator.generate().getBytes());
+        Files.write(generatedDir.resolve("types.bal"), clientGenerator.generateTypes().getBytes());
+    }
+
+    /**
+     * Create or update the workflow implementation file.
+     *
+     * @param model Workflow model
+     * @param createMode True to create a new implementation, false to update the existing one
+     * @param generatedDir Generated code directory of the workflow
+     * @throws IOException If the implementation file cannot be read or written
+     */
+    public void generateImplementation(WorkflowModel model, boolean createMode, Path generatedDir) 
+            throws IOException {
+        Path implFile = Paths.get(IMPL_FILE);
+        Path fingerprintFile = generatedDir.resolve(IMPL_FINGERPRINT_FILE);
+        ImplementationGenerator implGenerator = new ImplementationGenerator(model);
+        
+        if (createMode) {
+            if (Files.exists(implFile)) {
+                System.err.println("Warning: workflow.bal already exists, skipping implementation generation");
+                System.err.println("   Use --update-impl to update existing implementation");
+                return;
+            }
+            
+            System.out.println("Creating implementation file...");
+            String implCode = implGenerator.generateComplete();
+            Files.write(implFile, implCode.getBytes());
+            System.out.println("Created workflow.bal with basic implementation");
+            
+        } else { // updateMode
+            if (!Files.exists(implFile)) {
+                System.err.println("Warning: workflow.bal not found, creating new file");
+                System.err.println("   Use --create-impl for initial creation");
+                String implCode = implGenerator.generateComplete();
+                Files.write(implFile, implCode.getBytes());
+                System.out.println("Created workflow.bal with basic implementation");
+                return;
+            }
+            
+            String existingContent = Files.readString(implFile);
+            String existingFingerprint = implGenerator.fingerprint(existingContent);
+            if (Files.exists(fingerprintFile) 
+                    && existingFingerprint.equals(Files.readString(fingerprintFile).trim())) {
+                System.out.println("No updates needed for workflow.bal");
+                return;
+            }
+            
+            System.out.println("Updating implementation file...");
+            Optional<String> updated = implGenerator.updateExisting(existingContent);
+            if (updated.isEmpty()) {
+                // The file is not fingerprinted, so it is merged again once it is fixed
+                return;
+            }
+            String updatedContent = updated.get();
+            
+            if (!updatedContent.equals(existingContent)) {
+                Files.write(implFile, updatedContent.getBytes());
+                System.out.println("Updated workflow.bal with new methods");
+            } else {
+                System.out.println("No updates needed for workflow.bal");
+            }
+            Files.writeString(fingerprintFile, implGenerator.fingerprint(updatedContent));
+        }
+    }
+
+    private WorkflowModel parseAndCache(Path workflowFile, String content) throws ParseException {
+        WorkflowModel model = WorkflowModelParser.parseContent(content);
+        models.put(workflowFile.toAbsolutePath(), new CachedModel(content, model));
+        return model;
+    }
+
+    private record CachedModel(String content, WorkflowModel model) {
+    }
+}
\ No newline at end of file
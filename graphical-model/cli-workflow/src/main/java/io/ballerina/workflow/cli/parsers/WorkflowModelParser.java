@@ -46,9 +46,7 @@ import io.ballerina.workflow.cli.utils.WorkflowModel.NodeInput;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -90,25 +88,21 @@ public class WorkflowModelParser {
             // Get the root module part
             ModulePartNode modulePartNode = syntaxTree.rootNode();
             
-            // Initialize model and node mappings
+            // Initialize model
             WorkflowModel model = new WorkflowModel();
-            Map<String, WorkflowNode> nodeMap = new HashMap<>();
             
             // Parse all module members looking for workflow models  
             NodeList<ModuleMemberDeclarationNode> members = modulePartNode.members();
             for (ModuleMemberDeclarationNode member : members) {
                 if (member.kind() == SyntaxKind.MODULE_VAR_DECL) {
                     ModuleVariableDeclarationNode varDecl = (ModuleVariableDeclarationNode) member;
-                    parseModuleVariableDeclaration(varDecl, model, nodeMap);
+                    parseModuleVariableDeclaration(varDecl, model);
                 } else {
                     // Parse any member that might contain workflow annotations
                     parseGenericMember(member, model);
                 }
             }
             
-            // Set parsed nodes to model
-            model.setNodes(nodeMap);
-            
             return model;
             
         } catch (Exception e) {
@@ -226,11 +220,8 @@ public class WorkflowModelParser {
                         node.setOutputType(fieldType);
                     }
                     
-                    // Add to model using simplified node collection
-                    if (model.getNodes() == null) {
-                        model.setNodes(new java.util.HashMap<>());
-                    }
-                    model.getNodes().put(fieldName, node);
+                    // Add to model so that the node indexes are kept up to date
+                    model.addNode(fieldName, node);
                 }
             }
         } catch (Exception e) {
@@ -243,8 +234,7 @@ public class WorkflowModelParser {
      * Parse a module variable declaration which could be a node, edge, or workflow descriptor.
      */
     private static void parseModuleVariableDeclaration(ModuleVariableDeclarationNode varDecl, 
-                                                      WorkflowModel model, 
-                                                      Map<String, WorkflowNode> nodeMap) throws ParseException {
+                                                      WorkflowModel model) throws ParseException {
         
         TypedBindingPatternNode bindingPattern = varDecl.typedBindingPattern();
         String variableName = bindingPattern.bindingPattern().toString().trim();
@@ -264,7 +254,7 @@ public class WorkflowModelParser {
         } else if ("workflow:Node".equals(typeName)) {
             WorkflowNode node = parseWorkflowNode(initializer);
             if (node != null) {
-                nodeMap.put(variableName, node);
+                model.addNode(variableName, node);
             }
         } else if ("workflow:Edge".equals(typeName)) {
             WorkflowEdge edge = parseWorkflowEdge(initializer);
@@ -19,9 +19,12 @@
 package io.ballerina.workflow.cli.utils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a parsed workflow model with utilities for code generation.
@@ -34,6 +37,10 @@ public class WorkflowModel {
     private Map<String, WorkflowNode> nodes;
     private List<WorkflowEdge> edges;
     
+    // Indexes maintained by addNode/addEdge so that generators never rescan the model
+    private final Map<String, List<WorkflowNode>> nodesByKind = new HashMap<>();
+    private final Set<String> conditions = new LinkedHashSet<>();
+    
     public WorkflowModel() {
         this.nodes = new HashMap<>();
         this.edges = new ArrayList<>();
@@ -53,11 +60,33 @@ public class WorkflowModel {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public Map<String, WorkflowNode> getNodes() { return nodes; }
-    public void setNodes(Map<String, WorkflowNode> nodes) { this.nodes = nodes; }
+    /**
+     * Returns a read-only view of the nodes. Use {@link #addNode(String, WorkflowNode)} to add nodes
+     * so that the kind indexes stay in sync.
+     *
+     * @return Nodes keyed by node id
+     */
+    public Map<String, WorkflowNode> getNodes() { return Collections.unmodifiableMap(nodes); }
+    
+    public void setNodes(Map<String, WorkflowNode> nodes) {
+        this.nodes = new HashMap<>();
+        this.nodesByKind.clear();
+        nodes.forEach(this::addNode);
+    }
+    
+    /**
+     * Returns a read-only view of the edges. Use {@link #addEdge(WorkflowEdge)} to add edges
+     * so that the condition set stays in sync.
+     *
+     * @return Edges in declaration order
+     */
+    public List<WorkflowEdge> getEdges() { return Collections.unmodifiableList(edges); }
     
-    public List<WorkflowEdge> getEdges() { return edges; }
-    public void setEdges(List<WorkflowEdge> edges) { this.edges = edges; }
+    public void setEdges(List<WorkflowEdge> edges) {
+        this.edges = new ArrayList<>();
+        this.conditions.clear();
+        edges.forEach(this::addEdge);
+    }
     
     // Utility methods
     public String getCapitalizedName() {
@@ -71,43 +100,57 @@ public class WorkflowModel {
     }
     
     public List<WorkflowNode> getStartEventNodes() {
-        return nodes.values().stream()
-                .filter(node -> "StartEvent".equals(node.getKind()))
-                .toList();
+        return getNodesByKind("StartEvent");
     }
     
     public List<WorkflowNode> getEventNodes() {
-        return nodes.values().stream()
-                .filter(node -> "Event".equals(node.getKind()))
-                .toList();
+        return getNodesByKind("Event");
     }
     
     public List<WorkflowNode> getActivityNodes() {
-        return nodes.values().stream()
-                .filter(node -> "Activity".equals(node.getKind()))
-                .toList();
+        return getNodesByKind("Activity");
+    }
+    
+    /**
+     * Get the nodes of the given kind, in the order they were added.
+     *
+     * @param kind Node kind, e.g. "Activity"
+     * @return Read-only list of nodes of the given kind
+     */
+    public List<WorkflowNode> getNodesByKind(String kind) {
+        List<WorkflowNode> kindNodes = nodesByKind.get(kind);
+        return kindNodes == null ? List.of() : Collections.unmodifiableList(kindNodes);
     }
     
     public List<String> getUniqueConditions() {
-        return edges.stream()
-                .map(WorkflowEdge::getCondition)
-                .filter(condition -> condition != null && !condition.isEmpty())
-                .distinct()
-                .toList();
+        return List.copyOf(conditions);
     }
     
     public void addNode(String id, WorkflowNode node) {
-        nodes.put(id, node);
+        node.setId(id);
+        WorkflowNode previous = nodes.put(id, node);
+        if (previous != null) {
+            List<WorkflowNode> previousKindNodes = nodesByKind.get(previous.getKind());
+            if (previousKindNodes != null) {
+                previousKindNodes.remove(previous);
+            }
+        }
+        nodesByKind.computeIfAbsent(node.getKind(), kind -> new ArrayList<>()).add(node);
     }
     
     public void addEdge(WorkflowEdge edge) {
         edges.add(edge);
+        String condition = edge.getCondition();
+        if (condition != null && !condition.isEmpty()) {
+            conditions.add(condition);
+        }
     }
     
     /**
      * Represents a workflow node.
      */
     public static class WorkflowNode {
+        private String id;
         private String kind;
         private String description;
         private String outputType;
@@ -119,6 +162,9 @@ public class WorkflowModel {
         }
         
         // Getters and setters
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        
         public String getKind() { return kind; }
         public void setKind(String kind) { this.kind = kind; }
         
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.text.TextDocuments;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the extraction, validation and source generation of workflow models by the compiler plugin.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowCompilerPluginTest {
+
+    private static final String ORDER_MODEL = """
+            import myorg/flows as wf;
+
+            final wf:Node validate = {kind: "Activity"};
+
+            public final wf:WorkflowModelDescriptor orderProcess = {
+                name: "OrderProcessing",
+                nodes: {
+                    "start": {kind: "StartEvent"},
+                    "validate": validate,
+                    "ship": {kind: "Activity"}
+                },
+                edges: [
+                    {startNode: "start", endNode: validate},
+                    {startNode: "validate", endNode: "ship", condition: "isValid"}
+                ]
+            };
+            """;
+
+    @Test
+    public void testExtractNodesAndEdges() {
+        List<WorkflowModelDeclaration> declarations = extract(ORDER_MODEL);
+
+        Assert.assertEquals(declarations.size(), 1);
+        WorkflowModelDeclaration declaration = declarations.get(0);
+        Assert.assertEquals(declaration.getVariableName(), "orderProcess");
+        Assert.assertTrue(declaration.isResolved());
+        Assert.assertEquals(declaration.getWorkflowModule(), "myorg/flows");
+        Assert.assertTrue(WorkflowModelValidationTask.validate(declaration).isEmpty());
+    }
+
+    @Test
+    public void testExtractAcrossDocuments() {
+        String nodes = """
+                import myorg/flows;
+
+                final flows:Node ship = {kind: "Activity"};
+                """;
+        String model = """
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor shipping = {
+                    name: "Shipping",
+                    nodes: {"start": {kind: "StartEvent"}, "ship": ship},
+                    edges: [{startNode: "start", endNode: ship}]
+                };
+                """;
+        List<WorkflowModelDeclaration> declarations = extract(nodes, model);
+
+        Assert.assertEquals(declarations.size(), 1);
+        Assert.assertTrue(declarations.get(0).isResolved());
+        Assert.assertEquals(declarations.get(0).getWorkflowModule(), "myorg/flows");
+        Assert.assertTrue(WorkflowModelValidationTask.validate(declarations.get(0)).isEmpty());
+    }
+
+    @Test
+    public void testGeneratedSourceImportsDescriptorModule() {
+        String source = WorkflowSourceGeneratorTask.generateSource(extract(ORDER_MODEL).get(0));
+
+        Assert.assertTrue(source.contains("import myorg/flows as workflow;"), source);
+        Assert.assertFalse(source.contains("hasithaaravinda"), source);
+        Assert.assertTrue(source.contains("public class OrderProcessClient"), source);
+    }
+
+    @Test
+    public void testNonConstantModelIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor dynamic = createModel();
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_106"));
+    }
+
+    @Test
+    public void testUnknownNodeKindAndEdgeNodeAreReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor broken = {
+                    name: "Broken",
+                    nodes: {"start": {kind: "StartEvent"}, "task": {kind: "Task"}},
+                    edges: [{startNode: "start", endNode: "task"}, {startNode: "task", endNode: "missing"}]
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_102", "WORKFLOW_103"));
+    }
+
+    @Test
+    public void testMissingNodeKindIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor untyped = {
+                    name: "Untyped",
+                    nodes: {"start": {kind: "StartEvent"}, "task": {}},
+                    edges: [{startNode: "start", endNode: "task"}]
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_102"));
+    }
+
+    @Test
+    public void testNonLiteralNodeKindIsValidatedAtRuntime() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                const ACTIVITY = "Activity";
+
+                final flows:WorkflowModelDescriptor constantKind = {
+                    name: "ConstantKind",
+                    nodes: {"start": {kind: "StartEvent"}, "task": {kind: ACTIVITY}},
+                    edges: [{startNode: "start", endNode: "task"}]
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_106"));
+    }
+
+    @Test
+    public void testMissingStartEventIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor noStart = {
+                    name: "NoStart",
+                    nodes: {"first": {kind: "Activity"}, "second": {kind: "Activity"}},
+                    edges: [{startNode: "first", endNode: "second"}]
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_104"));
+    }
+
+    @Test
+    public void testUnreachableNodeIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor orphan = {
+                    name: "Orphan",
+                    nodes: {"start": {kind: "StartEvent"}, "orphan": {kind: "Activity"}},
+                    edges: []
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_105"));
+    }
+
+    @Test
+    public void testEmptyModelIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                import myorg/flows;
+
+                final flows:WorkflowModelDescriptor empty = {name: "Empty", nodes: {}, edges: []};
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_101"));
+    }
+
+    @Test
+    public void testUnimportedDescriptorTypeIsReported() {
+        List<Diagnostic> diagnostics = validate("""
+                final flows:WorkflowModelDescriptor local = {
+                    name: "Local",
+                    nodes: {"start": {kind: "StartEvent"}},
+                    edges: []
+                };
+                """);
+
+        Assert.assertEquals(codes(diagnostics), List.of("WORKFLOW_107"));
+    }
+
+    private static List<WorkflowModelDeclaration> extract(String... documents) {
+        List<ModulePartNode> rootNodes = Arrays.stream(documents)
+                .map(document -> SyntaxTree.from(TextDocuments.from(document)).<ModulePartNode>rootNode())
+                .toList();
+        return WorkflowModelExtractor.extract(rootNodes);
+    }
+
+    private static List<Diagnostic> validate(String document) {
+        List<WorkflowModelDeclaration> declarations = extract(document);
+        Assert.assertEquals(declarations.size(), 1);
+        return WorkflowModelValidationTask.validate(declarations.get(0));
+    }
+
+    private static List<String> codes(List<Diagnostic> diagnostics) {
+        return diagnostics.stream().map(diagnostic -> diagnostic.diagnosticInfo().code()).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.projects.plugins.CompilerPlugin;
+import io.ballerina.projects.plugins.CompilerPluginContext;
+
+/**
+ * Compiler plugin that validates workflow models and generates their execution graphs at build time.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowCompilerPlugin extends CompilerPlugin {
+
+    @Override
+    public void init(CompilerPluginContext pluginContext) {
+        pluginContext.addCodeAnalyzer(new WorkflowCodeAnalyzer());
+        pluginContext.addCodeGenerator(new WorkflowCodeGenerator());
+    }
+}
\ No newline at end of file
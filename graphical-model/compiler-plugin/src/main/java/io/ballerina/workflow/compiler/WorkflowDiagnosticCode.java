@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+
+import static io.ballerina.tools.diagnostics.DiagnosticSeverity.ERROR;
+import static io.ballerina.tools.diagnostics.DiagnosticSeverity.WARNING;
+
+/**
+ * Diagnostic codes reported by the workflow compiler plugin.
+ *
+ * @since 0.1.0
+ */
+public enum WorkflowDiagnosticCode {
+    WORKFLOW_101("WORKFLOW_101", "workflow model ''{0}'' does not define any nodes", ERROR),
+    WORKFLOW_102("WORKFLOW_102", "unknown node kind ''{0}'', expected one of StartEvent, Event, Activity, "
+            + "While or ForEach", ERROR),
+    WORKFLOW_103("WORKFLOW_103", "edge refers to node ''{0}'' which is not part of the workflow model", ERROR),
+    WORKFLOW_104("WORKFLOW_104", "workflow model ''{0}'' does not define a StartEvent node", WARNING),
+    WORKFLOW_105("WORKFLOW_105", "node ''{0}'' is not reachable from any entry node", WARNING),
+    WORKFLOW_106("WORKFLOW_106", "workflow model ''{0}'' is not defined with constant values, "
+            + "it will be validated and indexed at runtime", WARNING),
+    WORKFLOW_107("WORKFLOW_107", "the type of workflow model ''{0}'' is not imported from a workflow module, "
+            + "no client is generated for it", WARNING);
+
+    private final String code;
+    private final String message;
+    private final DiagnosticSeverity severity;
+
+    WorkflowDiagnosticCode(String code, String message, DiagnosticSeverity severity) {
+        this.code = code;
+        this.message = message;
+        this.severity = severity;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public DiagnosticSeverity getSeverity() {
+        return severity;
+    }
+}
\ No newline at end of file
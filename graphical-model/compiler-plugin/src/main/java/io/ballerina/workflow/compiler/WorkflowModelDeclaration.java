@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.tools.diagnostics.Location;
+import io.ballerina.workflow.core.WorkflowGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A workflow model descriptor declared at module level, as found in the syntax tree.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowModelDeclaration {
+
+    private final String variableName;
+    private final Location location;
+    private final List<String> nodeIds = new ArrayList<>();
+    private final List<String> nodeKinds = new ArrayList<>();
+    private final List<Location> nodeLocations = new ArrayList<>();
+    private final List<String[]> edges = new ArrayList<>();
+    private final List<Location> edgeLocations = new ArrayList<>();
+    private String workflowModule;
+    private boolean resolved = true;
+
+    WorkflowModelDeclaration(String variableName, Location location) {
+        this.variableName = variableName;
+        this.location = location;
+    }
+
+    public String getVariableName() {
+        return variableName;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * Get the workflow module the descriptor type is imported from.
+     *
+     * @return the organization and module name, as {@code org/module}, or null if it could not be resolved
+     */
+    public String getWorkflowModule() {
+        return workflowModule;
+    }
+
+    /**
+     * Check whether all nodes and edges of the model are defined with constant values.
+     *
+     * @return true if the model could be fully resolved from the syntax tree
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    public Location getNodeLocation(int node) {
+        return nodeLocations.get(node);
+    }
+
+    public Location getEdgeLocation(int edge) {
+        return edgeLocations.get(edge);
+    }
+
+    /**
+     * Create a graph builder holding the nodes and edges of this model.
+     *
+     * @return the graph builder
+     */
+    public WorkflowGraph.Builder toBuilder() {
+        WorkflowGraph.Builder builder = new WorkflowGraph.Builder();
+        for (int node = 0; node < nodeIds.size(); node++) {
+            builder.addNode(nodeIds.get(node), nodeKinds.get(node));
+        }
+        for (String[] edge : edges) {
+            builder.addEdge(edge[0], edge[1], edge[2]);
+        }
+        return builder;
+    }
+
+    void addNode(String nodeId, String kind, Location nodeLocation) {
+        nodeIds.add(nodeId);
+        nodeKinds.add(kind);
+        nodeLocations.add(nodeLocation);
+    }
+
+    void addEdge(String startNodeId, String endNodeId, String condition, Location edgeLocation) {
+        edges.add(new String[]{startNodeId, endNodeId, condition});
+        edgeLocations.add(edgeLocation);
+    }
+
+    void setWorkflowModule(String workflowModule) {
+        this.workflowModule = workflowModule;
+    }
+
+    void markUnresolved() {
+        resolved = false;
+    }
+}
\ No newline at end of file
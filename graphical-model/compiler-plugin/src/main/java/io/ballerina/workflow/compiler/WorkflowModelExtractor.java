@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.IdentifierToken;
+import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ListConstructorExpressionNode;
+import io.ballerina.compiler.syntax.tree.MappingConstructorExpressionNode;
+import io.ballerina.compiler.syntax.tree.MappingFieldNode;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.SimpleNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.SpecificFieldNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Extracts the workflow model descriptors of a module from its syntax trees.
+ * 
+ * Nodes and edges may be declared inline in the descriptor, or as module level
+ * {@code workflow:Node} and {@code workflow:Edge} variables in any document of the module.
+ * Edges refer to nodes either by their variable or by their node id. The workflow module a descriptor
+ * refers to is resolved from the import of the prefix of its type, so generated sources import the same
+ * organization and module as the descriptor.
+ *
+ * @since 0.1.0
+ */
+public final class WorkflowModelExtractor {
+
+    private static final String DESCRIPTOR_TYPE = ":WorkflowModelDescriptor";
+    private static final String NODE_TYPE = ":Node";
+    private static final String EDGE_TYPE = ":Edge";
+
+    private WorkflowModelExtractor() {
+    }
+
+    /**
+     * Extract the workflow model descriptors declared in a module.
+     *
+     * @param module the module to scan
+     * @return the workflow model declarations
+     */
+    public static List<WorkflowModelDeclaration> extract(Module module) {
+        List<ModulePartNode> documents = new ArrayList<>();
+        for (DocumentId documentId : module.documentIds()) {
+            documents.add(module.document(documentId).syntaxTree().rootNode());
+        }
+        return extract(documents);
+    }
+
+    /**
+     * Extract the workflow model descriptors declared in the documents of a module.
+     *
+     * @param documents the root nodes of the documents of the module
+     * @return the workflow model declarations
+     */
+    static List<WorkflowModelDeclaration> extract(Collection<ModulePartNode> documents) {
+        Map<String, ExpressionNode> nodeVariables = new HashMap<>();
+        Map<String, ExpressionNode> edgeVariables = new HashMap<>();
+        // Descriptors with the import of the workflow module their type refers to, if any
+        Map<ModuleVariableDeclarationNode, String> descriptors = new LinkedHashMap<>();
+
+        for (ModulePartNode rootNode : documents) {
+            for (ModuleMemberDeclarationNode member : rootNode.members()) {
+                if (member.kind() != SyntaxKind.MODULE_VAR_DECL) {
+                    continue;
+                }
+                ModuleVariableDeclarationNode variable = (ModuleVariableDeclarationNode) member;
+                Optional<ExpressionNode> initializer = variable.initializer();
+                if (initializer.isEmpty()) {
+                    continue;
+                }
+                String typeName = variable.typedBindingPattern().typeDescriptor().toSourceCode().trim();
+                if (typeName.endsWith(DESCRIPTOR_TYPE)) {
+                    String prefix = typeName.substring(0, typeName.length() - DESCRIPTOR_TYPE.length()).trim();
+                    descriptors.put(variable, findImport(rootNode, prefix));
+                } else if (typeName.endsWith(NODE_TYPE)) {
+                    nodeVariables.put(getVariableName(variable), initializer.get());
+                } else if (typeName.endsWith(EDGE_TYPE)) {
+                    edgeVariables.put(getVariableName(variable), initializer.get());
+                }
+            }
+        }
+
+        List<WorkflowModelDeclaration> declarations = new ArrayList<>();
+        descriptors.forEach((descriptor, workflowModule) -> {
+            WorkflowModelDeclaration declaration = extractDescriptor(descriptor, nodeVariables, edgeVariables);
+            declaration.setWorkflowModule(workflowModule);
+            declarations.add(declaration);
+        });
+        return declarations;
+    }
+
+    /**
+     * Find the module imported with a prefix in a document.
+     *
+     * @param rootNode the root node of the document
+     * @param prefix the import prefix
+     * @return the organization and module name, as {@code org/module}, or null if there is no such import
+     */
+    private static String findImport(ModulePartNode rootNode, String prefix) {
+        for (ImportDeclarationNode importNode : rootNode.imports()) {
+            if (importNode.orgName().isEmpty()) {
+                continue;
+            }
+            List<String> names = new ArrayList<>();
+            for (IdentifierToken name : importNode.moduleName()) {
+                names.add(name.text());
+            }
+            String importPrefix = importNode.prefix().map(node -> node.prefix().text())
+                    .orElse(names.get(names.size() - 1));
+            if (importPrefix.equals(prefix)) {
+                return importNode.orgName().get().orgName().text() + "/" + String.join(".", names);
+            }
+        }
+        return null;
+    }
+
+    private static WorkflowModelDeclaration extractDescriptor(ModuleVariableDeclarationNode descriptor,
+                                                              Map<String, ExpressionNode> nodeVariables,
+                                                              Map<String, ExpressionNode> edgeVariables) {
+        WorkflowModelDeclaration declaration = 
+                new WorkflowModelDeclaration(getVariableName(descriptor), descriptor.location());
+        ExpressionNode initializer = descriptor.initializer().get();
+        if (initializer.kind() != SyntaxKind.MAPPING_CONSTRUCTOR) {
+            declaration.markUnresolved();
+            return declaration;
+        }
+
+        Optional<ExpressionNode> nodes = getField((MappingConstructorExpressionNode) initializer, "nodes");
+        Optional<ExpressionNode> edges = getField((MappingConstructorExpressionNode) initializer, "edges");
+        if (nodes.isEmpty() || nodes.get().kind() != SyntaxKind.MAPPING_CONSTRUCTOR 
+                || edges.isEmpty() || edges.get().kind() != SyntaxKind.LIST_CONSTRUCTOR) {
+            declaration.markUnresolved();
+            return declaration;
+        }
+
+        // Node variables map to the node ids they are registered with, so edges can refer to them
+        Map<String, String> nodeIdsByVariable = new HashMap<>();
+        for (MappingFieldNode field : ((MappingConstructorExpressionNode) nodes.get()).fields()) {
+            if (field.kind() != SyntaxKind.SPECIFIC_FIELD) {
+                declaration.markUnresolved();
+                continue;
+            }
+            SpecificFieldNode nodeField = (SpecificFieldNode) field;
+            String nodeId = getFieldName(nodeField);
+            Optional<MappingConstructorExpressionNode> node = 
+                    resolve(nodeField.valueExpr().orElse(null), nodeVariables);
+            if (node.isEmpty()) {
+                declaration.markUnresolved();
+                continue;
+            }
+            nodeField.valueExpr().filter(value -> value.kind() == SyntaxKind.SIMPLE_NAME_REFERENCE)
+                    .ifPresent(value -> nodeIdsByVariable.put(getReferenceName(value), nodeId));
+            // A kind that is not a literal, such as a constant, is only known at runtime, while a missing kind
+            // is reported as an unknown kind
+            Optional<ExpressionNode> kind = getField(node.get(), "kind").or(() -> getField(node.get(), "node"));
+            if (kind.isPresent() && kind.get().kind() != SyntaxKind.STRING_LITERAL) {
+                declaration.markUnresolved();
+                continue;
+            }
+            declaration.addNode(nodeId, kind.map(WorkflowModelExtractor::getStringLiteral).orElse(null),
+                    nodeField.location());
+        }
+
+        for (Node edgeExpression : ((ListConstructorExpressionNode) edges.get()).expressions()) {
+            Optional<MappingConstructorExpressionNode> edge = resolve((ExpressionNode) edgeExpression, edgeVariables);
+            if (edge.isEmpty()) {
+                declaration.markUnresolved();
+                continue;
+            }
+            declaration.addEdge(getEdgeNodeId(edge.get(), "startNode", nodeIdsByVariable),
+                    getEdgeNodeId(edge.get(), "endNode", nodeIdsByVariable),
+                    getStringField(edge.get(), "condition").orElse(null), edgeExpression.location());
+        }
+        return declaration;
+    }
+
+    private static Optional<MappingConstructorExpressionNode> resolve(ExpressionNode expression,
+                                                                      Map<String, ExpressionNode> variables) {
+        if (expression != null && expression.kind() == SyntaxKind.SIMPLE_NAME_REFERENCE) {
+            expression = variables.get(getReferenceName(expression));
+        }
+        if (expression == null || expression.kind() != SyntaxKind.MAPPING_CONSTRUCTOR) {
+            return Optional.empty();
+        }
+        return Optional.of((MappingConstructorExpressionNode) expression);
+    }
+
+    private static String getEdgeNodeId(MappingConstructorExpressionNode edge, String fieldName,
+                                        Map<String, String> nodeIdsByVariable) {
+        Optional<ExpressionNode> value = getField(edge, fieldName);
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.get().kind() == SyntaxKind.STRING_LITERAL) {
+            return getStringLiteral(value.get());
+        }
+        if (value.get().kind() == SyntaxKind.SIMPLE_NAME_REFERENCE) {
+            String variableName = getReferenceName(value.get());
+            return nodeIdsByVariable.getOrDefault(variableName, variableName);
+        }
+        return null;
+    }
+
+    private static Optional<ExpressionNode> getField(MappingConstructorExpressionNode mapping, String fieldName) {
+        for (MappingFieldNode field : mapping.fields()) {
+            if (field.kind() == SyntaxKind.SPECIFIC_FIELD 
+                    && fieldName.equals(getFieldName((SpecificFieldNode) field))) {
+                return ((SpecificFieldNode) field).valueExpr();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> getStringField(MappingConstructorExpressionNode mapping, String fieldName) {
+        return getField(mapping, fieldName)
+                .filter(value -> value.kind() == SyntaxKind.STRING_LITERAL)
+                .map(WorkflowModelExtractor::getStringLiteral);
+    }
+
+    private static String getFieldName(SpecificFieldNode field) {
+        Node fieldName = field.fieldName();
+        if (fieldName.kind() == SyntaxKind.STRING_LITERAL) {
+            return getStringLiteral(fieldName);
+        }
+        String name = fieldName.toSourceCode().trim();
+        return name.startsWith("'") ? name.substring(1) : name;
+    }
+
+    private static String getStringLiteral(Node literal) {
+        String text = ((BasicLiteralNode) literal).literalToken().text();
+        return text.substring(1, text.length() - 1);
+    }
+
+    private static String getReferenceName(ExpressionNode reference) {
+        return ((SimpleNameReferenceNode) reference).name().text();
+    }
+
+    private static String getVariableName(ModuleVariableDeclarationNode variable) {
+        Node bindingPattern = variable.typedBindingPattern().bindingPattern();
+        if (bindingPattern.kind() == SyntaxKind.CAPTURE_BINDING_PATTERN) {
+            return ((CaptureBindingPatternNode) bindingPattern).variableName().text();
+        }
+        return bindingPattern.toSourceCode().trim();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.plugins.AnalysisTask;
+import io.ballerina.projects.plugins.CompilationAnalysisContext;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.DiagnosticFactory;
+import io.ballerina.tools.diagnostics.DiagnosticInfo;
+import io.ballerina.tools.diagnostics.Location;
+import io.ballerina.workflow.core.WorkflowGraphValidator;
+import io.ballerina.workflow.core.WorkflowGraphValidator.Problem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validates the structure of every workflow model descriptor of a package at compile time.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowModelValidationTask implements AnalysisTask<CompilationAnalysisContext> {
+
+    @Override
+    public void perform(CompilationAnalysisContext context) {
+        for (ModuleId moduleId : context.currentPackage().moduleIds()) {
+            Module module = context.currentPackage().module(moduleId);
+            for (WorkflowModelDeclaration declaration : WorkflowModelExtractor.extract(module)) {
+                validate(declaration).forEach(context::reportDiagnostic);
+            }
+        }
+    }
+
+    /**
+     * Validate a workflow model declaration.
+     *
+     * @param declaration the workflow model declaration
+     * @return the diagnostics of the model, empty if it is valid
+     */
+    static List<Diagnostic> validate(WorkflowModelDeclaration declaration) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (!declaration.isResolved()) {
+            diagnostics.add(create(WorkflowDiagnosticCode.WORKFLOW_106, declaration.getLocation(),
+                    declaration.getVariableName()));
+            return diagnostics;
+        }
+        if (declaration.getWorkflowModule() == null) {
+            diagnostics.add(create(WorkflowDiagnosticCode.WORKFLOW_107, declaration.getLocation(),
+                    declaration.getVariableName()));
+        }
+        
+        for (Problem problem : WorkflowGraphValidator.validate(declaration.toBuilder())) {
+            diagnostics.add(switch (problem.code()) {
+                case EMPTY_MODEL -> create(WorkflowDiagnosticCode.WORKFLOW_101, 
+                        declaration.getLocation(), declaration.getVariableName());
+                case UNKNOWN_NODE_KIND -> create(WorkflowDiagnosticCode.WORKFLOW_102, 
+                        declaration.getNodeLocation(problem.node()), Objects.requireNonNullElse(problem.subject(), ""));
+                case UNKNOWN_EDGE_NODE -> create(WorkflowDiagnosticCode.WORKFLOW_103, 
+                        declaration.getEdgeLocation(problem.edge()), problem.subject());
+                case NO_START_EVENT -> create(WorkflowDiagnosticCode.WORKFLOW_104, 
+                        declaration.getLocation(), declaration.getVariableName());
+                case UNREACHABLE_NODE -> create(WorkflowDiagnosticCode.WORKFLOW_105, 
+                        declaration.getNodeLocation(problem.node()), problem.subject());
+            });
+        }
+        return diagnostics;
+    }
+
+    private static Diagnostic create(WorkflowDiagnosticCode code, Location location, Object... args) {
+        DiagnosticInfo diagnosticInfo = new DiagnosticInfo(code.getCode(), code.getMessage(), code.getSeverity());
+        return DiagnosticFactory.createDiagnostic(diagnosticInfo, location, args);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.compiler;
+
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.plugins.GeneratorTask;
+import io.ballerina.projects.plugins.SourceGeneratorContext;
+import io.ballerina.tools.text.TextDocuments;
+import io.ballerina.workflow.core.WorkflowGraph;
+import io.ballerina.workflow.core.WorkflowGraphValidator;
+import io.ballerina.workflow.core.WorkflowGraphWriter;
+
+/**
+ * Generates the indexed execution graph and a client for every valid workflow model of a package.
+ * 
+ * Invalid models are skipped here, their problems are reported by {@link WorkflowModelValidationTask}.
+ *
+ * @since 0.1.0
+ */
+public class WorkflowSourceGeneratorTask implements GeneratorTask<SourceGeneratorContext> {
+
+    @Override
+    public void generate(SourceGeneratorContext context) {
+        for (ModuleId moduleId : context.currentPackage().moduleIds()) {
+            Module module = context.currentPackage().module(moduleId);
+            for (WorkflowModelDeclaration declaration : WorkflowModelExtractor.extract(module)) {
+                if (!declaration.isResolved() || declaration.getWorkflowModule() == null
+                        || WorkflowGraphValidator.hasErrors(WorkflowGraphValidator.validate(declaration.toBuilder()))) {
+                    continue;
+                }
+                String source = generateSource(declaration);
+                context.addSourceFile(TextDocuments.from(source), declaration.getVariableName() + "_workflow", 
+                        moduleId);
+            }
+        }
+    }
+
+    /**
+     * Generate the indexed graph and the client of a workflow model. The workflow module is imported
+     * with the {@code workflow} prefix, whatever the prefix used by the descriptor.
+     *
+     * @param declaration the valid, resolved workflow model declaration
+     * @return the generated source
+     */
+    static String generateSource(WorkflowModelDeclaration declaration) {
+        String variableName = declaration.getVariableName();
+        WorkflowGraph graph = declaration.toBuilder().build();
+        String clientName = Character.toUpperCase(variableName.charAt(0)) + variableName.substring(1) + "Client";
+        return "// Auto-generated by the workflow compiler plugin for: " + variableName + "\n\n"
+                + "import " + declaration.getWorkflowModule() + " as workflow;\n\n"
+                + "final workflow:CompiledWorkflowGraph " + variableName + "Graph = "
+                + WorkflowGraphWriter.toRecordLiteral(graph, "") + ";\n\n"
+                + "public class " + clientName + " {\n\n"
+                + "    private final map<workflow:ConditionFunction> conditions;\n\n"
+                + "    public function init(map<workflow:ConditionFunction> conditions = {}) {\n"
+                + "        self.conditions = conditions;\n"
+                + "    }\n\n"
+                + "    public function execute(map<anydata> inputs = {}) returns workflow:WorkflowContext|error {\n"
+                + "        return workflow:executeCompiledWorkflow(" + variableName + ", " + variableName 
+                + "Graph, inputs, self.conditions);\n"
+                + "    }\n"
+                + "}\n";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BFunctionPointer;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dispatch table for the edge conditions of a workflow graph.
+ * 
+ * Condition functions are resolved once, when the graph is loaded, into a table indexed by the
+ * condition index of the graph, so evaluating an edge never looks up a function by name.
+ * Results are memoised per step, so edges sharing a condition evaluate it only once per step.
+ *
+ * @since 0.1.0
+ */
+class ConditionTable {
+
+    private final Environment env;
+    private final String[] names;
+    private final BFunctionPointer[] functions;
+    private final boolean[] values;
+    private final int[] evaluatedAt;
+    private int step = 0;
+
+    private ConditionTable(Environment env, String[] names, BFunctionPointer[] functions) {
+        this.env = env;
+        this.names = names;
+        this.functions = functions;
+        this.values = new boolean[functions.length];
+        this.evaluatedAt = new int[functions.length];
+    }
+
+    /**
+     * Resolve the condition functions of a graph.
+     * Every condition of the graph must have a function, edges without a condition are always taken.
+     *
+     * @param env the Ballerina environment, used to call the condition functions
+     * @param graph the workflow graph
+     * @param conditionFunctions condition functions by condition name, may be null
+     * @return the condition table of the graph, or an error naming the conditions without a function
+     */
+    static Object resolve(Environment env, WorkflowGraph graph, BMap<BString, Object> conditionFunctions) {
+        int count = graph.getConditionCount();
+        String[] names = new String[count];
+        BFunctionPointer[] functions = new BFunctionPointer[count];
+        List<String> unresolved = new ArrayList<>();
+        for (int condition = 0; condition < count; condition++) {
+            names[condition] = graph.getCondition(condition);
+            if (conditionFunctions != null) {
+                functions[condition] = (BFunctionPointer) conditionFunctions.get(
+                        StringUtils.fromString(names[condition]));
+            }
+            if (functions[condition] == null) {
+                unresolved.add("'" + names[condition] + "'");
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            return ErrorCreator.createError(StringUtils.fromString("No condition function found for the conditions "
+                    + String.join(", ", unresolved)));
+        }
+        return new ConditionTable(env, names, functions);
+    }
+
+    /**
+     * Start a new step, invalidating the memoised condition results.
+     */
+    void nextStep() {
+        step++;
+    }
+
+    /**
+     * Evaluate a condition for the current step.
+     *
+     * @param condition the condition index, or {@link WorkflowGraph#NO_CONDITION}
+     * @param context the workflow context
+     * @return the condition result, or an error if the condition function fails
+     */
+    Object evaluate(int condition, BMap<BString, Object> context) {
+        if (condition == WorkflowGraph.NO_CONDITION) {
+            return Boolean.TRUE;
+        }
+        if (evaluatedAt[condition] == step) {
+            return values[condition];
+        }
+        Object result = functions[condition].call(env.getRuntime(), context);
+        if (result instanceof BError) {
+            return result;
+        }
+        if (!(result instanceof Boolean)) {
+            return ErrorCreator.createError(StringUtils.fromString("Condition '" + names[condition] 
+                    + "' did not return a boolean"));
+        }
+        values[condition] = (Boolean) result;
+        evaluatedAt[condition] = step;
+        return result;
+    }
+}
\ No newline at end of file
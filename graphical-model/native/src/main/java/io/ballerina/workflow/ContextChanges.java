@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dirty tracking and delta checkpoints of workflow contexts.
+ * 
+ * Once an instance is checkpointed, the executors record the results and variables they change.
+ * The next checkpoint then only contains those entries and the history appended since the previous
+ * checkpoint, instead of the whole context. A full snapshot is written for the first checkpoint,
+ * every {@code snapshotInterval} checkpoints, and whenever the history was compacted.
+ * Instances that are never checkpointed are not tracked.
+ * 
+ * A checkpoint only takes effect once it is committed, after the provider saved it. Until then the
+ * changes stay recorded, so the next checkpoint covers them again if the save failed. Changes are
+ * tracked per context value rather than per instance id and are dropped once the context is garbage
+ * collected, so contexts that are never discarded do not leak. Executors look changes up without
+ * locking, and collected contexts are only expunged when a checkpoint is taken or an instance discarded,
+ * never on the step path.
+ *
+ * @since 0.1.0
+ */
+public class ContextChanges {
+
+    static final byte DELTA = (byte) 0xB8;
+
+    private static final BString ID = StringUtils.fromString("id");
+    private static final BString VARIABLES = StringUtils.fromString("variables");
+
+    private static final Map<ContextKey, Changes> TRACKED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+
+    /**
+     * Changes of a tracked context since its last committed checkpoint.
+     * Changed entries map to the version of their latest change, so committing a checkpoint only
+     * clears the entries that did not change again after the checkpoint was taken.
+     */
+    private static final class Changes {
+        private final String id;
+        private final Map<BString, Long> results = new LinkedHashMap<>();
+        private final Map<BString, Long> variables = new LinkedHashMap<>();
+        private long version;
+        private long historyMark;
+        private long checkpoints;
+        private Pending pending;
+
+        private Changes(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * A checkpoint taken but not yet committed, with the changes it covers.
+     */
+    private record Pending(Map<BString, Long> results, Map<BString, Long> variables, long historySize) {
+    }
+
+    /**
+     * Weak identity key of a tracked context.
+     */
+    private static final class ContextKey extends WeakReference<Object> {
+        private final int hash;
+
+        private ContextKey(Object context, ReferenceQueue<Object> queue) {
+            super(context, queue);
+            this.hash = System.identityHashCode(context);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Object context = get();
+            return other instanceof ContextKey key && context != null && context == key.get();
+        }
+    }
+
+    /**
+     * Record that the result of a node changed.
+     *
+     * @param context the workflow context
+     * @param nodeId the identifier of the node
+     */
+    static void markResult(BMap<BString, Object> context, BString nodeId) {
+        Changes changes = getChanges(context);
+        if (changes != null) {
+            synchronized (changes) {
+                changes.results.put(nodeId, ++changes.version);
+            }
+        }
+    }
+
+    /**
+     * Set a workflow variable, recording the change for the next checkpoint.
+     *
+     * @param context the workflow context
+     * @param name the name of the variable
+     * @param value the value of the variable
+     */
+    @SuppressWarnings("unchecked")
+    public static void setVariable(BMap<BString, Object> context, BString name, Object value) {
+        ((BMap<BString, Object>) context.get(VARIABLES)).put(name, value);
+        Changes changes = getChanges(context);
+        if (changes != null) {
+            synchronized (changes) {
+                changes.variables.put(name, ++changes.version);
+            }
+        }
+    }
+
+    private static Changes getChanges(BMap<BString, Object> context) {
+        return TRACKED.isEmpty() ? null : TRACKED.get(new ContextKey(context, null));
+    }
+
+    private static Changes track(BMap<BString, Object> context) {
+        expungeCollected();
+        return TRACKED.computeIfAbsent(new ContextKey(context, COLLECTED),
+                key -> new Changes(context.getStringValue(ID).getValue()));
+    }
+
+    private static void expungeCollected() {
+        Reference<?> collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            TRACKED.remove(collected);
+        }
+    }
+
+    /**
+     * Create a checkpoint of a workflow context and start tracking its changes.
+     * The recorded changes are kept until the checkpoint is committed with {@link #commit}.
+     *
+     * @param codec the Ballerina codec object
+     * @param context the workflow context
+     * @param snapshotInterval number of checkpoints after which a full snapshot is written
+     * @return a full snapshot or a delta checkpoint, or an error if the context cannot be encoded
+     */
+    @SuppressWarnings("unchecked")
+    public static Object checkpoint(BObject codec, BMap<BString, Object> context, long snapshotInterval) {
+        ContextCodec contextCodec = ContextCodec.get(codec);
+        Changes changes = track(context);
+        BArray history = (BArray) context.get(WorkflowExecutor.HISTORY);
+        long historySize = history != null ? history.size() : 0;
+        
+        try {
+            synchronized (changes) {
+                byte[] data;
+                if (changes.checkpoints == 0 || historySize < changes.historyMark 
+                        || (snapshotInterval > 0 && changes.checkpoints % snapshotInterval == 0)) {
+                    data = contextCodec.encode(context);
+                } else {
+                    BMap<BString, Object> delta = ValueCreator.createMapValue();
+                    delta.put(WorkflowExecutor.RESULTS, 
+                            select((BMap<BString, Object>) context.get(WorkflowExecutor.RESULTS),
+                                    changes.results.keySet()));
+                    delta.put(VARIABLES, select((BMap<BString, Object>) context.get(VARIABLES),
+                            changes.variables.keySet()));
+                    BString[] appended = new BString[(int) (historySize - changes.historyMark)];
+                    for (int i = 0; i < appended.length; i++) {
+                        appended[i] = history.getBString(changes.historyMark + i);
+                    }
+                    delta.put(WorkflowExecutor.HISTORY, ValueCreator.createArrayValue(appended));
+                    // The waiting events are few, so they are always written in full
+                    Object waiting = context.get(WorkflowExecutor.WAITING);
+                    if (waiting != null) {
+                        delta.put(WorkflowExecutor.WAITING, waiting);
+                    }
+                    data = contextCodec.encode(DELTA, delta);
+                }
+                changes.pending = new Pending(new HashMap<>(changes.results), new HashMap<>(changes.variables),
+                        historySize);
+                return ValueCreator.createArrayValue(data);
+            }
+        } catch (IllegalArgumentException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to checkpoint workflow context: " 
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * Commit the latest checkpoint of a workflow context, once it is saved. The changes it covers
+     * are cleared, so the next checkpoint can be a delta on top of it.
+     *
+     * @param context the workflow context
+     */
+    public static void commit(BMap<BString, Object> context) {
+        Changes changes = getChanges(context);
+        if (changes == null) {
+            return;
+        }
+        synchronized (changes) {
+            Pending pending = changes.pending;
+            if (pending == null) {
+                return;
+            }
+            // Entries changed again after the checkpoint have a newer version and are kept
+            pending.results().forEach(changes.results::remove);
+            pending.variables().forEach(changes.variables::remove);
+            changes.historyMark = pending.historySize();
+            changes.checkpoints++;
+            changes.pending = null;
+        }
+    }
+
+    private static BMap<BString, Object> select(BMap<BString, Object> map, Iterable<BString> keys) {
+        BMap<BString, Object> selected = ValueCreator.createMapValue();
+        for (BString key : keys) {
+            if (map.containsKey(key)) {
+                selected.put(key, map.get(key));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Apply a delta checkpoint to a workflow context restored from an earlier checkpoint.
+     *
+     * @param codec the Ballerina codec object
+     * @param context the workflow context
+     * @param data the delta checkpoint
+     * @return an error if the data is not a valid delta checkpoint
+     */
+    @SuppressWarnings("unchecked")
+    public static Object applyDelta(BObject codec, BMap<BString, Object> context, BArray data) {
+        try {
+            BMap<BString, Object> delta = ContextCodec.get(codec).decode(DELTA, data.getBytes());
+            for (BString key : new BString[]{WorkflowExecutor.RESULTS, VARIABLES}) {
+                BMap<BString, Object> target = (BMap<BString, Object>) context.get(key);
+                BMap<BString, Object> changed = (BMap<BString, Object>) delta.get(key);
+                for (BString name : changed.getKeys()) {
+                    target.put(name, changed.get(name));
+                }
+            }
+            BArray history = (BArray) context.get(WorkflowExecutor.HISTORY);
+            BArray appended = (BArray) delta.get(WorkflowExecutor.HISTORY);
+            for (int i = 0; i < appended.size(); i++) {
+                history.append(appended.getBString(i));
+            }
+            if (delta.containsKey(WorkflowExecutor.WAITING)) {
+                context.put(WorkflowExecutor.WAITING, delta.get(WorkflowExecutor.WAITING));
+            }
+            return null;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | ClassCastException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to apply workflow checkpoint: " 
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop tracking the changes of a workflow instance.
+     *
+     * @param id the identifier of the instance
+     */
+    public static void discard(BString id) {
+        expungeCollected();
+        TRACKED.values().removeIf(changes -> changes.id.equals(id.getValue()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,562 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.PredefinedTypes;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.TypeTags;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary codec for workflow contexts.
+ * 
+ * The codec is created once per workflow model. Records of the output types declared on the model
+ * nodes are written with field ordinals instead of field names, and decoded back to their record
+ * types. Strings are written as references into a string table seeded with the model strings
+ * (model name, node ids, node kinds, conditions and output field names), and every other string
+ * is added to the table the first time it is written, so it is written in full only once.
+ * Integers and lengths use varint encoding.
+ * 
+ * The header holds a fingerprint of the model strings and record schemas, since the string references
+ * and field ordinals are only meaningful for the model they were written with. Data written with a
+ * different model fails to decode instead of decoding into the wrong strings and fields.
+ *
+ * @since 0.1.0
+ */
+public class ContextCodec {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 2;
+    static final int HEADER_SIZE = 6;
+
+    private static final String NATIVE_CODEC = "contextCodec";
+    private static final BString OUTPUT = StringUtils.fromString("output");
+
+    private static final int TAG_NIL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_FLOAT = 4;
+    private static final int TAG_DECIMAL = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_MAP = 7;
+    private static final int TAG_RECORD = 8;
+    private static final int TAG_ARRAY = 9;
+    private static final int TAG_BYTES = 10;
+    private static final int TAG_STRINGS = 11;
+    private static final int TAG_INTS = 12;
+
+    private static final MapType ANYDATA_MAP = TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA);
+    private static final ArrayType ANYDATA_ARRAY = TypeCreator.createArrayType(PredefinedTypes.TYPE_ANYDATA);
+    private static final ArrayType STRING_ARRAY = TypeCreator.createArrayType(PredefinedTypes.TYPE_STRING);
+    private static final ArrayType INT_ARRAY = TypeCreator.createArrayType(PredefinedTypes.TYPE_INT);
+
+    private final List<String> modelStrings = new ArrayList<>();
+    private final Map<String, Integer> modelStringIndex = new HashMap<>();
+    private final List<Schema> schemas = new ArrayList<>();
+    private final Map<Type, Schema> schemasByType = new IdentityHashMap<>();
+    private final int fingerprint;
+
+    /**
+     * Record schema derived from the output type of a node.
+     */
+    private record Schema(int id, RecordType type, String[] fields, Map<String, Integer> ordinals) {
+    }
+
+    ContextCodec(BMap<BString, Object> model) {
+        addModelString(model.getStringValue(WorkflowGraphs.NAME).getValue());
+        @SuppressWarnings("unchecked")
+        BMap<BString, Object> nodes = (BMap<BString, Object>) model.get(WorkflowGraphs.NODES);
+        for (BString nodeId : nodes.getKeys()) {
+            addModelString(nodeId.getValue());
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> node = (BMap<BString, Object>) nodes.get(nodeId);
+            String kind = WorkflowGraphs.getKind(node);
+            if (kind != null) {
+                addModelString(kind);
+            }
+            if (node.get(OUTPUT) instanceof BTypedesc output) {
+                addSchema(output.getDescribingType());
+            }
+        }
+        BArray edges = (BArray) model.get(WorkflowGraphs.EDGES);
+        for (int i = 0; edges != null && i < edges.size(); i++) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> edge = (BMap<BString, Object>) edges.get(i);
+            BString condition = edge.getStringValue(WorkflowGraphs.CONDITION);
+            if (condition != null) {
+                addModelString(condition.getValue());
+            }
+        }
+        fingerprint = computeFingerprint();
+    }
+
+    /**
+     * Hash the string table and the record schemas, in order, as they decide the encoded form.
+     */
+    private int computeFingerprint() {
+        CRC32 crc = new CRC32();
+        for (String value : modelStrings) {
+            crc.update(value.getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        for (Schema schema : schemas) {
+            crc.update(1);
+            for (String field : schema.fields()) {
+                crc.update(field.getBytes(StandardCharsets.UTF_8));
+                crc.update(0);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private void addModelString(String value) {
+        if (!modelStringIndex.containsKey(value)) {
+            modelStringIndex.put(value, modelStrings.size());
+            modelStrings.add(value);
+        }
+    }
+
+    private void addSchema(Type outputType) {
+        Type type = TypeUtils.getImpliedType(outputType);
+        if (!(type instanceof RecordType recordType) || schemasByType.containsKey(recordType)) {
+            return;
+        }
+        // Field ordinals follow the sorted field names, so they do not depend on declaration order
+        String[] fields = recordType.getFields().keySet().toArray(new String[0]);
+        Arrays.sort(fields);
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            ordinals.put(fields[i], i);
+            addModelString(fields[i]);
+        }
+        Schema schema = new Schema(schemas.size(), recordType, fields, ordinals);
+        schemas.add(schema);
+        schemasByType.put(recordType, schema);
+    }
+
+    /**
+     * Create the codec of a workflow model and attach it to the given Ballerina codec object.
+     *
+     * @param codec the Ballerina codec object
+     * @param model the workflow model descriptor
+     */
+    public static void init(BObject codec, BMap<BString, Object> model) {
+        codec.addNativeData(NATIVE_CODEC, new ContextCodec(model));
+    }
+
+    static ContextCodec get(BObject codec) {
+        return (ContextCodec) codec.getNativeData(NATIVE_CODEC);
+    }
+
+    /**
+     * Encode a workflow context.
+     *
+     * @param codec the Ballerina codec object
+     * @param context the workflow context
+     * @return encoded context as a byte array, or an error if the context cannot be encoded
+     */
+    public static Object encode(BObject codec, BMap<BString, Object> context) {
+        try {
+            return ValueCreator.createArrayValue(get(codec).encode(context));
+        } catch (IllegalArgumentException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to encode workflow context: " 
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * Decode a workflow context.
+     *
+     * @param codec the Ballerina codec object
+     * @param data the encoded context
+     * @return decoded workflow context, or an error if the data is not a valid encoded context
+     */
+    public static Object decode(BObject codec, BArray data) {
+        try {
+            return get(codec).decode(data.getBytes());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to decode workflow context: " 
+                    + e.getMessage()));
+        }
+    }
+
+    byte[] encode(BMap<BString, Object> context) {
+        return encode(MAGIC, context);
+    }
+
+    /**
+     * Encode a map of workflow state, starting with the given marker byte.
+     */
+    byte[] encode(byte marker, BMap<BString, Object> value) {
+        Writer writer = new Writer(modelStringIndex);
+        writer.out.write(marker);
+        writer.out.write(VERSION);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writer.out.write(fingerprint >>> shift);
+        }
+        writeValue(writer, value);
+        return writer.out.toByteArray();
+    }
+
+    BMap<BString, Object> decode(byte[] data) {
+        return decode(MAGIC, data);
+    }
+
+    /**
+     * Decode a map of workflow state encoded with the given marker byte.
+     */
+    BMap<BString, Object> decode(byte marker, byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != marker) {
+            throw new IllegalArgumentException("not a binary workflow " + (marker == MAGIC ? "context" : "checkpoint"));
+        }
+        if (data[1] != VERSION) {
+            throw new IllegalArgumentException("unsupported version " + data[1]);
+        }
+        int dataFingerprint = 0;
+        for (int i = 2; i < HEADER_SIZE; i++) {
+            dataFingerprint = (dataFingerprint << 8) | (data[i] & 0xFF);
+        }
+        if (dataFingerprint != fingerprint) {
+            throw new IllegalArgumentException("encoded with a different workflow model");
+        }
+        Reader reader = new Reader(data, HEADER_SIZE, modelStrings);
+        if (reader.readVarint() != TAG_MAP) {
+            throw new IllegalArgumentException("workflow state is not a map");
+        }
+        BMap<BString, Object> value = ValueCreator.createMapValue();
+        readEntries(reader, value);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(Writer writer, Object value) {
+        if (value == null) {
+            writer.writeVarint(TAG_NIL);
+        } else if (value instanceof Boolean bool) {
+            writer.writeVarint(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Long || value instanceof Integer) {
+            writer.writeVarint(TAG_INT);
+            writer.writeSignedVarint(((Number) value).longValue());
+        } else if (value instanceof Double number) {
+            writer.writeVarint(TAG_FLOAT);
+            writer.writeLong(Double.doubleToRawLongBits(number));
+        } else if (value instanceof BDecimal decimal) {
+            writer.writeVarint(TAG_DECIMAL);
+            writer.writeString(decimal.decimalValue().toString());
+        } else if (value instanceof BString string) {
+            writer.writeVarint(TAG_STRING);
+            writer.writeString(string.getValue());
+        } else if (value instanceof BMap<?, ?> map) {
+            writeMap(writer, (BMap<BString, Object>) map);
+        } else if (value instanceof BArray array) {
+            writeArray(writer, array);
+        } else {
+            throw new IllegalArgumentException("unsupported value of type " + value.getClass().getSimpleName());
+        }
+    }
+
+    private void writeMap(Writer writer, BMap<BString, Object> map) {
+        Schema schema = schemasByType.get(TypeUtils.getImpliedType(TypeUtils.getType(map)));
+        if (schema == null) {
+            writer.writeVarint(TAG_MAP);
+            writer.writeVarint(map.size());
+            for (BString key : map.getKeys()) {
+                writer.writeString(key.getValue());
+                writeValue(writer, map.get(key));
+            }
+            return;
+        }
+        
+        // Declared fields are written by ordinal, rest fields of open records with the ordinal
+        // after the last declared field followed by their name
+        writer.writeVarint(TAG_RECORD);
+        writer.writeVarint(schema.id());
+        writer.writeVarint(map.size());
+        for (BString key : map.getKeys()) {
+            Integer ordinal = schema.ordinals().get(key.getValue());
+            if (ordinal != null) {
+                writer.writeVarint(ordinal);
+            } else {
+                writer.writeVarint(schema.fields().length);
+                writer.writeString(key.getValue());
+            }
+            writeValue(writer, map.get(key));
+        }
+    }
+
+    private void writeArray(Writer writer, BArray array) {
+        int elementTag = TypeUtils.getImpliedType(array.getElementType()).getTag();
+        int length = (int) array.size();
+        if (elementTag == TypeTags.BYTE_TAG) {
+            byte[] bytes = array.getBytes();
+            writer.writeVarint(TAG_BYTES);
+            writer.writeVarint(length);
+            writer.out.write(bytes, 0, length);
+            return;
+        }
+        if (elementTag == TypeTags.STRING_TAG) {
+            writer.writeVarint(TAG_STRINGS);
+            writer.writeVarint(length);
+            for (int i = 0; i < length; i++) {
+                writer.writeString(array.getBString(i).getValue());
+            }
+            return;
+        }
+        if (elementTag == TypeTags.INT_TAG) {
+            writer.writeVarint(TAG_INTS);
+            writer.writeVarint(length);
+            for (int i = 0; i < length; i++) {
+                writer.writeSignedVarint(array.getInt(i));
+            }
+            return;
+        }
+        writer.writeVarint(TAG_ARRAY);
+        writer.writeVarint(length);
+        for (int i = 0; i < length; i++) {
+            writeValue(writer, array.get(i));
+        }
+    }
+
+    private Object readValue(Reader reader) {
+        int tag = reader.readVarint();
+        switch (tag) {
+            case TAG_NIL:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT:
+                return reader.readSignedVarint();
+            case TAG_FLOAT:
+                return Double.longBitsToDouble(reader.readLong());
+            case TAG_DECIMAL:
+                return ValueCreator.createDecimalValue(new BigDecimal(reader.readString()));
+            case TAG_STRING:
+                return StringUtils.fromString(reader.readString());
+            case TAG_MAP: {
+                BMap<BString, Object> map = ValueCreator.createMapValue(ANYDATA_MAP);
+                readEntries(reader, map);
+                return map;
+            }
+            case TAG_RECORD:
+                return readRecord(reader);
+            case TAG_ARRAY: {
+                int length = reader.readVarint();
+                BArray array = ValueCreator.createArrayValue(ANYDATA_ARRAY);
+                for (int i = 0; i < length; i++) {
+                    array.add(i, readValue(reader));
+                }
+                return array;
+            }
+            case TAG_BYTES: {
+                int length = reader.readVarint();
+                return ValueCreator.createArrayValue(reader.readBytes(length));
+            }
+            case TAG_STRINGS: {
+                int length = reader.readVarint();
+                BArray array = ValueCreator.createArrayValue(STRING_ARRAY);
+                for (int i = 0; i < length; i++) {
+                    array.add(i, StringUtils.fromString(reader.readString()));
+                }
+                return array;
+            }
+            case TAG_INTS: {
+                int length = reader.readVarint();
+                long[] values = new long[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = reader.readSignedVarint();
+                }
+                return ValueCreator.createArrayValue(values);
+            }
+            default:
+                throw new IllegalArgumentException("unknown value tag " + tag);
+        }
+    }
+
+    private void readEntries(Reader reader, BMap<BString, Object> map) {
+        int size = reader.readVarint();
+        for (int i = 0; i < size; i++) {
+            BString key = StringUtils.fromString(reader.readString());
+            map.put(key, readValue(reader));
+        }
+    }
+
+    private BMap<BString, Object> readRecord(Reader reader) {
+        int id = reader.readVarint();
+        if (id >= schemas.size()) {
+            throw new IllegalArgumentException("unknown record schema " + id);
+        }
+        Schema schema = schemas.get(id);
+        BMap<BString, Object> record = ValueCreator.createMapValue(schema.type());
+        int size = reader.readVarint();
+        for (int i = 0; i < size; i++) {
+            int ordinal = reader.readVarint();
+            String field = ordinal < schema.fields().length ? schema.fields()[ordinal] : reader.readString();
+            record.put(StringUtils.fromString(field), readValue(reader));
+        }
+        return record;
+    }
+
+    /**
+     * Output buffer with its string table.
+     * Strings are written as {@code index << 1 | 1} when already in the table, or as
+     * {@code length << 1} followed by their UTF-8 bytes, after which they are added to the table.
+     */
+    private static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        private final Map<String, Integer> modelStrings;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Writer(Map<String, Integer> modelStrings) {
+            this.modelStrings = modelStrings;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeLong(long value) {
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (value >>> (i * 8)));
+            }
+        }
+
+        void writeString(String value) {
+            Integer index = modelStrings.get(value);
+            if (index == null) {
+                index = strings.get(value);
+                if (index != null) {
+                    index += modelStrings.size();
+                }
+            }
+            if (index != null) {
+                writeVarint(((long) index << 1) | 1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint((long) bytes.length << 1);
+            out.write(bytes, 0, bytes.length);
+            strings.put(value, strings.size());
+        }
+    }
+
+    /**
+     * Input buffer with its string table, mirroring {@link Writer}.
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private final List<String> modelStrings;
+        private final List<String> strings = new ArrayList<>();
+        private int position;
+
+        private Reader(byte[] data, int position, List<String> modelStrings) {
+            this.data = data;
+            this.position = position;
+            this.modelStrings = modelStrings;
+        }
+
+        long readVarintLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        int readVarint() {
+            long value = readVarintLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("varint out of range");
+            }
+            return (int) value;
+        }
+
+        long readSignedVarint() {
+            long value = readVarintLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (data[position++] & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        byte[] readBytes(int length) {
+            byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            int header = readVarint();
+            if ((header & 1) == 1) {
+                int index = header >>> 1;
+                return index < modelStrings.size() ? modelStrings.get(index) 
+                        : strings.get(index - modelStrings.size());
+            }
+            String value = new String(data, position, header >>> 1, StandardCharsets.UTF_8);
+            position += header >>> 1;
+            strings.add(value);
+            return value;
+        }
+    }
+}
\ No newline at end of file
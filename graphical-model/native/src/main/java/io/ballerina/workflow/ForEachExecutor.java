@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.PredefinedTypes;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for ForEach nodes.
+ * 
+ * The nested nodes of a ForEach node run once per element of the collection, each time in a
+ * child context that binds the element to the iterator variable, in the order of the nested edges
+ * of the node. Elements run one at a time
+ * ({@code SEQUENTIAL}), with up to {@code maxConcurrency} elements at a time ({@code PARALLEL}),
+ * or in chunks of {@code chunkSize} elements with up to {@code maxConcurrency} chunks at a time
+ * ({@code CHUNKED}). The result of each element is written to its own slot of a preallocated
+ * array, so the results keep the order of the collection without sorting.
+ *
+ * @since 0.1.0
+ */
+public class ForEachExecutor {
+
+    private static final BString MODE = StringUtils.fromString("mode");
+    private static final BString MAX_CONCURRENCY = StringUtils.fromString("maxConcurrency");
+    private static final BString CHUNK_SIZE = StringUtils.fromString("chunkSize");
+    private static final BString ITERATOR_VARIABLE = StringUtils.fromString("iteratorVariable");
+    private static final BString RESULTS = StringUtils.fromString("results");
+    private static final BString VARIABLES = StringUtils.fromString("variables");
+
+    private static final String PARALLEL = "PARALLEL";
+    private static final String CHUNKED = "CHUNKED";
+    private static final int DEFAULT_MAX_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+
+    /**
+     * Execute a ForEach node over a collection and store the per element results in the context.
+     *
+     * @param env the Ballerina environment, used to call the condition functions of the nested edges
+     * @param context the workflow context
+     * @param nodeId the identifier of the ForEach node
+     * @param node the ForEach node
+     * @param collection the collection to iterate over, a list or a map
+     * @param conditions condition functions of the nested edges by condition name, may be null
+     * @return updated workflow context, or an error if any element fails
+     */
+    @SuppressWarnings("unchecked")
+    public static Object execute(Environment env, BMap<BString, Object> context, BString nodeId,
+                                 BMap<BString, Object> node, Object collection, BMap<BString, Object> conditions) {
+        Object[] elements = toElements(collection);
+        BMap<BString, Object> nestedNodes = (BMap<BString, Object>) node.get(WorkflowGraphs.NODES);
+        // The nested nodes and edges form a graph of their own, indexed once for all elements
+        WorkflowGraph body = WorkflowGraphs.fromModel(node);
+        BString iteratorVariable = node.getStringValue(ITERATOR_VARIABLE);
+        Object[] results = new Object[elements.length];
+        
+        String mode = node.containsKey(MODE) ? node.getStringValue(MODE).getValue() : "SEQUENTIAL";
+        int maxConcurrency = getPositiveInt(node, MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY);
+        int chunkSize = switch (mode) {
+            case PARALLEL -> 1;
+            case CHUNKED -> getPositiveInt(node, CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+            default -> Math.max(elements.length, 1);
+        };
+        int workers = PARALLEL.equals(mode) || CHUNKED.equals(mode) ? maxConcurrency : 1;
+        
+        try {
+            run(elements.length, chunkSize, workers, index -> results[index] = 
+                    executeElement(env, context, iteratorVariable, elements[index], body, nestedNodes, conditions));
+        } catch (Exception e) {
+            return ErrorCreator.createError(StringUtils.fromString("ForEach node '" + nodeId.getValue() 
+                    + "' failed: " + e.getMessage()), e);
+        }
+        
+        BMap<BString, Object> contextResults = (BMap<BString, Object>) context.get(RESULTS);
+        contextResults.put(nodeId, ValueCreator.createArrayValue(results, 
+                TypeCreator.createArrayType(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA))));
+        ContextChanges.markResult(context, nodeId);
+        return context;
+    }
+    
+    private static void run(int size, int chunkSize, int workers, ElementTask task) throws Exception {
+        int chunkCount = (size + chunkSize - 1) / chunkSize;
+        if (workers <= 1 || chunkCount <= 1) {
+            for (int index = 0; index < size; index++) {
+                task.run(index);
+            }
+            return;
+        }
+        
+        // Each worker claims the next chunk until all chunks are done, which bounds the concurrency
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < Math.min(workers, chunkCount); worker++) {
+                futures.add(executor.submit(() -> {
+                    int chunk;
+                    while (!failed.get() && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                        int end = Math.min(size, (chunk + 1) * chunkSize);
+                        for (int index = chunk * chunkSize; index < end; index++) {
+                            try {
+                                task.run(index);
+                            } catch (Exception e) {
+                                failed.set(true);
+                                throw e;
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static BMap<BString, Object> executeElement(Environment env, BMap<BString, Object> context,
+                                                        BString iteratorVariable, Object element, WorkflowGraph body,
+                                                        BMap<BString, Object> nestedNodes,
+                                                        BMap<BString, Object> conditions) {
+        // Each element runs in its own child context, so elements never share mutable state
+        BMap<BString, Object> elementContext = ValueCreator.createMapValue();
+        for (BString key : context.getKeys()) {
+            elementContext.put(key, context.get(key));
+        }
+        BMap<BString, Object> variables = ValueCreator.createMapValue();
+        BMap<BString, Object> parentVariables = (BMap<BString, Object>) context.get(VARIABLES);
+        if (parentVariables != null) {
+            for (BString key : parentVariables.getKeys()) {
+                variables.put(key, parentVariables.get(key));
+            }
+        }
+        variables.put(iteratorVariable, element);
+        elementContext.put(VARIABLES, variables);
+        elementContext.put(RESULTS, ValueCreator.createMapValue());
+        // Elements may run concurrently, so they must not append to the shared history
+        elementContext.put(WorkflowExecutor.HISTORY, ValueCreator.createArrayValue(new BString[0]));
+        
+        Object result = WorkflowExecutor.run(env, elementContext, body, nestedNodes, conditions);
+        if (result instanceof BError) {
+            throw (BError) result;
+        }
+        return (BMap<BString, Object>) ((BMap<BString, Object>) result).get(RESULTS);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Object[] toElements(Object collection) {
+        if (collection instanceof BArray) {
+            BArray array = (BArray) collection;
+            Object[] elements = new Object[(int) array.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = array.get(i);
+            }
+            return elements;
+        }
+        BMap<BString, Object> map = (BMap<BString, Object>) collection;
+        BString[] keys = map.getKeys();
+        Object[] elements = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            elements[i] = map.get(keys[i]);
+        }
+        return elements;
+    }
+    
+    private static int getPositiveInt(BMap<BString, Object> node, BString field, int defaultValue) {
+        Object value = node.get(field);
+        return value instanceof Long && (Long) value > 0 ? ((Long) value).intValue() : defaultValue;
+    }
+    
+    /**
+     * Work to run for a single element of the collection.
+     */
+    @FunctionalInterface
+    private interface ElementTask {
+        void run(int index) throws Exception;
+    }
+}
\ No newline at end of file
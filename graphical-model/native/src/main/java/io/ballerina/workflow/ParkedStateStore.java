@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-heap store for the serialized state of parked workflow instances.
+ * 
+ * States are written into fixed size segments of direct memory, or of a memory mapped file, so
+ * parked instances do not keep their context as live values on the heap. The only on-heap entry
+ * per instance is its location in the index. Segments are filled sequentially and reused once all
+ * the states written into them are taken out. Each state is written with the id of its instance, so
+ * once the live states of a filled segment drop below {@code compactionThreshold} of its size, they
+ * are relocated to the current segment and the segment is reused, instead of a few long parked states
+ * pinning mostly empty segments.
+ *
+ * @since 0.1.0
+ */
+public class ParkedStateStore {
+
+    private static final String NATIVE_STORE = "parkedStateStore";
+    private static final BString SEGMENT_SIZE = StringUtils.fromString("segmentSize");
+    private static final BString FILE = StringUtils.fromString("file");
+    private static final BString COMPACTION_THRESHOLD = StringUtils.fromString("compactionThreshold");
+    // Each state is preceded by the length of its instance id and of the state
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final int segmentSize;
+    private final int compactionBytes;
+    private final Path file;
+    private final FileChannel channel;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Deque<Segment> freeSegments = new ArrayDeque<>();
+    // Location of each state, as the segment number in the upper and the offset in the lower 32 bits
+    private final Map<String, Long> index = new HashMap<>();
+    private Segment current;
+    private long relocations = 0;
+
+    private static final class Segment {
+        private final int number;
+        private final ByteBuffer buffer;
+        private int position = 0;
+        private int liveBytes = 0;
+
+        private Segment(int number, ByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+    }
+
+    ParkedStateStore(int segmentSize, double compactionThreshold, Path file) throws IOException {
+        this.segmentSize = segmentSize;
+        this.compactionBytes = (int) (segmentSize * compactionThreshold);
+        this.file = file;
+        this.channel = file != null ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, 
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) : null;
+    }
+
+    /**
+     * Create a parked state store and attach it to the given Ballerina store object.
+     *
+     * @param store the Ballerina store object
+     * @param config the store configuration
+     * @return an error if the backing file cannot be opened
+     */
+    public static Object init(BObject store, BMap<BString, Object> config) {
+        long segmentSize = config.getIntValue(SEGMENT_SIZE);
+        if (segmentSize <= HEADER_BYTES || segmentSize > Integer.MAX_VALUE) {
+            return ErrorCreator.createError(StringUtils.fromString("Invalid segment size: " + segmentSize));
+        }
+        Object threshold = config.get(COMPACTION_THRESHOLD);
+        double compactionThreshold = threshold instanceof Double ? (Double) threshold : 0;
+        if (compactionThreshold < 0 || compactionThreshold >= 1) {
+            return ErrorCreator.createError(StringUtils.fromString("Invalid compaction threshold: " 
+                    + compactionThreshold));
+        }
+        BString file = config.getStringValue(FILE);
+        try {
+            store.addNativeData(NATIVE_STORE, new ParkedStateStore((int) segmentSize, compactionThreshold,
+                    file != null ? Path.of(file.getValue()) : null));
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to open parked state file: " 
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * Park the serialized state of an instance, replacing any state parked for it before.
+     *
+     * @param store the Ballerina store object
+     * @param id the identifier of the instance
+     * @param state the serialized state
+     * @return an error if the state does not fit into a segment or cannot be written
+     */
+    public static Object park(BObject store, BString id, BArray state) {
+        return get(store).park(id.getValue(), state.getBytes());
+    }
+
+    /**
+     * Take the serialized state of an instance out of the store.
+     *
+     * @param store the Ballerina store object
+     * @param id the identifier of the instance
+     * @return the serialized state, or nil if no state is parked for the instance
+     */
+    public static Object take(BObject store, BString id) {
+        byte[] state = get(store).take(id.getValue());
+        return state != null ? ValueCreator.createArrayValue(state) : null;
+    }
+
+    /**
+     * Check whether a state is parked for an instance.
+     *
+     * @param store the Ballerina store object
+     * @param id the identifier of the instance
+     * @return true if a state is parked for the instance
+     */
+    public static boolean contains(BObject store, BString id) {
+        ParkedStateStore parkedStates = get(store);
+        synchronized (parkedStates) {
+            return parkedStates.index.containsKey(id.getValue());
+        }
+    }
+
+    /**
+     * Get the number of parked states.
+     *
+     * @param store the Ballerina store object
+     * @return the number of parked states
+     */
+    public static long size(BObject store) {
+        ParkedStateStore parkedStates = get(store);
+        synchronized (parkedStates) {
+            return parkedStates.index.size();
+        }
+    }
+
+    /**
+     * Get the number of states relocated by the compaction of segments.
+     *
+     * @param store the Ballerina store object
+     * @return the number of relocated states
+     */
+    public static long getRelocations(BObject store) {
+        return get(store).getRelocationCount();
+    }
+
+    /**
+     * Release the memory of the store, and delete its backing file if any.
+     *
+     * @param store the Ballerina store object
+     * @return an error if the backing file cannot be deleted
+     */
+    public static Object close(BObject store) {
+        ParkedStateStore parkedStates = get(store);
+        synchronized (parkedStates) {
+            parkedStates.index.clear();
+            parkedStates.segments.clear();
+            parkedStates.freeSegments.clear();
+            parkedStates.current = null;
+            if (parkedStates.channel == null) {
+                return null;
+            }
+            try {
+                parkedStates.channel.close();
+                Files.deleteIfExists(parkedStates.file);
+                return null;
+            } catch (IOException e) {
+                return ErrorCreator.createError(StringUtils.fromString("Failed to close parked state file: " 
+                        + e.getMessage()));
+            }
+        }
+    }
+
+    private static ParkedStateStore get(BObject store) {
+        return (ParkedStateStore) store.getNativeData(NATIVE_STORE);
+    }
+
+    synchronized BError park(String id, byte[] state) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int size = HEADER_BYTES + idBytes.length + state.length;
+        if (size > segmentSize) {
+            return ErrorCreator.createError(StringUtils.fromString("Parked state of '" + id + "' is " 
+                    + state.length + " bytes, larger than the segment size " + segmentSize));
+        }
+        Long previous = index.remove(id);
+        if (previous != null) {
+            release(previous);
+        }
+        try {
+            index.put(id, write(idBytes, state, size));
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to map parked state segment: " 
+                    + e.getMessage()));
+        }
+    }
+
+    synchronized byte[] take(String id) {
+        Long location = index.remove(id);
+        if (location == null) {
+            return null;
+        }
+        Segment segment = segments.get((int) (location >>> 32));
+        int offset = (int) (long) location;
+        byte[] state = new byte[segment.buffer.getInt(offset + Integer.BYTES)];
+        segment.buffer.get(offset + HEADER_BYTES + segment.buffer.getInt(offset), state);
+        release(location);
+        return state;
+    }
+
+    synchronized long getRelocationCount() {
+        return relocations;
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Write a state into the current segment, moving on to the next segment if it does not fit.
+     *
+     * @return the location of the state
+     */
+    private long write(byte[] idBytes, byte[] state, int size) throws IOException {
+        if (current == null || segmentSize - current.position < size) {
+            current = nextSegment();
+        }
+        int offset = current.position;
+        current.buffer.putInt(offset, idBytes.length);
+        current.buffer.putInt(offset + Integer.BYTES, state.length);
+        current.buffer.put(offset + HEADER_BYTES, idBytes);
+        current.buffer.put(offset + HEADER_BYTES + idBytes.length, state);
+        current.position += size;
+        current.liveBytes += size;
+        return ((long) current.number << 32) | offset;
+    }
+
+    private void release(long location) {
+        Segment segment = segments.get((int) (location >>> 32));
+        int offset = (int) location;
+        segment.liveBytes -= HEADER_BYTES + segment.buffer.getInt(offset)
+                + segment.buffer.getInt(offset + Integer.BYTES);
+        if (segment == current) {
+            if (segment.liveBytes == 0) {
+                segment.position = 0;
+            }
+        } else if (segment.liveBytes == 0) {
+            segment.position = 0;
+            freeSegments.push(segment);
+        } else if (segment.liveBytes < compactionBytes) {
+            compact(segment);
+        }
+    }
+
+    /**
+     * Relocate the live states of a segment to the current segment and reuse the segment. A state is
+     * live if the index still points at it, the others were taken out or replaced.
+     */
+    private void compact(Segment segment) {
+        int offset = 0;
+        while (offset < segment.position) {
+            int idLength = segment.buffer.getInt(offset);
+            int stateLength = segment.buffer.getInt(offset + Integer.BYTES);
+            int size = HEADER_BYTES + idLength + stateLength;
+            byte[] idBytes = new byte[idLength];
+            segment.buffer.get(offset + HEADER_BYTES, idBytes);
+            String id = new String(idBytes, StandardCharsets.UTF_8);
+            Long location = index.get(id);
+            if (location != null && location == (((long) segment.number << 32) | offset)) {
+                byte[] state = new byte[stateLength];
+                segment.buffer.get(offset + HEADER_BYTES + idLength, state);
+                try {
+                    index.put(id, write(idBytes, state, size));
+                } catch (IOException e) {
+                    // The state stays where it is, the segment is compacted again on a later release
+                    return;
+                }
+                segment.liveBytes -= size;
+                relocations++;
+            }
+            offset += size;
+        }
+        segment.position = 0;
+        segment.liveBytes = 0;
+        freeSegments.push(segment);
+    }
+
+    private Segment nextSegment() throws IOException {
+        Segment segment = freeSegments.poll();
+        if (segment != null) {
+            return segment;
+        }
+        int number = segments.size();
+        ByteBuffer buffer = channel != null 
+                ? channel.map(FileChannel.MapMode.READ_WRITE, (long) number * segmentSize, segmentSize)
+                : ByteBuffer.allocateDirect(segmentSize);
+        segment = new Segment(number, buffer);
+        segments.add(segment);
+        return segment;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BFunctionPointer;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraph;
+
+/**
+ * Executor for While nodes.
+ * 
+ * A While node keeps a single state slot in the workflow results, holding the iteration count
+ * and the results of the latest iteration. Every iteration overwrites the same slot instead of
+ * appending new results, so the context size does not grow with the number of iterations.
+ * Each iteration runs the nested nodes in the order of the nested edges of the node, and the
+ * condition is evaluated against the iteration context, so it sees the latest iteration results.
+ * The steps of the loop are recorded in the history as usual, and once {@code historyLimit}
+ * iterations are reached the loop history is compacted, continuing the loop as new with only
+ * the slot carried forward.
+ *
+ * @since 0.1.0
+ */
+public class WhileExecutor {
+
+    static final BString ITERATION = StringUtils.fromString("iteration");
+    static final BString CONTINUED_AS_NEW = StringUtils.fromString("continuedAsNew");
+
+    private static final BString HISTORY_LIMIT = StringUtils.fromString("historyLimit");
+    private static final long DEFAULT_HISTORY_LIMIT = 1000;
+
+    /**
+     * Execute a While node until its condition evaluates to false.
+     *
+     * @param env the Ballerina environment, used to call the condition function
+     * @param context the workflow context
+     * @param nodeId the identifier of the While node
+     * @param node the While node
+     * @param condition the function that evaluates the loop condition
+     * @param conditions condition functions of the nested edges by condition name, may be null
+     * @return updated workflow context, or an error if the condition or a nested node fails
+     */
+    @SuppressWarnings("unchecked")
+    public static Object execute(Environment env, BMap<BString, Object> context, BString nodeId, 
+                                 BMap<BString, Object> node, BFunctionPointer condition,
+                                 BMap<BString, Object> conditions) {
+        BMap<BString, Object> results = (BMap<BString, Object>) context.get(WorkflowExecutor.RESULTS);
+        BMap<BString, Object> nestedNodes = (BMap<BString, Object>) node.get(WorkflowGraphs.NODES);
+        WorkflowGraph body = WorkflowGraphs.fromModel(node);
+        Object limit = node.get(HISTORY_LIMIT);
+        long historyLimit = limit instanceof Long && (Long) limit > 0 ? (Long) limit : DEFAULT_HISTORY_LIMIT;
+        
+        // Reuse the slot of an earlier run of this loop, e.g. after the workflow is resumed
+        BMap<BString, Object> slot = (BMap<BString, Object>) results.get(nodeId);
+        if (slot == null) {
+            slot = ValueCreator.createMapValue();
+            slot.put(ITERATION, 0L);
+            slot.put(CONTINUED_AS_NEW, 0L);
+            slot.put(WorkflowExecutor.RESULTS, ValueCreator.createMapValue());
+            results.put(nodeId, slot);
+        }
+        
+        // A single iteration context is reused by all iterations, its results are the slot results
+        BMap<BString, Object> iterationContext = ValueCreator.createMapValue();
+        for (BString key : context.getKeys()) {
+            iterationContext.put(key, context.get(key));
+        }
+        iterationContext.put(WorkflowExecutor.RESULTS, slot.get(WorkflowExecutor.RESULTS));
+        
+        BArray history = (BArray) context.get(WorkflowExecutor.HISTORY);
+        int historyMark = history != null ? (int) history.size() : 0;
+        long iteration = (Long) slot.get(ITERATION);
+        long continuedAsNew = (Long) slot.get(CONTINUED_AS_NEW);
+        long sinceCompaction = 0;
+        
+        while (true) {
+            Object conditionResult = condition.call(env.getRuntime(), iterationContext);
+            if (conditionResult instanceof BError) {
+                return conditionResult;
+            }
+            if (!(conditionResult instanceof Boolean)) {
+                return ErrorCreator.createError(StringUtils.fromString("Condition of While node '" 
+                        + nodeId.getValue() + "' did not return a boolean"));
+            }
+            if (!(Boolean) conditionResult) {
+                break;
+            }
+            
+            Object iterationResult = WorkflowExecutor.run(env, iterationContext, body, nestedNodes, conditions);
+            if (iterationResult instanceof BError) {
+                return iterationResult;
+            }
+            iterationContext = (BMap<BString, Object>) iterationResult;
+            slot.put(ITERATION, ++iteration);
+            ContextChanges.markResult(context, nodeId);
+            
+            if (++sinceCompaction >= historyLimit) {
+                compactHistory(context, iterationContext, historyMark);
+                slot.put(CONTINUED_AS_NEW, ++continuedAsNew);
+                sinceCompaction = 0;
+            }
+        }
+        
+        return context;
+    }
+    
+    /**
+     * Drop the history entries recorded after the given mark, carrying the loop forward as new.
+     */
+    private static void compactHistory(BMap<BString, Object> context, BMap<BString, Object> iterationContext,
+                                       int historyMark) {
+        BArray history = (BArray) context.get(WorkflowExecutor.HISTORY);
+        if (history == null || history.size() <= historyMark) {
+            return;
+        }
+        BString[] kept = new BString[historyMark];
+        for (int i = 0; i < historyMark; i++) {
+            kept[i] = (BString) history.get(i);
+        }
+        BArray compacted = ValueCreator.createArrayValue(kept);
+        context.put(WorkflowExecutor.HISTORY, compacted);
+        iterationContext.put(WorkflowExecutor.HISTORY, compacted);
+    }
+}
\ No newline at end of file
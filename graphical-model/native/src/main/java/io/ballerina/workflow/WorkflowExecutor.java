@@ -18,12 +18,19 @@
 
 package io.ballerina.workflow;
 
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BFunctionPointer;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraph;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,6 +40,19 @@ import java.util.UUID;
  */
 public class WorkflowExecutor {
 
+    static final BString ID = StringUtils.fromString("id");
+    static final BString RESULTS = StringUtils.fromString("results");
+    static final BString HISTORY = StringUtils.fromString("history");
+    static final BString INPUTS = StringUtils.fromString("inputs");
+    static final BString VARIABLES = StringUtils.fromString("variables");
+    static final BString WAITING = StringUtils.fromString("waiting");
+
+    private static final BString COLLECTION = StringUtils.fromString("collection");
+    private static final String START_EVENT = "StartEvent";
+    private static final String EVENT = "Event";
+    private static final String FOR_EACH = "ForEach";
+    private static final String WHILE = "While";
+
     /**
      * Create a new workflow instance from a workflow model descriptor.
      *
@@ -42,54 +62,288 @@ public class WorkflowExecutor {
      */
     public static BMap<BString, Object> createInstance(BMap<BString, Object> model, BMap<BString, Object> inputs) {
         BMap<BString, Object> context = ValueCreator.createMapValue();
-        context.put(StringUtils.fromString("id"), StringUtils.fromString(UUID.randomUUID().toString()));
+        context.put(ID, StringUtils.fromString(UUID.randomUUID().toString()));
         context.put(StringUtils.fromString("model"), model.getStringValue(StringUtils.fromString("name")));
-        context.put(StringUtils.fromString("inputs"), inputs);
-        context.put(StringUtils.fromString("results"), ValueCreator.createMapValue());
-        context.put(StringUtils.fromString("variables"), ValueCreator.createMapValue());
+        context.put(INPUTS, inputs);
+        context.put(RESULTS, ValueCreator.createMapValue());
+        context.put(VARIABLES, ValueCreator.createMapValue());
+        context.put(HISTORY, ValueCreator.createArrayValue(new BString[0]));
+        context.put(WAITING, ValueCreator.createArrayValue(new BString[0]));
         return context;
     }
 
     /**
      * Execute a workflow step for a given node.
+     * The output delivered to the context variables under the node id, e.g. the payload of an event,
+     * becomes the result of the node.
      *
      * @param context the workflow context
      * @param nodeId the identifier of the node to execute
      * @return updated workflow context
      */
     public static BMap<BString, Object> executeStep(BMap<BString, Object> context, BString nodeId) {
-        // TODO: Implement workflow step execution logic
-        // For now, just mark that this node was executed
-        @SuppressWarnings("unchecked")
-        BMap<BString, Object> results = (BMap<BString, Object>) context.get(StringUtils.fromString("results"));
-        results.put(nodeId, StringUtils.fromString("executed"));
+        return executeStep(context, nodeId, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BMap<BString, Object> executeStep(BMap<BString, Object> context, BString nodeId, String kind) {
+        BMap<BString, Object> results = (BMap<BString, Object>) context.get(RESULTS);
+        BMap<BString, Object> variables = (BMap<BString, Object>) context.get(VARIABLES);
+        Object output;
+        if (variables != null && variables.containsKey(nodeId)) {
+            output = variables.get(nodeId);
+        } else {
+            // A start event outputs the inputs the workflow was started with
+            output = START_EVENT.equals(kind) ? context.get(INPUTS) : null;
+        }
+        results.put(nodeId, output);
+        ContextChanges.markResult(context, nodeId);
+        BArray history = (BArray) context.get(HISTORY);
+        if (history != null) {
+            history.append(nodeId);
+        }
         return context;
     }
 
     /**
      * Execute a complete workflow model.
      *
+     * @param env the Ballerina environment, used to call the condition functions
+     * @param model the workflow model descriptor to execute
+     * @param inputs initial input variables
+     * @param conditions condition functions by condition name
+     * @return final workflow context with results, or an error if a condition fails
+     */
+    public static Object execute(Environment env, BMap<BString, Object> model, BMap<BString, Object> inputs,
+                                 BMap<BString, Object> conditions) {
+        WorkflowGraph graph = WorkflowGraphs.fromModel(model);
+        return runFrom(env, createInstance(model, inputs), graph, getNodes(model), conditions,
+                getEntryNodes(graph), new boolean[graph.getNodeCount()], true);
+    }
+
+    /**
+     * Execute a workflow model using its precompiled execution graph.
+     * The graph is loaded as is, without indexing or validating the model.
+     *
+     * @param env the Ballerina environment, used to call the condition functions
      * @param model the workflow model descriptor to execute
+     * @param graph the precompiled execution graph of the model
      * @param inputs initial input variables
-     * @return final workflow context with results
+     * @param conditions condition functions by condition name
+     * @return final workflow context with results, or an error if a condition fails
+     */
+    public static Object executeCompiled(Environment env, BMap<BString, Object> model, BMap<BString, Object> graph,
+                                         BMap<BString, Object> inputs, BMap<BString, Object> conditions) {
+        WorkflowGraph workflowGraph = WorkflowGraphs.fromCompiled(graph);
+        return runFrom(env, createInstance(model, inputs), workflowGraph, getNodes(model), conditions,
+                getEntryNodes(workflowGraph), new boolean[workflowGraph.getNodeCount()], true);
+    }
+
+    /**
+     * Resume a workflow instance waiting on an event, with the payload of the event. The event node
+     * runs with the payload as its output, and the workflow continues from it until it completes or
+     * waits on further events.
+     *
+     * @param env the Ballerina environment, used to call the condition functions
+     * @param model the workflow model descriptor of the instance
+     * @param context the workflow context of the instance
+     * @param nodeId the identifier of the event node
+     * @param payload the payload of the event
+     * @param conditions condition functions by condition name
+     * @return updated workflow context, or an error if the instance is not waiting on the event or a node fails
      */
-    public static BMap<BString, Object> execute(BMap<BString, Object> model, BMap<BString, Object> inputs) {
-        // Create workflow instance
-        BMap<BString, Object> context = createInstance(model, inputs);
+    @SuppressWarnings("unchecked")
+    public static Object resume(Environment env, BMap<BString, Object> model, BMap<BString, Object> context,
+                                BString nodeId, Object payload, BMap<BString, Object> conditions) {
+        BArray waiting = (BArray) context.get(WAITING);
+        WorkflowGraph graph = WorkflowGraphs.fromModel(model);
+        int eventNode = graph.indexOfNode(nodeId.getValue());
+        if (waiting == null || eventNode < 0 || !contains(waiting, nodeId)) {
+            return ErrorCreator.createError(StringUtils.fromString("Workflow instance '" 
+                    + context.getStringValue(ID).getValue() + "' is not waiting on event '" + nodeId.getValue() + "'"));
+        }
         
-        // TODO: Implement complete workflow execution logic
-        // For now, simulate execution of all nodes
-        @SuppressWarnings("unchecked")
-        BMap<BString, Object> nodes = (BMap<BString, Object>) model.get(StringUtils.fromString("nodes"));
-        if (nodes != null) {
-            for (BString nodeId : nodes.getKeys()) {
-                context = executeStep(context, nodeId);
+        List<BString> stillWaiting = new ArrayList<>();
+        for (int i = 0; i < waiting.size(); i++) {
+            if (!nodeId.equals(waiting.getBString(i))) {
+                stillWaiting.add(waiting.getBString(i));
+            }
+        }
+        context.put(WAITING, ValueCreator.createArrayValue(stillWaiting.toArray(new BString[0])));
+        ContextChanges.setVariable(context, nodeId, payload);
+        
+        // Nodes that already ran, or wait on other events, are not scheduled again
+        BMap<BString, Object> results = (BMap<BString, Object>) context.get(RESULTS);
+        boolean[] scheduled = new boolean[graph.getNodeCount()];
+        for (int node = 0; node < scheduled.length; node++) {
+            BString id = StringUtils.fromString(graph.getNodeId(node));
+            scheduled[node] = results.containsKey(id) || stillWaiting.contains(id);
+        }
+        return runFrom(env, context, graph, getNodes(model), conditions, new int[]{eventNode}, scheduled, true);
+    }
+
+    /**
+     * Get the event nodes a workflow instance is waiting on.
+     *
+     * @param context the workflow context
+     * @return identifiers of the event nodes the instance waits on, empty if it is not waiting
+     */
+    public static BArray getWaitingEvents(BMap<BString, Object> context) {
+        BArray waiting = (BArray) context.get(WAITING);
+        return waiting != null ? waiting : ValueCreator.createArrayValue(new BString[0]);
+    }
+
+    /**
+     * Run the nodes of a graph in the order of its edges, starting from its start events, or from the
+     * nodes without incoming edges if there are none. This runs both workflow models and the nested
+     * nodes of ForEach and While nodes.
+     *
+     * @param env the Ballerina environment, used to call the condition functions
+     * @param context the context to run the nodes in
+     * @param graph the graph of the nodes
+     * @param nodes the nodes by node id, used to run ForEach and While nodes
+     * @param conditionFunctions condition functions by condition name, may be null
+     * @return the updated context, or an error if a node or a condition fails
+     */
+    static Object run(Environment env, BMap<BString, Object> context, WorkflowGraph graph,
+                      BMap<BString, Object> nodes, BMap<BString, Object> conditionFunctions) {
+        return runFrom(env, context, graph, nodes, conditionFunctions, getEntryNodes(graph),
+                new boolean[graph.getNodeCount()], false);
+    }
+
+    private static int[] getEntryNodes(WorkflowGraph graph) {
+        int[] startNodes = graph.getStartNodes();
+        if (startNodes.length > 0) {
+            return startNodes;
+        }
+        List<Integer> entryNodes = new ArrayList<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.getIncomingEdges(node).length == 0) {
+                entryNodes.add(node);
+            }
+        }
+        return entryNodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Run the nodes of a graph reachable from the given nodes, skipping the nodes already scheduled.
+     * With {@code suspend}, event nodes whose output is not delivered yet are added to the waiting
+     * events of the context instead of running, and the nodes after them are not run.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object runFrom(Environment env, BMap<BString, Object> context, WorkflowGraph graph,
+                                  BMap<BString, Object> nodes, BMap<BString, Object> conditionFunctions,
+                                  int[] startNodes, boolean[] scheduled, boolean suspend) {
+        Object resolved = ConditionTable.resolve(env, graph, conditionFunctions);
+        if (resolved instanceof BError) {
+            return resolved;
+        }
+        ConditionTable conditions = (ConditionTable) resolved;
+        int[] ready = new int[graph.getNodeCount()];
+        int head = 0;
+        int tail = 0;
+        for (int node : startNodes) {
+            scheduled[node] = true;
+            ready[tail++] = node;
+        }
+        
+        while (head < tail) {
+            int node = ready[head++];
+            BString nodeId = StringUtils.fromString(graph.getNodeId(node));
+            String kind = graph.getNodeKind(node);
+            if (suspend && EVENT.equals(kind) && !isDelivered(context, nodeId)) {
+                BArray waiting = (BArray) context.get(WAITING);
+                if (waiting != null && !contains(waiting, nodeId)) {
+                    waiting.append(nodeId);
+                }
+                continue;
+            }
+            Object stepResult = executeNode(env, context, nodeId, kind, nodes, conditionFunctions);
+            if (stepResult instanceof BError) {
+                return stepResult;
+            }
+            context = (BMap<BString, Object>) stepResult;
+            conditions.nextStep();
+            for (int edge : graph.getOutgoingEdges(node)) {
+                int next = graph.getEdgeEnd(edge);
+                if (scheduled[next]) {
+                    continue;
+                }
+                Object result = conditions.evaluate(graph.getEdgeCondition(edge), context);
+                if (result instanceof BError) {
+                    return result;
+                }
+                if ((Boolean) result) {
+                    scheduled[next] = true;
+                    ready[tail++] = next;
+                }
             }
         }
         
         return context;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Object executeNode(Environment env, BMap<BString, Object> context, BString nodeId, String kind,
+                                      BMap<BString, Object> nodes, BMap<BString, Object> conditionFunctions) {
+        BMap<BString, Object> node = nodes != null ? (BMap<BString, Object>) nodes.get(nodeId) : null;
+        if (FOR_EACH.equals(kind) && node != null) {
+            Object collection = getCollection(context, nodeId, node);
+            if (collection == null) {
+                return ErrorCreator.createError(StringUtils.fromString("No collection found for ForEach node '"
+                        + nodeId.getValue() + "'"));
+            }
+            return ForEachExecutor.execute(env, context, nodeId, node, collection, conditionFunctions);
+        }
+        if (WHILE.equals(kind) && node != null) {
+            BString conditionName = node.getStringValue(WorkflowGraphs.CONDITION);
+            Object condition = conditionFunctions != null ? conditionFunctions.get(conditionName) : null;
+            if (!(condition instanceof BFunctionPointer)) {
+                return ErrorCreator.createError(StringUtils.fromString("No function found for condition '"
+                        + conditionName.getValue() + "' of While node '" + nodeId.getValue() + "'"));
+            }
+            return WhileExecutor.execute(env, context, nodeId, node, (BFunctionPointer) condition,
+                    conditionFunctions);
+        }
+        return executeStep(context, nodeId, kind);
+    }
+
+    /**
+     * Look up the collection of a ForEach node in the context variables, then in the inputs.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object getCollection(BMap<BString, Object> context, BString nodeId, BMap<BString, Object> node) {
+        BString name = node.containsKey(COLLECTION) ? node.getStringValue(COLLECTION) : nodeId;
+        for (BString scope : new BString[]{VARIABLES, INPUTS}) {
+            BMap<BString, Object> values = (BMap<BString, Object>) context.get(scope);
+            Object value = values != null ? values.get(name) : null;
+            if (value instanceof BArray || value instanceof BMap) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isDelivered(BMap<BString, Object> context, BString nodeId) {
+        BMap<BString, Object> variables = (BMap<BString, Object>) context.get(VARIABLES);
+        return variables != null && variables.containsKey(nodeId);
+    }
+
+    private static boolean contains(BArray values, BString value) {
+        for (int i = 0; i < values.size(); i++) {
+            if (value.equals(values.getBString(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BMap<BString, Object> getNodes(BMap<BString, Object> model) {
+        return (BMap<BString, Object>) model.get(WorkflowGraphs.NODES);
+    }
+
     /**
      * Get the next executable nodes in the workflow.
      *
@@ -109,10 +363,12 @@ public class WorkflowExecutor {
      * @return true if workflow is complete
      */
     public static boolean isComplete(BMap<BString, Object> context) {
-        // TODO: Implement completion check logic
-        // For now, assume workflow is complete if results exist
+        // A workflow waiting on events is suspended rather than complete
+        if (getWaitingEvents(context).size() > 0) {
+            return false;
+        }
         @SuppressWarnings("unchecked")
-        BMap<BString, Object> results = (BMap<BString, Object>) context.get(StringUtils.fromString("results"));
+        BMap<BString, Object> results = (BMap<BString, Object>) context.get(RESULTS);
         return results != null && results.size() > 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraph;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Conversions between workflow model descriptors and indexed {@link WorkflowGraph}s.
+ *
+ * @since 0.1.0
+ */
+public final class WorkflowGraphs {
+
+    static final BString NAME = StringUtils.fromString("name");
+    static final BString DESCRIPTION = StringUtils.fromString("description");
+    static final BString NODES = StringUtils.fromString("nodes");
+    static final BString EDGES = StringUtils.fromString("edges");
+    static final BString KIND = StringUtils.fromString("kind");
+    static final BString START_NODE = StringUtils.fromString("startNode");
+    static final BString END_NODE = StringUtils.fromString("endNode");
+    static final BString CONDITION = StringUtils.fromString("condition");
+
+    private static final BString LEGACY_KIND = StringUtils.fromString("node");
+    private static final BString NODE_IDS = StringUtils.fromString("nodeIds");
+    private static final BString NODE_KINDS = StringUtils.fromString("nodeKinds");
+    private static final BString START_NODES = StringUtils.fromString("startNodes");
+    private static final BString OUTGOING_EDGES = StringUtils.fromString("outgoingEdges");
+    private static final BString INCOMING_EDGES = StringUtils.fromString("incomingEdges");
+    private static final BString EDGE_START = StringUtils.fromString("edgeStart");
+    private static final BString EDGE_END = StringUtils.fromString("edgeEnd");
+    private static final BString EDGE_CONDITIONS = StringUtils.fromString("edgeConditions");
+    private static final BString CONDITIONS = StringUtils.fromString("conditions");
+
+    private WorkflowGraphs() {
+    }
+
+    /**
+     * Index a workflow model descriptor.
+     *
+     * @param model the workflow model descriptor
+     * @return the indexed workflow graph
+     */
+    public static WorkflowGraph fromModel(BMap<BString, Object> model) {
+        return toBuilder(model).build();
+    }
+
+    /**
+     * Collect the nodes and edges of a workflow model descriptor into a graph builder, without
+     * building the graph. Edge nodes that cannot be resolved are added as null node ids.
+     *
+     * @param model the workflow model descriptor
+     * @return the graph builder
+     */
+    @SuppressWarnings("unchecked")
+    public static WorkflowGraph.Builder toBuilder(BMap<BString, Object> model) {
+        WorkflowGraph.Builder builder = new WorkflowGraph.Builder();
+        Map<Object, String> nodeIds = new IdentityHashMap<>();
+
+        BMap<BString, Object> nodes = (BMap<BString, Object>) model.get(NODES);
+        if (nodes != null) {
+            for (BString nodeId : nodes.getKeys()) {
+                BMap<BString, Object> node = (BMap<BString, Object>) nodes.get(nodeId);
+                nodeIds.put(node, nodeId.getValue());
+                builder.addNode(nodeId.getValue(), getKind(node));
+            }
+        }
+
+        BArray edges = (BArray) model.get(EDGES);
+        if (edges != null) {
+            for (int i = 0; i < edges.size(); i++) {
+                BMap<BString, Object> edge = (BMap<BString, Object>) edges.get(i);
+                Object condition = edge.get(CONDITION);
+                builder.addEdge(resolveNodeId(edge.get(START_NODE), nodes, nodeIds),
+                        resolveNodeId(edge.get(END_NODE), nodes, nodeIds),
+                        condition instanceof BString ? ((BString) condition).getValue() : null);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Restore a workflow graph from a precompiled {@code CompiledWorkflowGraph} value.
+     * This only copies the arrays, no indexing or validation is done.
+     *
+     * @param graph the compiled workflow graph
+     * @return the workflow graph
+     */
+    public static WorkflowGraph fromCompiled(BMap<BString, Object> graph) {
+        return WorkflowGraph.fromArrays(
+                ((BArray) graph.get(NODE_IDS)).getStringArray(),
+                ((BArray) graph.get(NODE_KINDS)).getStringArray(),
+                toIntArray((BArray) graph.get(START_NODES)),
+                toIntMatrix((BArray) graph.get(OUTGOING_EDGES)),
+                toIntMatrix((BArray) graph.get(INCOMING_EDGES)),
+                toIntArray((BArray) graph.get(EDGE_START)),
+                toIntArray((BArray) graph.get(EDGE_END)),
+                toIntArray((BArray) graph.get(EDGE_CONDITIONS)),
+                ((BArray) graph.get(CONDITIONS)).getStringArray());
+    }
+
+    static String getKind(BMap<BString, Object> node) {
+        Object kind = node.containsKey(KIND) ? node.get(KIND) : node.get(LEGACY_KIND);
+        return kind instanceof BString ? ((BString) kind).getValue() : null;
+    }
+
+    private static String resolveNodeId(Object nodeRef, BMap<BString, Object> nodes, Map<Object, String> nodeIds) {
+        if (nodeRef instanceof BString) {
+            return ((BString) nodeRef).getValue();
+        }
+        String nodeId = nodeIds.get(nodeRef);
+        if (nodeId != null) {
+            return nodeId;
+        }
+        // Edges may hold a copy of the node value rather than the same reference
+        for (BString candidateId : nodes == null ? new BString[0] : nodes.getKeys()) {
+            if (nodes.get(candidateId).equals(nodeRef)) {
+                return candidateId.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static int[] toIntArray(BArray array) {
+        long[] values = array.getIntArray();
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (int) values[i];
+        }
+        return result;
+    }
+
+    private static int[][] toIntMatrix(BArray array) {
+        int[][] result = new int[(int) array.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = toIntArray((BArray) array.get(i));
+        }
+        return result;
+    }
+}
\ No newline at end of file
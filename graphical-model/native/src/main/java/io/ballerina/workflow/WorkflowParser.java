@@ -18,16 +18,23 @@
 
 package io.ballerina.workflow;
 
+import io.ballerina.runtime.api.Module;
 import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.workflow.core.WorkflowGraph;
+import io.ballerina.workflow.core.WorkflowGraphWriter;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Workflow code generator and utility functions for workflow model descriptors.
@@ -39,52 +46,167 @@ import java.util.List;
  */
 public class WorkflowParser {
 
+    private static final BString GRAPHICAL = StringUtils.fromString("graphical");
+    private static final String WORKFLOW_PREFIX = "workflow";
+
     /**
      * Generate Ballerina client code for a workflow model.
      * This is used by the Ballerina compiler plugin to generate static code.
+     * 
+     * The model is emitted as constant data together with its indexed execution graph
+     * (node ordinals, adjacency arrays and condition ordinals), so the generated client
+     * does not need to parse, validate or index the model at runtime. The workflow module is
+     * imported with the {@code workflow} prefix, and the modules of the types referred to by
+     * the nodes with prefixes named after them.
      *
      * @param model the workflow model descriptor
      * @param clientName the name of the generated client
      * @return generated Ballerina code as string
      */
+    @SuppressWarnings("unchecked")
     public static BString generateWorkflowClient(BMap<BString, Object> model, BString clientName) {
+        WorkflowGraph graph = WorkflowGraphs.fromModel(model);
+        BMap<BString, Object> nodes = (BMap<BString, Object>) model.get(WorkflowGraphs.NODES);
+        String prefix = Character.toLowerCase(clientName.getValue().charAt(0)) + clientName.getValue().substring(1);
         StringBuilder code = new StringBuilder();
+        // Prefixes of the imported modules, by module
+        Map<String, String> imports = new LinkedHashMap<>();
+        Module workflowModule = model.getType().getPackage();
+        imports.put(workflowModule.getOrg() + "/" + workflowModule.getName(), WORKFLOW_PREFIX);
         
-        // Generate client class
-        code.append("// Auto-generated workflow client for: ")
-            .append(model.getStringValue(StringUtils.fromString("name")))
-            .append("\n\n");
-            
-        code.append("public class ").append(clientName.getValue()).append(" {\n\n");
+        // Generate nodes as static data, named by their ordinals so edges can refer to them
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            code.append("final workflow:Node ").append(prefix).append("Node").append(node).append(" = ");
+            appendValue(code, nodes.get(StringUtils.fromString(graph.getNodeId(node))), "", imports);
+            code.append(";\n\n");
+        }
         
         // Generate workflow model as static data
-        code.append("    private final WorkflowModelDescriptor model = {\n");
-        code.append("        name: \"").append(model.getStringValue(StringUtils.fromString("name"))).append("\",\n");
+        code.append("final workflow:WorkflowModelDescriptor ").append(prefix).append("Model = {\n");
+        code.append("    name: ");
+        WorkflowGraphWriter.appendString(code, model.getStringValue(WorkflowGraphs.NAME).getValue());
+        code.append(",\n");
         
-        if (model.containsKey(StringUtils.fromString("description"))) {
-            code.append("        description: \"")
-                .append(model.getStringValue(StringUtils.fromString("description")))
-                .append("\",\n");
+        if (model.containsKey(WorkflowGraphs.DESCRIPTION)) {
+            code.append("    description: ");
+            WorkflowGraphWriter.appendString(code, model.getStringValue(WorkflowGraphs.DESCRIPTION).getValue());
+            code.append(",\n");
         }
         
-        code.append("        nodes: {},\n");  // TODO: Generate nodes
-        code.append("        edges: []\n");   // TODO: Generate edges
-        code.append("    };\n\n");
+        code.append("    nodes: {");
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            code.append(node == 0 ? "\n" : ",\n").append("        ");
+            WorkflowGraphWriter.appendString(code, graph.getNodeId(node));
+            code.append(": ").append(prefix).append("Node").append(node);
+        }
+        code.append(graph.getNodeCount() == 0 ? "},\n" : "\n    },\n");
+        
+        code.append("    edges: [");
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            code.append(edge == 0 ? "\n" : ",\n").append("        {startNode: ")
+                .append(prefix).append("Node").append(graph.getEdgeStart(edge))
+                .append(", endNode: ").append(prefix).append("Node").append(graph.getEdgeEnd(edge));
+            if (graph.getEdgeCondition(edge) != WorkflowGraph.NO_CONDITION) {
+                code.append(", condition: ");
+                WorkflowGraphWriter.appendString(code, graph.getCondition(graph.getEdgeCondition(edge)));
+            }
+            code.append("}");
+        }
+        code.append(graph.getEdgeCount() == 0 ? "]\n" : "\n    ]\n");
+        code.append("};\n\n");
+        
+        // Generate the indexed execution graph as static data
+        code.append("final workflow:CompiledWorkflowGraph ").append(prefix).append("Graph = ")
+            .append(WorkflowGraphWriter.toRecordLiteral(graph, "")).append(";\n\n");
+        
+        code.append("public class ").append(clientName.getValue()).append(" {\n\n");
+        code.append("    private final workflow:WorkflowModelDescriptor model = ").append(prefix).append("Model;\n");
+        code.append("    private final workflow:CompiledWorkflowGraph graph = ").append(prefix).append("Graph;\n");
+        code.append("    private final map<workflow:ConditionFunction> conditions;\n\n");
+        
+        code.append("    public function init(map<workflow:ConditionFunction> conditions = {}) {\n");
+        code.append("        self.conditions = conditions;\n");
+        code.append("    }\n\n");
         
         // Generate client methods
-        code.append("    public function execute(map<anydata> inputs = {}) returns WorkflowContext|error {\n");
-        code.append("        return executeWorkflow(self.model, inputs);\n");
+        code.append("    public function execute(map<anydata> inputs = {}) returns workflow:WorkflowContext|error {\n");
+        code.append("        return workflow:executeCompiledWorkflow(self.model, self.graph, inputs, ")
+            .append("self.conditions);\n");
         code.append("    }\n\n");
         
         code.append("    public function validate() returns boolean|error {\n");
-        code.append("        return validateWorkflowModel(self.model);\n");
+        code.append("        return workflow:validateWorkflowModel(self.model);\n");
         code.append("    }\n\n");
         
         code.append("}\n");
         
-        return StringUtils.fromString(code.toString());
+        StringBuilder header = new StringBuilder("// Auto-generated workflow client for: ")
+            .append(model.getStringValue(WorkflowGraphs.NAME))
+            .append("\n\n");
+        imports.forEach((module, modulePrefix) ->
+            header.append("import ").append(module).append(" as ").append(modulePrefix).append(";\n"));
+        return StringUtils.fromString(header.append("\n").append(code).toString());
     }
-
+    
+    @SuppressWarnings("unchecked")
+    private static void appendValue(StringBuilder code, Object value, String indent, Map<String, String> imports) {
+        if (value == null) {
+            code.append("()");
+        } else if (value instanceof BString) {
+            WorkflowGraphWriter.appendString(code, ((BString) value).getValue());
+        } else if (value instanceof BTypedesc) {
+            appendType(code, ((BTypedesc) value).getDescribingType(), imports);
+        } else if (value instanceof BMap) {
+            BMap<BString, Object> record = (BMap<BString, Object>) value;
+            String fieldIndent = indent + "    ";
+            code.append("{");
+            boolean first = true;
+            for (BString key : record.getKeys()) {
+                // Graphical metadata is only used by the designer
+                if (GRAPHICAL.equals(key)) {
+                    continue;
+                }
+                code.append(first ? "\n" : ",\n").append(fieldIndent);
+                code.append("type".equals(key.getValue()) ? "'type" : key.getValue()).append(": ");
+                appendValue(code, record.get(key), fieldIndent, imports);
+                first = false;
+            }
+            code.append(first ? "}" : "\n" + indent + "}");
+        } else if (value instanceof BArray) {
+            BArray array = (BArray) value;
+            code.append("[");
+            for (int i = 0; i < array.size(); i++) {
+                code.append(i == 0 ? "" : ", ");
+                appendValue(code, array.get(i), indent, imports);
+            }
+            code.append("]");
+        } else {
+            code.append(value);
+        }
+    }
+    
+    /**
+     * Append a reference to a type, qualified with the prefix of its module unless it is a built-in
+     * type. The module is added to the imports of the generated code the first time it is referred to.
+     */
+    private static void appendType(StringBuilder code, Type type, Map<String, String> imports) {
+        Module module = type.getPackage();
+        if (type.getName().isEmpty() || module == null || module.getOrg() == null || module.getOrg().isEmpty()
+                || ("ballerina".equals(module.getOrg()) && module.getName().startsWith("lang."))) {
+            code.append(type.getName().isEmpty() ? type.toString() : type.getName());
+            return;
+        }
+        String modulePrefix = imports.computeIfAbsent(module.getOrg() + "/" + module.getName(), key -> {
+            String name = module.getName().substring(module.getName().lastIndexOf('.') + 1);
+            String candidate = name;
+            for (int suffix = 2; imports.containsValue(candidate); suffix++) {
+                candidate = name + suffix;
+            }
+            return candidate;
+        });
+        code.append(modulePrefix).append(':').append(type.getName());
+    }
+    
     /**
      * Get workflow model metadata for code generation.
      *
@@ -18,13 +18,19 @@
 
 package io.ballerina.workflow;
 
-import io.ballerina.runtime.api.utils.StringUtils;
-import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
+import io.ballerina.workflow.core.WorkflowGraphValidator;
+import io.ballerina.workflow.core.WorkflowGraphValidator.Code;
+import io.ballerina.workflow.core.WorkflowGraphValidator.Problem;
+
+import java.util.List;
 
 /**
  * Workflow validator for validating workflow model descriptors.
+ * 
+ * Models compiled with the workflow compiler plugin are already validated at build time,
+ * so these checks are only needed for models that are constructed at runtime.
  *
  * @since 0.1.0
  */
@@ -43,41 +49,23 @@ public class WorkflowValidator {
         }
         
         // Check required fields
-        if (model.get(StringUtils.fromString("name")) == null) {
-            return false;
-        }
-        
-        BMap<?, ?> nodes = (BMap<?, ?>) model.get(StringUtils.fromString("nodes"));
-        if (nodes == null || nodes.size() == 0) {
+        if (model.get(WorkflowGraphs.NAME) == null || model.get(WorkflowGraphs.NODES) == null 
+                || model.get(WorkflowGraphs.EDGES) == null) {
             return false;
         }
         
-        BArray edges = (BArray) model.get(StringUtils.fromString("edges"));
-        if (edges == null) {
-            return false;
-        }
-        
-        return validateNodeConnectivity(model) && validateNodeTypes(model);
+        return !WorkflowGraphValidator.hasErrors(getProblems(model));
     }
 
     /**
      * Validate workflow node connectivity.
      *
      * @param model the workflow model descriptor to validate
-     * @return true if all nodes are properly connected
+     * @return true if all edges refer to nodes of the model
      */
     public static boolean validateNodeConnectivity(BMap<BString, Object> model) {
-        // TODO: Implement node connectivity validation
-        // Check that all edge references point to existing nodes
-        BMap<?, ?> nodes = (BMap<?, ?>) model.get(StringUtils.fromString("nodes"));
-        BArray edges = (BArray) model.get(StringUtils.fromString("edges"));
-        
-        if (nodes == null || edges == null) {
-            return false;
-        }
-        
-        // Basic check - ensure we have nodes and edges
-        return nodes.size() > 0;
+        return getProblems(model).stream()
+                .noneMatch(problem -> problem.code() == Code.EMPTY_MODEL || problem.code() == Code.UNKNOWN_EDGE_NODE);
     }
 
     /**
@@ -97,15 +85,13 @@ public class WorkflowValidator {
      * @return true if all node types are valid
      */
     public static boolean validateNodeTypes(BMap<BString, Object> model) {
-        // TODO: Implement node type validation
-        // Check that all nodes have valid types (Activity, Event, While, ForEach)
-        BMap<?, ?> nodes = (BMap<?, ?>) model.get(StringUtils.fromString("nodes"));
-        
-        if (nodes == null) {
+        if (model.get(WorkflowGraphs.NODES) == null) {
             return false;
         }
-        
-        // For now, assume all node types are valid
-        return true;
+        return getProblems(model).stream().noneMatch(problem -> problem.code() == Code.UNKNOWN_NODE_KIND);
+    }
+
+    private static List<Problem> getProblems(BMap<BString, Object> model) {
+        return WorkflowGraphValidator.validate(WorkflowGraphs.toBuilder(model));
     }
 }
\ No newline at end of file
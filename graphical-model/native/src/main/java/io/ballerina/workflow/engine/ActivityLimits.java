@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Concurrency and rate limits of the activities of a workflow engine.
+ * 
+ * Each limited activity has a bulkhead bounding the calls running at the same time, and a token bucket
+ * bounding the calls started per second. A call over a limit is parked in a FIFO queue of its activity:
+ * its strand yields and, inside a workflow method, the lock of its instance is released, so a slow
+ * downstream system holds neither threads nor instances and does not stall the other activities.
+ * Parked calls are resumed when a running call of the activity completes, or by the timer service when
+ * the next token is due.
+ *
+ * @since 0.1.0
+ */
+public class ActivityLimits {
+
+    private static final String NATIVE_LIMITS = "activityLimits";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final BString MAX_CONCURRENCY = StringUtils.fromString("maxConcurrency");
+    private static final BString RATE = StringUtils.fromString("rate");
+    private static final BString BURST = StringUtils.fromString("burst");
+    private static final BString ACTIVE_FIELD = StringUtils.fromString("active");
+    private static final BString WAITING_FIELD = StringUtils.fromString("waiting");
+    private static final BString THROTTLED_FIELD = StringUtils.fromString("throttled");
+
+    private final Map<String, Limiter> limiters = new HashMap<>();
+
+    /**
+     * Limits of one activity. All the fields are guarded by the limiter itself.
+     */
+    private static final class Limiter {
+
+        private final long maxConcurrency;
+        private final double rate;
+        private final double burst;
+        private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private long active;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long throttled;
+        private boolean refillScheduled;
+
+        private Limiter(long maxConcurrency, double rate, double burst) {
+            this.maxConcurrency = maxConcurrency;
+            this.rate = rate;
+            this.burst = burst;
+            this.tokens = burst;
+        }
+
+        private synchronized CompletableFuture<Void> acquire() {
+            if (waiting.isEmpty() && tryTake()) {
+                return null;
+            }
+            throttled++;
+            CompletableFuture<Void> turn = new CompletableFuture<>();
+            waiting.add(turn);
+            scheduleRefill();
+            return turn;
+        }
+
+        private void release() {
+            List<CompletableFuture<Void>> resumed;
+            synchronized (this) {
+                active--;
+                resumed = dispatch();
+            }
+            resumed.forEach(turn -> turn.complete(null));
+        }
+
+        private void refill() {
+            List<CompletableFuture<Void>> resumed;
+            synchronized (this) {
+                refillScheduled = false;
+                resumed = dispatch();
+                scheduleRefill();
+            }
+            resumed.forEach(turn -> turn.complete(null));
+        }
+
+        // Hand the free permits to the parked calls, in order
+        private List<CompletableFuture<Void>> dispatch() {
+            List<CompletableFuture<Void>> resumed = new ArrayList<>();
+            while (!waiting.isEmpty() && tryTake()) {
+                resumed.add(waiting.poll());
+            }
+            return resumed;
+        }
+
+        // Resume the parked calls when the next token is due, unless they wait for a running call instead
+        private void scheduleRefill() {
+            if (refillScheduled || waiting.isEmpty() || rate <= 0 || tokens >= 1) {
+                return;
+            }
+            refillScheduled = true;
+            Suspensions.schedule(this::refill, (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND));
+        }
+
+        private boolean tryTake() {
+            if (maxConcurrency > 0 && active >= maxConcurrency) {
+                return false;
+            }
+            if (rate > 0) {
+                long now = System.nanoTime();
+                tokens = Math.min(burst, tokens + (now - refilledAt) * rate / NANOS_PER_SECOND);
+                refilledAt = now;
+                if (tokens < 1) {
+                    return false;
+                }
+                tokens -= 1;
+            }
+            active++;
+            return true;
+        }
+    }
+
+    /**
+     * Initialize the activity limits of an engine.
+     *
+     * @param limiter the Ballerina activity limiter object
+     * @param limits the limits by activity name
+     */
+    public static void init(BObject limiter, BMap<BString, Object> limits) {
+        ActivityLimits activityLimits = new ActivityLimits();
+        for (Map.Entry<BString, Object> entry : limits.entrySet()) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> config = (BMap<BString, Object>) entry.getValue();
+            Long maxConcurrency = config.getIntValue(MAX_CONCURRENCY);
+            Object rate = config.get(RATE);
+            double tokensPerSecond = rate instanceof BDecimal decimal ? decimal.decimalValue().doubleValue() : 0;
+            Long burst = config.getIntValue(BURST);
+            activityLimits.limiters.put(entry.getKey().getValue(), new Limiter(
+                    maxConcurrency != null ? maxConcurrency : 0, tokensPerSecond,
+                    burst != null ? burst : Math.max(1, Math.ceil(tokensPerSecond))));
+        }
+        limiter.addNativeData(NATIVE_LIMITS, activityLimits);
+    }
+
+    /**
+     * Take a permit to call an activity, parking the current strand while the activity is over its limits.
+     *
+     * @param env the Ballerina environment
+     * @param limiter the Ballerina activity limiter object
+     * @param activity the name of the activity
+     */
+    public static void acquire(Environment env, BObject limiter, BString activity) {
+        Limiter limits = get(limiter).limiters.get(activity.getValue());
+        if (limits == null) {
+            return;
+        }
+        CompletableFuture<Void> turn = limits.acquire();
+        if (turn != null) {
+            Suspensions.park(env, turn);
+        }
+    }
+
+    /**
+     * Give back the permit of a completed activity call.
+     *
+     * @param limiter the Ballerina activity limiter object
+     * @param activity the name of the activity
+     */
+    public static void release(BObject limiter, BString activity) {
+        Limiter limits = get(limiter).limiters.get(activity.getValue());
+        if (limits != null) {
+            limits.release();
+        }
+    }
+
+    /**
+     * Get the metrics of the limited activities.
+     *
+     * @param limiter the Ballerina activity limiter object
+     * @return the running, parked and throttled calls of each limited activity
+     */
+    public static BMap<BString, Object> getMetrics(BObject limiter) {
+        BMap<BString, Object> metrics = ValueCreator.createMapValue();
+        for (Map.Entry<String, Limiter> entry : get(limiter).limiters.entrySet()) {
+            Limiter limits = entry.getValue();
+            BMap<BString, Object> activity = ValueCreator.createMapValue();
+            synchronized (limits) {
+                activity.put(ACTIVE_FIELD, limits.active);
+                activity.put(WAITING_FIELD, (long) limits.waiting.size());
+                activity.put(THROTTLED_FIELD, limits.throttled);
+            }
+            metrics.put(StringUtils.fromString(entry.getKey()), activity);
+        }
+        return metrics;
+    }
+
+    private static ActivityLimits get(BObject limiter) {
+        return (ActivityLimits) limiter.getNativeData(NATIVE_LIMITS);
+    }
+}
\ No newline at end of file
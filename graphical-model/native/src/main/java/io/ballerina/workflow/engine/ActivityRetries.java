@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BString;
+
+/**
+ * Classification of activity errors for the retry policies of activities.
+ *
+ * @since 0.1.0
+ */
+public class ActivityRetries {
+
+    /**
+     * Get the name of the type of an activity error, which the non-retryable error types of retry
+     * policies are matched with. This is the name given in the declaration of a distinct error type.
+     * The name is recorded with the failures of activities, so replayed failures are retried the same way.
+     *
+     * @param error the error of the activity
+     * @return the name of the error type, empty if the type has no name
+     */
+    public static BString getErrorTypeName(BError error) {
+        Type type = TypeUtils.getImpliedType(TypeUtils.getType(error));
+        String name = type != null ? type.getName() : null;
+        return StringUtils.fromString(name != null ? name : "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BObject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits for space in the admission queue of an engine.
+ * 
+ * Each queue counts the times space was freed. A start that finds the queue full reads the count while
+ * it holds the queue lock, and waits until the count moves on, so space freed between the check and the
+ * wait is not missed. The waiting strand yields, so it holds no carrier thread, and it is woken by the
+ * drain as soon as a batch is taken instead of polling the queue.
+ *
+ * @since 0.1.0
+ */
+public class AdmissionWaits {
+
+    private static final String NATIVE_SPACE = "admissionSpace";
+
+    /**
+     * Space freed in a queue, and the future completed the next time space is freed.
+     */
+    private static final class Space {
+        private long version = 0;
+        private CompletableFuture<Void> freed = new CompletableFuture<>();
+    }
+
+    /**
+     * Attach the space signal to an admission queue.
+     *
+     * @param queue the Ballerina admission queue object
+     */
+    public static void init(BObject queue) {
+        queue.addNativeData(NATIVE_SPACE, new Space());
+    }
+
+    /**
+     * Get the number of times space was freed in a queue.
+     *
+     * @param queue the Ballerina admission queue object
+     * @return the space version to wait on
+     */
+    public static long getVersion(BObject queue) {
+        Space space = get(queue);
+        synchronized (space) {
+            return space.version;
+        }
+    }
+
+    /**
+     * Wake the starts waiting for space in a queue.
+     *
+     * @param queue the Ballerina admission queue object
+     */
+    public static void signal(BObject queue) {
+        Space space = get(queue);
+        CompletableFuture<Void> freed;
+        synchronized (space) {
+            space.version++;
+            freed = space.freed;
+            space.freed = new CompletableFuture<>();
+        }
+        freed.complete(null);
+    }
+
+    /**
+     * Wait until space is freed in a queue after the given version, or the timeout passes.
+     *
+     * @param env the Ballerina environment
+     * @param queue the Ballerina admission queue object
+     * @param version the space version read when the queue was found full
+     * @param millis the maximum time to wait in milliseconds
+     * @return true if space was freed, false if the wait timed out
+     */
+    public static boolean await(Environment env, BObject queue, long version, long millis) {
+        Space space = get(queue);
+        CompletableFuture<Void> freed;
+        synchronized (space) {
+            if (space.version != version) {
+                return true;
+            }
+            freed = space.freed;
+        }
+        if (millis <= 0) {
+            return false;
+        }
+        return env.yieldAndRun(() -> {
+            try {
+                freed.get(millis, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            }
+        });
+    }
+
+    private static Space get(BObject queue) {
+        return (Space) queue.getNativeData(NATIVE_SPACE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed, append-only segment files archiving the states of closed workflow instances.
+ * 
+ * Each appended batch is written as one gzip member holding the batch as newline delimited JSON, so a segment
+ * is a valid gzip file that grows by concatenation and can be read with standard tools. A batch is forced to
+ * disk before the append returns, so the instances can be purged from hot storage right after. A new segment is
+ * started once the current one reaches the configured size.
+ *
+ * @since 0.1.0
+ */
+public class ArchiveSegments {
+
+    private static final String NATIVE_ARCHIVE = "archiveSegments";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private final Path directory;
+    private final long segmentSize;
+    private Path segment;
+    private int sequence;
+
+    private ArchiveSegments(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Initialize the archive segments of a Ballerina archive store.
+     *
+     * @param archive the Ballerina archive store object
+     * @param directory the directory of the segment files
+     * @param segmentSize the size in bytes after which a new segment is started
+     * @return an error if the directory cannot be created
+     */
+    public static Object init(BObject archive, BString directory, long segmentSize) {
+        try {
+            Path path = Path.of(directory.getValue());
+            Files.createDirectories(path);
+            archive.addNativeData(NATIVE_ARCHIVE, new ArchiveSegments(path, segmentSize));
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to create archive directory: " 
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * Append a batch of records to the current segment.
+     *
+     * @param archive the Ballerina archive store object
+     * @param records the records, as newline delimited JSON
+     * @return an error if the batch cannot be written
+     */
+    public static Object append(BObject archive, BString records) {
+        ArchiveSegments segments = (ArchiveSegments) archive.getNativeData(NATIVE_ARCHIVE);
+        try {
+            segments.write(records.getValue().getBytes(StandardCharsets.UTF_8));
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString("Failed to append to archive segment: " 
+                    + e.getMessage()));
+        }
+    }
+
+    private synchronized void write(byte[] records) throws IOException {
+        if (segment == null || Files.size(segment) >= segmentSize) {
+            segment = directory.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-" + sequence++ 
+                    + SEGMENT_SUFFIX);
+        }
+        try (FileOutputStream file = new FileOutputStream(segment.toFile(), true)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(file);
+            gzip.write(records);
+            gzip.finish();
+            file.getChannel().force(true);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.concurrent.StrandMetadata;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ObjectType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Actor style execution of the operations of workflow instances.
+ * 
+ * Each instance with pending operations has a mailbox that is drained by one virtual thread at a time,
+ * so the operations of an instance run one after the other in submission order, while the operations
+ * of different instances run in parallel. Operations hold the instance lock while they run, so they
+ * are also exclusive with the operations that do not go through the mailbox. Idle mailboxes are
+ * removed, so only instances with pending operations take memory.
+ * 
+ * Each instance runs on its own value of the workflow service, so the state fields of an instance are
+ * not shared with the other instances of the workflow. The value is created when the instance starts,
+ * or when it is replayed, so a replayed instance rebuilds its state from its recorded history only.
+ * 
+ * The signals and updates of an instance are recorded in its history before they run. When the instance
+ * is replayed, they are applied again on the new value at the point of the start method they ran at, so
+ * the start method sees the same state as in the original run. Each invocation of the start method or of
+ * a signal or update numbers its own activity calls, so the calls of concurrent invocations do not shift
+ * the recorded calls of each other.
+ * 
+ * Workflows and mailboxes are registered per engine node, so several engines in one runtime, such as the
+ * nodes of a test cluster, can attach workflows with the same name and run instances with the same id.
+ *
+ * @since 0.1.0
+ */
+public class InstanceActors {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    // Keyed by the engine node id and the instance id, or the workflow name
+    private static final Map<String, Mailbox> MAILBOXES = new ConcurrentHashMap<>();
+    private static final Map<String, WorkflowService> SERVICES = new ConcurrentHashMap<>();
+
+    private static final String NODE_ID = "workflow.nodeId";
+    private static final String INSTANCE_ID = "workflow.instanceId";
+    private static final String REPLAY_ENGINE = "workflow.replayEngine";
+    private static final String CURSOR = "workflow.cursor";
+    private static final String WORKFLOW = "workflow.service";
+    private static final String VALUE = "workflow.value";
+    private static final long START_METHOD = -1;
+
+    private record WorkflowService(BString nodeId, BObject service, Runtime runtime, BObject replayEngine,
+                                   Map<String, InstanceValue> values) {
+    }
+
+    /**
+     * Value of a workflow service an instance runs on, with the recorded signals and updates applied on it.
+     */
+    private static final class InstanceValue {
+        private final BObject service;
+        private final BitSet appliedHandlers = new BitSet();
+
+        private InstanceValue(BObject service) {
+            this.service = service;
+        }
+
+        private synchronized boolean apply(int handler) {
+            if (appliedHandlers.get(handler)) {
+                return false;
+            }
+            appliedHandlers.set(handler);
+            return true;
+        }
+
+        private synchronized int getPendingHandler() {
+            return appliedHandlers.nextClearBit(0);
+        }
+    }
+
+    /**
+     * Activity calls of an invocation of the start method or of a signal or update of an instance.
+     */
+    private static final class Cursor {
+        private final long handler;
+        private long next = 0;
+
+        private Cursor(long handler) {
+            this.handler = handler;
+        }
+    }
+
+    private static final class Mailbox {
+        private final Queue<Runnable> operations = new ConcurrentLinkedQueue<>();
+        private boolean running = false;
+    }
+
+    /**
+     * Register a workflow service of an engine node, so its methods can be invoked on its instances.
+     *
+     * @param env the Ballerina environment
+     * @param nodeId the identifier of the engine node
+     * @param name the name of the workflow
+     * @param service the workflow service
+     * @param replayEngine the replay engine activities of the workflow record their results with
+     */
+    public static void register(Environment env, BString nodeId, BString name, BObject service,
+                                BObject replayEngine) {
+        SERVICES.put(key(nodeId, name.getValue()), new WorkflowService(nodeId, service, env.getRuntime(),
+                replayEngine, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Create a new value of a workflow service for an instance, replacing the value the instance ran on.
+     * This is done before the start method of the instance runs, so a replayed instance starts from the
+     * initial state of the service.
+     *
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     * @param workflowName the name of the workflow
+     * @return an error if the workflow is not attached
+     */
+    public static Object reset(BString nodeId, BString instanceId, BString workflowName) {
+        WorkflowService workflow = SERVICES.get(key(nodeId, workflowName.getValue()));
+        if (workflow == null) {
+            return ErrorCreator.createError(StringUtils.fromString("Workflow not attached: " 
+                    + workflowName.getValue()));
+        }
+        workflow.values().put(instanceId.getValue(), new InstanceValue(newValue(workflow)));
+        return null;
+    }
+
+    /**
+     * Release the value of a workflow service an instance ran on, once the instance is closed.
+     *
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     * @param workflowName the name of the workflow
+     */
+    public static void release(BString nodeId, BString instanceId, BString workflowName) {
+        WorkflowService workflow = SERVICES.get(key(nodeId, workflowName.getValue()));
+        if (workflow != null) {
+            workflow.values().remove(instanceId.getValue());
+        }
+    }
+
+    /**
+     * Unregister a workflow service of an engine node.
+     *
+     * @param nodeId the identifier of the engine node
+     * @param service the workflow service
+     */
+    public static void unregister(BString nodeId, BObject service) {
+        SERVICES.values().removeIf(workflow -> workflow.nodeId().equals(nodeId) && workflow.service() == service);
+    }
+
+    /**
+     * Invoke a method of a workflow service on an instance, after the operations already
+     * submitted for the instance. The calling strand yields until the method returns.
+     *
+     * @param env the Ballerina environment
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     * @param workflowName the name of the workflow
+     * @param method the name of the remote method
+     * @param args the arguments of the method
+     * @return the return value of the method, or an error if the workflow or method cannot be invoked
+     */
+    public static Object invoke(Environment env, BString nodeId, BString instanceId, BString workflowName,
+                                BString method, BArray args) {
+        WorkflowService workflow = SERVICES.get(key(nodeId, workflowName.getValue()));
+        if (workflow == null) {
+            return ErrorCreator.createError(StringUtils.fromString("Workflow not attached: " 
+                    + workflowName.getValue()));
+        }
+        Object[] arguments = toArguments(args);
+        CompletableFuture<Object> result = submit(nodeId.getValue(), instanceId.getValue(), () -> {
+            Object handler = workflow.runtime().callMethod(workflow.replayEngine(), "recordHandler",
+                    new StrandMetadata(true, Map.of()), instanceId, method, args);
+            if (handler instanceof BError) {
+                return handler;
+            }
+            InstanceValue value = getValue(workflow, instanceId);
+            value.apply((int) (long) handler);
+            Object returned = call(workflow, instanceId, value, method.getValue(), arguments,
+                    new Cursor((long) handler));
+            // Signals and updates change the instance, so the suspended conditions are checked again
+            Suspensions.wake(key(nodeId, instanceId.getValue()));
+            return returned;
+        });
+        return await(env, result, method);
+    }
+
+    /**
+     * Invoke a method of a workflow service on an instance without going through its mailbox. The method
+     * still runs with exclusive access to the instance. This is used for queries, which need not wait for
+     * the pending operations, and for the start method, which lets the mailbox operations run while it is
+     * suspended.
+     *
+     * @param env the Ballerina environment
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     * @param workflowName the name of the workflow
+     * @param method the name of the remote method
+     * @param args the arguments of the method
+     * @param startMethod whether the method is the start method, which can call activities
+     * @return the return value of the method, or an error if the workflow or method cannot be invoked
+     */
+    public static Object invokeDirect(Environment env, BString nodeId, BString instanceId, BString workflowName,
+                                      BString method, BArray args, boolean startMethod) {
+        WorkflowService workflow = SERVICES.get(key(nodeId, workflowName.getValue()));
+        if (workflow == null) {
+            return ErrorCreator.createError(StringUtils.fromString("Workflow not attached: " 
+                    + workflowName.getValue()));
+        }
+        Object[] arguments = toArguments(args);
+        Cursor cursor = startMethod ? new Cursor(START_METHOD) : null;
+        CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> InstanceLocks.withLock(
+                instanceId.getValue(), () -> call(workflow, instanceId, getValue(workflow, instanceId),
+                        method.getValue(), arguments, cursor)), EXECUTOR);
+        return await(env, result, method);
+    }
+
+    /**
+     * Apply a recorded signal or update again on the value of the instance the current strand runs the
+     * start method of, unless it was already applied on the value. The start method holds the lock of the
+     * instance, so the signal or update runs with exclusive access to the instance.
+     *
+     * @param env the Ballerina environment
+     * @param handler the index of the signal or update in the history of the instance
+     * @param method the name of the remote method
+     * @param args the arguments of the method
+     * @return the return value of the method, nil if it was already applied, or an error if it cannot be invoked
+     */
+    public static Object replayHandler(Environment env, long handler, BString method, BArray args) {
+        if (!(env.getStrandLocal(WORKFLOW) instanceof WorkflowService workflow)
+                || !(env.getStrandLocal(VALUE) instanceof InstanceValue value)) {
+            return ErrorCreator.createError(StringUtils.fromString(
+                    "Signals and updates can only be replayed in the start method of a workflow"));
+        }
+        BString instanceId = (BString) env.getStrandLocal(INSTANCE_ID);
+        if (!value.apply((int) handler)) {
+            return null;
+        }
+        Object[] arguments = toArguments(args);
+        CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> call(workflow, instanceId, value,
+                method.getValue(), arguments, new Cursor(handler)), EXECUTOR);
+        return await(env, result, method);
+    }
+
+    /**
+     * Get the first recorded signal or update not yet applied on the value of the instance the current
+     * strand runs a method of.
+     *
+     * @param env the Ballerina environment
+     * @return the index of the signal or update in the history of the instance
+     */
+    public static long getPendingHandler(Environment env) {
+        return env.getStrandLocal(VALUE) instanceof InstanceValue value ? value.getPendingHandler() : 0;
+    }
+
+    /**
+     * Take the number of the next activity call of the invocation the current strand runs.
+     *
+     * @param env the Ballerina environment
+     * @return the index of the signal or update making the call, -1 for the start method, and the number of
+     * the call in the invocation, or nil if the current strand cannot call activities
+     */
+    public static Object nextActivityCall(Environment env) {
+        if (!(env.getStrandLocal(CURSOR) instanceof Cursor cursor)) {
+            return null;
+        }
+        return ValueCreator.createArrayValue(new long[]{cursor.handler, cursor.next++});
+    }
+
+    /**
+     * Get the number of activity calls the start method the current strand runs has made so far.
+     *
+     * @param env the Ballerina environment
+     * @return the number of activity calls, or nil if the current strand does not run a start method
+     */
+    public static Object getActivityPosition(Environment env) {
+        if (!(env.getStrandLocal(CURSOR) instanceof Cursor cursor) || cursor.handler != START_METHOD) {
+            return null;
+        }
+        return cursor.next;
+    }
+
+    /**
+     * Get the identifier of the instance the current strand runs a workflow method for.
+     *
+     * @param env the Ballerina environment
+     * @return the instance identifier, or nil outside of workflow methods
+     */
+    public static Object currentInstance(Environment env) {
+        return env.getStrandLocal(INSTANCE_ID);
+    }
+
+    /**
+     * Get the replay engine of the workflow the current strand runs a method of.
+     *
+     * @param env the Ballerina environment
+     * @return the replay engine, or nil outside of workflow methods
+     */
+    public static Object currentReplayEngine(Environment env) {
+        return env.getStrandLocal(REPLAY_ENGINE);
+    }
+
+    /**
+     * Get the instance the current strand runs a workflow method for, holding the lock of the instance.
+     *
+     * @param env the Ballerina environment
+     * @return the instance identifier, or null outside of workflow methods
+     */
+    static String getInstanceId(Environment env) {
+        Object instanceId = env.getStrandLocal(INSTANCE_ID);
+        return instanceId instanceof BString id ? id.getValue() : null;
+    }
+
+    /**
+     * Get the key of the instance the current strand runs a workflow method for, which identifies the
+     * instance among the instances of all the engine nodes.
+     *
+     * @param env the Ballerina environment
+     * @return the instance key, or null outside of workflow methods
+     */
+    static String getInstanceKey(Environment env) {
+        Object nodeId = env.getStrandLocal(NODE_ID);
+        Object instanceId = env.getStrandLocal(INSTANCE_ID);
+        return nodeId instanceof BString node && instanceId instanceof BString id ? key(node, id.getValue()) : null;
+    }
+
+    private static String key(BString nodeId, String id) {
+        return key(nodeId.getValue(), id);
+    }
+
+    static String key(String nodeId, String id) {
+        return nodeId + "/" + id;
+    }
+
+    private static Object call(WorkflowService workflow, BString instanceId, InstanceValue value, String method,
+                               Object[] arguments, Cursor cursor) {
+        // The instance and its replay engine are available to the activities called by the method
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(NODE_ID, workflow.nodeId());
+        properties.put(INSTANCE_ID, instanceId);
+        properties.put(REPLAY_ENGINE, workflow.replayEngine());
+        properties.put(WORKFLOW, workflow);
+        properties.put(VALUE, value);
+        if (cursor != null) {
+            properties.put(CURSOR, cursor);
+        }
+        ObjectType type = getType(workflow);
+        StrandMetadata metadata = new StrandMetadata(type.isIsolated() && type.isIsolated(method), properties);
+        return workflow.runtime().callMethod(value.service, method, metadata, arguments);
+    }
+
+    private static InstanceValue getValue(WorkflowService workflow, BString instanceId) {
+        // Instances recovered from persistence are reset before they are replayed, so a missing value is only
+        // created here for operations on an instance whose start method has not run yet on this node
+        return workflow.values().computeIfAbsent(instanceId.getValue(), id -> new InstanceValue(newValue(workflow)));
+    }
+
+    private static BObject newValue(WorkflowService workflow) {
+        ObjectType type = getType(workflow);
+        return ValueCreator.createObjectValue(type.getPackage(), type.getName());
+    }
+
+    private static ObjectType getType(WorkflowService workflow) {
+        return (ObjectType) TypeUtils.getImpliedType(workflow.service().getOriginalType());
+    }
+
+    private static Object[] toArguments(BArray args) {
+        Object[] arguments = new Object[(int) args.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = args.get(i);
+        }
+        return arguments;
+    }
+
+    private static Object await(Environment env, CompletableFuture<Object> result, BString method) {
+        return env.yieldAndRun(() -> {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ErrorCreator.createError(StringUtils.fromString("Interrupted while invoking '" 
+                        + method.getValue() + "'"));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof CompletionException 
+                        ? e.getCause().getCause() : e.getCause();
+                return cause instanceof BError error ? error : ErrorCreator.createError(
+                        StringUtils.fromString("Failed to invoke '" + method.getValue() + "': " 
+                                + cause.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Submit an operation for an instance of an engine node.
+     *
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     * @param operation the operation
+     * @return the future result of the operation
+     */
+    public static <T> CompletableFuture<T> submit(String nodeId, String instanceId, Supplier<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(InstanceLocks.withLock(instanceId, operation));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        boolean[] start = new boolean[1];
+        String key = key(nodeId, instanceId);
+        MAILBOXES.compute(key, (id, mailbox) -> {
+            mailbox = mailbox != null ? mailbox : new Mailbox();
+            mailbox.operations.add(task);
+            if (!mailbox.running) {
+                mailbox.running = true;
+                start[0] = true;
+            }
+            return mailbox;
+        });
+        if (start[0]) {
+            EXECUTOR.execute(() -> drain(key));
+        }
+        return result;
+    }
+
+    private static void drain(String key) {
+        Mailbox mailbox = MAILBOXES.get(key);
+        while (mailbox != null) {
+            Runnable task;
+            while ((task = mailbox.operations.poll()) != null) {
+                task.run();
+            }
+            // Remove the mailbox when idle, unless an operation was submitted in the meantime
+            mailbox = MAILBOXES.compute(key, (id, current) -> current == null || current.operations.isEmpty() 
+                    ? null : current);
+        }
+    }
+}
\ No newline at end of file
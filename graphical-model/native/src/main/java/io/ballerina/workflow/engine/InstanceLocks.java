@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BFunctionPointer;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks giving engine operations exclusive access to a workflow instance.
+ * 
+ * Instance ids are hashed onto a fixed table of locks with many more stripes than cores, so two
+ * operations only contend when they target the same instance or, rarely, instances sharing a stripe.
+ * Acquisitions, contended acquisitions and the time spent waiting are counted for the metrics.
+ * The locks are binary semaphores rather than owned locks, so a workflow method suspended in
+ * {@code await} or {@code sleep} can release the lock of its instance and take it back when it resumes,
+ * whichever thread it resumes on.
+ *
+ * @since 0.1.0
+ */
+public class InstanceLocks {
+
+    private static final int STRIPES = Math.max(256, 
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 64 - 1) << 1);
+    private static final Semaphore[] LOCKS = new Semaphore[STRIPES];
+    private static final LongAdder ACQUISITIONS = new LongAdder();
+    private static final LongAdder CONTENDED = new LongAdder();
+    private static final LongAdder WAIT_NANOS = new LongAdder();
+
+    private static final BString ACQUISITIONS_FIELD = StringUtils.fromString("acquisitions");
+    private static final BString CONTENDED_FIELD = StringUtils.fromString("contended");
+    private static final BString WAIT_TIME_FIELD = StringUtils.fromString("waitTime");
+    private static final BString STRIPES_FIELD = StringUtils.fromString("stripes");
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new Semaphore(1);
+        }
+    }
+
+    /**
+     * Run a Ballerina function with exclusive access to an instance.
+     *
+     * @param env the Ballerina environment
+     * @param instanceId the identifier of the instance
+     * @param operation the function to run
+     * @return the return value of the function
+     */
+    public static Object withLock(Environment env, BString instanceId, BFunctionPointer operation) {
+        Semaphore lock = getLock(instanceId.getValue());
+        env.yieldAndRun(() -> {
+            acquire(lock);
+            return null;
+        });
+        try {
+            return operation.call(env.getRuntime());
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Run an operation with exclusive access to an instance, on the current thread.
+     *
+     * @param instanceId the identifier of the instance
+     * @param operation the operation to run
+     * @return the result of the operation
+     */
+    static <T> T withLock(String instanceId, Supplier<T> operation) {
+        Semaphore lock = getLock(instanceId);
+        acquire(lock);
+        try {
+            return operation.get();
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Acquire the lock of an instance, waiting for it if needed.
+     *
+     * @param instanceId the identifier of the instance
+     */
+    static void lock(String instanceId) {
+        acquire(getLock(instanceId));
+    }
+
+    /**
+     * Release the lock of an instance held by the caller.
+     *
+     * @param instanceId the identifier of the instance
+     */
+    static void unlock(String instanceId) {
+        getLock(instanceId).release();
+    }
+
+    /**
+     * Get the lock metrics.
+     *
+     * @return the number of stripes, acquisitions and contended acquisitions, and the wait time in seconds
+     */
+    public static BMap<BString, Object> getMetrics() {
+        BMap<BString, Object> metrics = ValueCreator.createMapValue();
+        metrics.put(STRIPES_FIELD, (long) STRIPES);
+        metrics.put(ACQUISITIONS_FIELD, ACQUISITIONS.sum());
+        metrics.put(CONTENDED_FIELD, CONTENDED.sum());
+        metrics.put(WAIT_TIME_FIELD, ValueCreator.createDecimalValue(BigDecimal.valueOf(WAIT_NANOS.sum(), 9)));
+        return metrics;
+    }
+
+    private static Semaphore getLock(String instanceId) {
+        int hash = instanceId.hashCode();
+        return LOCKS[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static void acquire(Semaphore lock) {
+        ACQUISITIONS.increment();
+        if (lock.tryAcquire()) {
+            return;
+        }
+        CONTENDED.increment();
+        long start = System.nanoTime();
+        lock.acquireUninterruptibly();
+        WAIT_NANOS.add(System.nanoTime() - start);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.engine;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suspension of workflow methods in {@code await} and {@code sleep}.
+ * 
+ * A suspended method releases the lock of its instance and yields its strand while it waits on a future,
+ * so it holds neither the instance nor a carrier thread. An awaiting method is resumed when a signal or
+ * an update of its instance completes, and a sleeping method by the timer service, which is a single
+ * scheduler thread shared by all the instances. A resumed method takes the lock of its instance back
+ * before it continues. Stopping an instance resumes all its suspended methods, awaiting or sleeping.
+ *
+ * @since 0.1.0
+ */
+public class Suspensions {
+
+    // Keyed by the engine node id and the instance id, so instances of different engines with the same id
+    // do not wake each other
+    private static final Map<String, CompletableFuture<Void>> CHANGES = new ConcurrentHashMap<>();
+    private static final Map<String, Set<CompletableFuture<Void>>> SLEEPS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService TIMERS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "workflow-timers");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicLong SUSPENDED = new AtomicLong();
+
+    /**
+     * Suspend the current workflow method until its instance changes.
+     *
+     * @param env the Ballerina environment
+     * @return an error if the current strand does not run a workflow method
+     */
+    public static Object awaitChange(Environment env) {
+        String instanceId = InstanceActors.getInstanceId(env);
+        if (instanceId == null) {
+            return ErrorCreator.createError(StringUtils.fromString("await can only be used in workflow methods"));
+        }
+        // Register before releasing the lock, so a change made right after is not missed
+        CompletableFuture<Void> change = CHANGES.computeIfAbsent(InstanceActors.getInstanceKey(env),
+                key -> new CompletableFuture<>());
+        suspend(env, instanceId, change);
+        return null;
+    }
+
+    /**
+     * Suspend the current workflow method for the given time. Outside of workflow methods only the
+     * strand is suspended.
+     *
+     * @param env the Ballerina environment
+     * @param millis the time to sleep in milliseconds
+     */
+    public static void sleep(Environment env, long millis) {
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        String instanceKey = InstanceActors.getInstanceKey(env);
+        if (instanceKey != null) {
+            // Registered under the map lock of the instance, so a timer is never added to a set being removed
+            SLEEPS.compute(instanceKey, (key, timers) -> {
+                Set<CompletableFuture<Void>> sleeping = timers != null ? timers : ConcurrentHashMap.newKeySet();
+                sleeping.add(timer);
+                return sleeping;
+            });
+            timer.whenComplete((ignored, error) -> SLEEPS.computeIfPresent(instanceKey, (key, timers) -> {
+                timers.remove(timer);
+                return timers.isEmpty() ? null : timers;
+            }));
+        }
+        TIMERS.schedule(() -> timer.complete(null), Math.max(0, millis), TimeUnit.MILLISECONDS);
+        park(env, timer);
+    }
+
+    /**
+     * Resume all the suspended methods of an instance, awaiting a change or sleeping, for example when the
+     * instance is stopped. The resumed methods check the status of the instance before they continue.
+     *
+     * @param nodeId the identifier of the engine node
+     * @param instanceId the identifier of the instance
+     */
+    public static void interrupt(BString nodeId, BString instanceId) {
+        String instanceKey = InstanceActors.key(nodeId.getValue(), instanceId.getValue());
+        wake(instanceKey);
+        Set<CompletableFuture<Void>> timers = SLEEPS.remove(instanceKey);
+        if (timers != null) {
+            timers.forEach(timer -> timer.complete(null));
+        }
+    }
+
+    /**
+     * Get the number of workflow methods currently suspended.
+     *
+     * @return the number of suspended workflow methods
+     */
+    public static long getSuspendedCount() {
+        return SUSPENDED.get();
+    }
+
+    /**
+     * Resume the workflow methods awaiting a change of an instance.
+     *
+     * @param instanceKey the key of the instance among the instances of all the engine nodes
+     */
+    static void wake(String instanceKey) {
+        CompletableFuture<Void> change = CHANGES.remove(instanceKey);
+        if (change != null) {
+            change.complete(null);
+        }
+    }
+
+    /**
+     * Suspend the current strand until a future completes. Workflow methods release the lock of their
+     * instance while they are suspended.
+     *
+     * @param env the Ballerina environment
+     * @param resume the future resuming the strand
+     */
+    static void park(Environment env, CompletableFuture<Void> resume) {
+        String instanceId = InstanceActors.getInstanceId(env);
+        if (instanceId == null) {
+            env.yieldAndRun(resume::join);
+            return;
+        }
+        suspend(env, instanceId, resume);
+    }
+
+    /**
+     * Run a task on the timer service after a delay.
+     *
+     * @param task the task
+     * @param nanos the delay in nanoseconds
+     */
+    static void schedule(Runnable task, long nanos) {
+        TIMERS.schedule(task, Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    private static void suspend(Environment env, String instanceId, CompletableFuture<Void> resume) {
+        SUSPENDED.incrementAndGet();
+        InstanceLocks.unlock(instanceId);
+        env.yieldAndRun(() -> {
+            try {
+                resume.join();
+            } finally {
+                SUSPENDED.decrementAndGet();
+                InstanceLocks.lock(instanceId);
+            }
+            return null;
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+/**
+ * Tests the binary encoding of workflow contexts.
+ *
+ * @since 0.1.0
+ */
+public class ContextCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        ContextCodec codec = new ContextCodec(model("OrderProcessing", "ship"));
+        BMap<BString, Object> results = ValueCreator.createMapValue();
+        results.put(key("ship"), StringUtils.fromString("shipped"));
+        BMap<BString, Object> context = ValueCreator.createMapValue();
+        context.put(key("id"), StringUtils.fromString("order-1"));
+        context.put(key("results"), results);
+        context.put(key("count"), -42L);
+        context.put(key("price"), 12.5d);
+        context.put(key("amount"), ValueCreator.createDecimalValue(new BigDecimal("99.95")));
+        context.put(key("approved"), true);
+        context.put(key("note"), null);
+        context.put(key("tags"), ValueCreator.createArrayValue(new BString[]{key("a"), key("b")}));
+        context.put(key("payload"), ValueCreator.createArrayValue(new byte[]{1, 2, 3}));
+
+        BMap<BString, Object> decoded = codec.decode(codec.encode(context));
+
+        Assert.assertEquals(decoded.size(), context.size());
+        Assert.assertEquals(decoded.getStringValue(key("id")).getValue(), "order-1");
+        Assert.assertEquals(decoded.getMapValue(key("results")).get(key("ship")).toString(), "shipped");
+        Assert.assertEquals(decoded.getIntValue(key("count")), Long.valueOf(-42));
+        Assert.assertEquals(decoded.get(key("price")), 12.5d);
+        Assert.assertEquals(((BDecimal) decoded.get(key("amount"))).decimalValue(), new BigDecimal("99.95"));
+        Assert.assertEquals(decoded.getBooleanValue(key("approved")), Boolean.TRUE);
+        Assert.assertTrue(decoded.containsKey(key("note")));
+        Assert.assertNull(decoded.get(key("note")));
+        Assert.assertEquals(decoded.getArrayValue(key("tags")).getStringArray(), new String[]{"a", "b"});
+        Assert.assertEquals(((BArray) decoded.get(key("payload"))).getBytes(), new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testRepeatedStringsAreWrittenOnce() {
+        ContextCodec codec = new ContextCodec(model("OrderProcessing", "ship"));
+        String address = "221B Baker Street, London";
+        BMap<BString, Object> once = ValueCreator.createMapValue();
+        once.put(key("billing"), StringUtils.fromString(address));
+        BMap<BString, Object> twice = ValueCreator.createMapValue();
+        twice.put(key("billing"), StringUtils.fromString(address));
+        twice.put(key("shipping"), StringUtils.fromString(address));
+
+        int repeated = codec.encode(twice).length - codec.encode(once).length;
+
+        // The second occurrence is a reference into the string table, not the string again
+        Assert.assertTrue(repeated < address.length(), "Repeated string took " + repeated + " bytes");
+        Assert.assertEquals(codec.decode(codec.encode(twice)).getStringValue(key("shipping")).getValue(), address);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "encoded with a different workflow model")
+    public void testDecodeWithDifferentModel() {
+        BMap<BString, Object> context = ValueCreator.createMapValue();
+        context.put(key("ship"), StringUtils.fromString("shipped"));
+        byte[] data = new ContextCodec(model("OrderProcessing", "ship")).encode(context);
+
+        new ContextCodec(model("OrderProcessing", "deliver")).decode(data);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "not a binary workflow context")
+    public void testDecodeNotAContext() {
+        new ContextCodec(model("OrderProcessing", "ship")).decode(new byte[]{0, 2, 0, 0, 0, 0, 7, 0});
+    }
+
+    private static BMap<BString, Object> model(String name, String activity) {
+        BMap<BString, Object> nodes = ValueCreator.createMapValue();
+        nodes.put(key("start"), node("StartEvent"));
+        nodes.put(key(activity), node("Activity"));
+        BMap<BString, Object> model = ValueCreator.createMapValue();
+        model.put(WorkflowGraphs.NAME, StringUtils.fromString(name));
+        model.put(WorkflowGraphs.NODES, nodes);
+        return model;
+    }
+
+    private static BMap<BString, Object> node(String kind) {
+        BMap<BString, Object> node = ValueCreator.createMapValue();
+        node.put(WorkflowGraphs.KIND, StringUtils.fromString(kind));
+        return node;
+    }
+
+    private static BString key(String value) {
+        return StringUtils.fromString(value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Tests the segments and the compaction of the parked state store.
+ *
+ * @since 0.1.0
+ */
+public class ParkedStateStoreTest {
+
+    // Each state takes its 8 byte header, its 1 byte id and its 10 bytes, so a segment holds 3 states
+    private static final int SEGMENT_SIZE = 64;
+
+    @Test
+    public void testTakeReturnsParkedState() throws IOException {
+        ParkedStateStore store = new ParkedStateStore(SEGMENT_SIZE, 0, null);
+        Assert.assertNull(store.park("a", state(1)));
+        Assert.assertNull(store.park("a", state(2)));
+
+        // A state parked again replaces the previous one
+        Assert.assertEquals(store.take("a"), state(2));
+        Assert.assertNull(store.take("a"));
+        Assert.assertNotNull(store.park("b", new byte[SEGMENT_SIZE]));
+    }
+
+    @Test
+    public void testSparseSegmentIsCompacted() throws IOException {
+        ParkedStateStore store = new ParkedStateStore(SEGMENT_SIZE, 0.5, null);
+        store.park("a", state(1));
+        store.park("b", state(2));
+        store.park("c", state(3));
+        store.park("d", state(4));
+        Assert.assertEquals(store.getSegmentCount(), 2);
+
+        // Once the first segment is less than half live, its remaining state moves to the current segment
+        store.take("a");
+        Assert.assertEquals(store.getRelocationCount(), 0);
+        store.take("b");
+        Assert.assertEquals(store.getRelocationCount(), 1);
+        Assert.assertEquals(store.take("c"), state(3));
+
+        // The compacted segment is reused instead of a new one being allocated
+        store.park("e", state(5));
+        store.park("f", state(6));
+        store.park("g", state(7));
+        Assert.assertEquals(store.getSegmentCount(), 2);
+        Assert.assertEquals(store.take("d"), state(4));
+        Assert.assertEquals(store.take("g"), state(7));
+    }
+
+    private static byte[] state(int value) {
+        byte[] state = new byte[10];
+        Arrays.fill(state, (byte) value);
+        return state;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexed execution graph of a workflow model.
+ * 
+ * Nodes, edges and edge conditions are identified by their ordinals, and the outgoing and
+ * incoming edges of each node are kept as adjacency arrays, so that the graph can be walked
+ * without any lookups by name. A graph is either built from a model with {@link Builder}, or
+ * restored from precompiled arrays with {@link #fromArrays}, which does no indexing at all.
+ *
+ * @since 0.1.0
+ */
+public final class WorkflowGraph {
+
+    public static final int NO_CONDITION = -1;
+
+    private final String[] nodeIds;
+    private final String[] nodeKinds;
+    private final int[] startNodes;
+    private final int[][] outgoingEdges;
+    private final int[][] incomingEdges;
+    private final int[] edgeStart;
+    private final int[] edgeEnd;
+    private final int[] edgeConditions;
+    private final String[] conditions;
+
+    private WorkflowGraph(String[] nodeIds, String[] nodeKinds, int[] startNodes, int[][] outgoingEdges,
+                          int[][] incomingEdges, int[] edgeStart, int[] edgeEnd, int[] edgeConditions,
+                          String[] conditions) {
+        this.nodeIds = nodeIds;
+        this.nodeKinds = nodeKinds;
+        this.startNodes = startNodes;
+        this.outgoingEdges = outgoingEdges;
+        this.incomingEdges = incomingEdges;
+        this.edgeStart = edgeStart;
+        this.edgeEnd = edgeEnd;
+        this.edgeConditions = edgeConditions;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Restore a graph from precompiled arrays, as emitted by the code generators.
+     * The arrays are used as is and are not validated.
+     *
+     * @param nodeIds node identifiers by node ordinal
+     * @param nodeKinds node kinds by node ordinal
+     * @param startNodes ordinals of the start event nodes
+     * @param outgoingEdges outgoing edge ordinals by node ordinal
+     * @param incomingEdges incoming edge ordinals by node ordinal
+     * @param edgeStart start node ordinal by edge ordinal
+     * @param edgeEnd end node ordinal by edge ordinal
+     * @param edgeConditions condition ordinal by edge ordinal, or {@link #NO_CONDITION}
+     * @param conditions condition names by condition ordinal
+     * @return the workflow graph
+     */
+    public static WorkflowGraph fromArrays(String[] nodeIds, String[] nodeKinds, int[] startNodes,
+                                           int[][] outgoingEdges, int[][] incomingEdges, int[] edgeStart,
+                                           int[] edgeEnd, int[] edgeConditions, String[] conditions) {
+        return new WorkflowGraph(nodeIds, nodeKinds, startNodes, outgoingEdges, incomingEdges, edgeStart, edgeEnd,
+                edgeConditions, conditions);
+    }
+
+    public int getNodeCount() {
+        return nodeIds.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeStart.length;
+    }
+
+    public int getConditionCount() {
+        return conditions.length;
+    }
+
+    public String getNodeId(int node) {
+        return nodeIds[node];
+    }
+
+    public String getNodeKind(int node) {
+        return nodeKinds[node];
+    }
+
+    public int[] getStartNodes() {
+        return startNodes;
+    }
+
+    public int[] getOutgoingEdges(int node) {
+        return outgoingEdges[node];
+    }
+
+    public int[] getIncomingEdges(int node) {
+        return incomingEdges[node];
+    }
+
+    public int getEdgeStart(int edge) {
+        return edgeStart[edge];
+    }
+
+    public int getEdgeEnd(int edge) {
+        return edgeEnd[edge];
+    }
+
+    public int getEdgeCondition(int edge) {
+        return edgeConditions[edge];
+    }
+
+    public String getCondition(int condition) {
+        return conditions[condition];
+    }
+
+    /**
+     * Get the ordinal of a node. This is a linear scan and is meant for tooling, not for execution.
+     *
+     * @param nodeId the node identifier
+     * @return the node ordinal, or -1 if there is no such node
+     */
+    public int indexOfNode(String nodeId) {
+        for (int i = 0; i < nodeIds.length; i++) {
+            if (nodeIds[i].equals(nodeId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builder that assigns ordinals and computes the adjacency arrays of a workflow graph.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> nodeOrdinals = new LinkedHashMap<>();
+        private final List<String> nodeKinds = new ArrayList<>();
+        private final List<String[]> edges = new ArrayList<>();
+
+        /**
+         * Add a node. Nodes get their ordinals in the order they are added.
+         *
+         * @param nodeId the node identifier
+         * @param kind the node kind, e.g. "Activity"
+         * @return this builder
+         */
+        public Builder addNode(String nodeId, String kind) {
+            if (nodeOrdinals.putIfAbsent(nodeId, nodeKinds.size()) != null) {
+                throw new IllegalArgumentException("Duplicate node: " + nodeId);
+            }
+            nodeKinds.add(kind);
+            return this;
+        }
+
+        /**
+         * Add an edge between two nodes that are added to this builder.
+         *
+         * @param startNodeId the start node identifier
+         * @param endNodeId the end node identifier
+         * @param condition the condition name, or null if the edge is unconditional
+         * @return this builder
+         */
+        public Builder addEdge(String startNodeId, String endNodeId, String condition) {
+            edges.add(new String[]{startNodeId, endNodeId, condition});
+            return this;
+        }
+
+        /**
+         * Build the indexed graph.
+         *
+         * @return the workflow graph
+         * @throws IllegalArgumentException if an edge refers to an unknown node
+         */
+        public WorkflowGraph build() {
+            int nodeCount = nodeKinds.size();
+            int edgeCount = edges.size();
+            int[] edgeStart = new int[edgeCount];
+            int[] edgeEnd = new int[edgeCount];
+            int[] edgeConditions = new int[edgeCount];
+            int[] outDegree = new int[nodeCount];
+            int[] inDegree = new int[nodeCount];
+            Map<String, Integer> conditionOrdinals = new HashMap<>();
+            List<String> conditions = new ArrayList<>();
+
+            for (int edge = 0; edge < edgeCount; edge++) {
+                String[] definition = edges.get(edge);
+                edgeStart[edge] = nodeOrdinal(definition[0]);
+                edgeEnd[edge] = nodeOrdinal(definition[1]);
+                String condition = definition[2];
+                if (condition == null || condition.isEmpty()) {
+                    edgeConditions[edge] = NO_CONDITION;
+                } else {
+                    edgeConditions[edge] = conditionOrdinals.computeIfAbsent(condition, name -> {
+                        conditions.add(name);
+                        return conditions.size() - 1;
+                    });
+                }
+                outDegree[edgeStart[edge]]++;
+                inDegree[edgeEnd[edge]]++;
+            }
+
+            int[][] outgoingEdges = new int[nodeCount][];
+            int[][] incomingEdges = new int[nodeCount][];
+            for (int node = 0; node < nodeCount; node++) {
+                outgoingEdges[node] = new int[outDegree[node]];
+                incomingEdges[node] = new int[inDegree[node]];
+            }
+            Arrays.fill(outDegree, 0);
+            Arrays.fill(inDegree, 0);
+            for (int edge = 0; edge < edgeCount; edge++) {
+                outgoingEdges[edgeStart[edge]][outDegree[edgeStart[edge]]++] = edge;
+                incomingEdges[edgeEnd[edge]][inDegree[edgeEnd[edge]]++] = edge;
+            }
+
+            List<Integer> startNodes = new ArrayList<>();
+            for (int node = 0; node < nodeCount; node++) {
+                if ("StartEvent".equals(nodeKinds.get(node))) {
+                    startNodes.add(node);
+                }
+            }
+
+            return new WorkflowGraph(nodeOrdinals.keySet().toArray(new String[0]), nodeKinds.toArray(new String[0]),
+                    startNodes.stream().mapToInt(Integer::intValue).toArray(), outgoingEdges, incomingEdges,
+                    edgeStart, edgeEnd, edgeConditions, conditions.toArray(new String[0]));
+        }
+
+        List<String> getNodeIds() {
+            return List.copyOf(nodeOrdinals.keySet());
+        }
+
+        String getNodeKind(int node) {
+            return nodeKinds.get(node);
+        }
+
+        boolean hasNode(String nodeId) {
+            return nodeOrdinals.containsKey(nodeId);
+        }
+
+        int getEdgeCount() {
+            return edges.size();
+        }
+
+        String[] getEdgeNodeIds(int edge) {
+            return new String[]{edges.get(edge)[0], edges.get(edge)[1]};
+        }
+
+        private int nodeOrdinal(String nodeId) {
+            Integer ordinal = nodeOrdinals.get(nodeId);
+            if (ordinal == null) {
+                throw new IllegalArgumentException("Edge refers to an unknown node: " + nodeId);
+            }
+            return ordinal;
+        }
+    }
+}
\ No newline at end of file
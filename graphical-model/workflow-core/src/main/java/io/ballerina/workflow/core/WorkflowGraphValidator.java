@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Structural validator for workflow graphs.
+ * 
+ * The same checks run in the compiler plugin at build time and in the native runtime for
+ * models that are validated explicitly, so both report the same problems.
+ *
+ * @since 0.1.0
+ */
+public final class WorkflowGraphValidator {
+
+    public static final Set<String> NODE_KINDS = Set.of("StartEvent", "Event", "Activity", "While", "ForEach");
+
+    private WorkflowGraphValidator() {
+    }
+
+    /**
+     * Validate the nodes and edges added to a graph builder.
+     *
+     * @param builder the graph builder holding the model nodes and edges
+     * @return the problems found, empty if the model is valid
+     */
+    public static List<Problem> validate(WorkflowGraph.Builder builder) {
+        List<Problem> problems = new ArrayList<>();
+        List<String> nodeIds = builder.getNodeIds();
+        if (nodeIds.isEmpty()) {
+            problems.add(new Problem(Code.EMPTY_MODEL, -1, -1, null));
+            return problems;
+        }
+
+        for (int node = 0; node < nodeIds.size(); node++) {
+            // Nodes without a kind have a null kind, which the immutable set cannot be queried with
+            String kind = builder.getNodeKind(node);
+            if (kind == null || !NODE_KINDS.contains(kind)) {
+                problems.add(new Problem(Code.UNKNOWN_NODE_KIND, node, -1, kind));
+            }
+        }
+
+        boolean edgesResolved = true;
+        for (int edge = 0; edge < builder.getEdgeCount(); edge++) {
+            for (String nodeId : builder.getEdgeNodeIds(edge)) {
+                if (nodeId == null || !builder.hasNode(nodeId)) {
+                    problems.add(new Problem(Code.UNKNOWN_EDGE_NODE, -1, edge, nodeId));
+                    edgesResolved = false;
+                }
+            }
+        }
+        if (!edgesResolved) {
+            return problems;
+        }
+
+        WorkflowGraph graph = builder.build();
+        if (graph.getStartNodes().length == 0) {
+            problems.add(new Problem(Code.NO_START_EVENT, -1, -1, null));
+        }
+        boolean[] reachable = findReachableNodes(graph);
+        for (int node = 0; node < reachable.length; node++) {
+            if (!reachable[node]) {
+                problems.add(new Problem(Code.UNREACHABLE_NODE, node, -1, graph.getNodeId(node)));
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Check whether any of the given problems is an error.
+     *
+     * @param problems the problems reported by {@link #validate}
+     * @return true if at least one problem is an error
+     */
+    public static boolean hasErrors(List<Problem> problems) {
+        return problems.stream().anyMatch(problem -> problem.code().isError());
+    }
+
+    private static boolean[] findReachableNodes(WorkflowGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        boolean[] reachable = new boolean[nodeCount];
+        int[] pending = new int[nodeCount];
+        int count = 0;
+
+        // Without start events, the nodes without incoming edges are the entry points
+        int[] roots = graph.getStartNodes();
+        if (roots.length == 0) {
+            List<Integer> entryNodes = new ArrayList<>();
+            for (int node = 0; node < nodeCount; node++) {
+                if (graph.getIncomingEdges(node).length == 0) {
+                    entryNodes.add(node);
+                }
+            }
+            roots = entryNodes.stream().mapToInt(Integer::intValue).toArray();
+        }
+        for (int node : roots) {
+            reachable[node] = true;
+            pending[count++] = node;
+        }
+        while (count > 0) {
+            int node = pending[--count];
+            for (int edge : graph.getOutgoingEdges(node)) {
+                int next = graph.getEdgeEnd(edge);
+                if (!reachable[next]) {
+                    reachable[next] = true;
+                    pending[count++] = next;
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Kinds of problems found in a workflow model.
+     */
+    public enum Code {
+        EMPTY_MODEL(true),
+        UNKNOWN_NODE_KIND(true),
+        UNKNOWN_EDGE_NODE(true),
+        NO_START_EVENT(false),
+        UNREACHABLE_NODE(false);
+
+        private final boolean error;
+
+        Code(boolean error) {
+            this.error = error;
+        }
+
+        public boolean isError() {
+            return error;
+        }
+    }
+
+    /**
+     * A problem found in a workflow model.
+     *
+     * @param code the kind of problem
+     * @param node the ordinal of the offending node, or -1
+     * @param edge the ordinal of the offending edge, or -1
+     * @param subject the offending value (node id or kind), or null, also for a node without a kind
+     */
+    public record Problem(Code code, int node, int edge, String subject) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.workflow.core;
+
+/**
+ * Writes a {@link WorkflowGraph} as a Ballerina {@code CompiledWorkflowGraph} record literal.
+ *
+ * @since 0.1.0
+ */
+public final class WorkflowGraphWriter {
+
+    private WorkflowGraphWriter() {
+    }
+
+    /**
+     * Write the graph as a record literal.
+     *
+     * @param graph the workflow graph
+     * @param indent the indentation of the line the literal starts on
+     * @return the record literal
+     */
+    public static String toRecordLiteral(WorkflowGraph graph, String indent) {
+        int nodeCount = graph.getNodeCount();
+        int edgeCount = graph.getEdgeCount();
+        String fieldIndent = indent + "    ";
+        StringBuilder code = new StringBuilder("{\n");
+
+        code.append(fieldIndent).append("nodeIds: [");
+        for (int node = 0; node < nodeCount; node++) {
+            code.append(node == 0 ? "" : ", ");
+            appendString(code, graph.getNodeId(node));
+        }
+        code.append("],\n").append(fieldIndent).append("nodeKinds: [");
+        for (int node = 0; node < nodeCount; node++) {
+            code.append(node == 0 ? "" : ", ");
+            appendString(code, graph.getNodeKind(node));
+        }
+        code.append("],\n").append(fieldIndent).append("startNodes: ");
+        appendInts(code, graph.getStartNodes());
+        code.append(",\n").append(fieldIndent).append("outgoingEdges: [");
+        for (int node = 0; node < nodeCount; node++) {
+            code.append(node == 0 ? "" : ", ");
+            appendInts(code, graph.getOutgoingEdges(node));
+        }
+        code.append("],\n").append(fieldIndent).append("incomingEdges: [");
+        for (int node = 0; node < nodeCount; node++) {
+            code.append(node == 0 ? "" : ", ");
+            appendInts(code, graph.getIncomingEdges(node));
+        }
+        int[] edgeStart = new int[edgeCount];
+        int[] edgeEnd = new int[edgeCount];
+        int[] edgeConditions = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeStart[edge] = graph.getEdgeStart(edge);
+            edgeEnd[edge] = graph.getEdgeEnd(edge);
+            edgeConditions[edge] = graph.getEdgeCondition(edge);
+        }
+        code.append("],\n").append(fieldIndent).append("edgeStart: ");
+        appendInts(code, edgeStart);
+        code.append(",\n").append(fieldIndent).append("edgeEnd: ");
+        appendInts(code, edgeEnd);
+        code.append(",\n").append(fieldIndent).append("edgeConditions: ");
+        appendInts(code, edgeConditions);
+        code.append(",\n").append(fieldIndent).append("conditions: [");
+        for (int condition = 0; condition < graph.getConditionCount(); condition++) {
+            code.append(condition == 0 ? "" : ", ");
+            appendString(code, graph.getCondition(condition));
+        }
+        code.append("]\n").append(indent).append("}");
+        return code.toString();
+    }
+
+    /**
+     * Append a value as a Ballerina string literal.
+     *
+     * @param code the code being written
+     * @param value the string value
+     */
+    public static void appendString(StringBuilder code, String value) {
+        code.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+    }
+
+    private static void appendInts(StringBuilder code, int[] values) {
+        code.append("[");
+        for (int i = 0; i < values.length; i++) {
+            code.append(i == 0 ? "" : ", ").append(values[i]);
+        }
+        code.append("]");
+    }
+}
\ No newline at end of file
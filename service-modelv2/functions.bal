@@ -2,7 +2,7 @@ import ballerina/io;
 import workflow.workflow;
 
 @workflow:Activity
-public function processPayment(string orderId) returns boolean|error {
+public isolated function processPayment(string orderId) returns boolean|error {
     io:println("ACTIVITY: Processing payment for " + orderId);
     // ... logic to call a real payment gateway ...
     if orderId == "fail-me" {
@@ -13,7 +13,7 @@ public function processPayment(string orderId) returns boolean|error {
 }
 
 @workflow:Activity
-public function shipOrder(string orderId) returns error? {
+public isolated function shipOrder(string orderId) returns error? {
     io:println("ACTIVITY: Shipping order " + orderId);
     // ... logic to call a shipping API ...
     io:println("ACTIVITY: Shipping complete");
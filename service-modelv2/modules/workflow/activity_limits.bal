@@ -0,0 +1,62 @@
+import ballerina/jballerina.java;
+
+# Limits of the calls of an activity
+#
+# + maxConcurrency - maximum number of calls of the activity running at the same time, unlimited if not set
+# + rate - maximum number of calls of the activity started per second, unlimited if not set
+# + burst - number of calls that can start at once after the activity was idle, the rate rounded up by default
+public type ActivityLimits record {|
+    int maxConcurrency?;
+    decimal rate?;
+    int burst?;
+|};
+
+# Metrics of the calls of a limited activity
+#
+# + active - number of calls of the activity running
+# + waiting - number of calls of the activity parked until they are within the limits
+# + throttled - number of calls of the activity that were parked
+public type ActivityLimitMetrics record {|
+    int active;
+    int waiting;
+    int throttled;
+|};
+
+# Applies the concurrency and rate limits of the activities of an engine.
+#
+# A call over the limits of its activity is parked without holding a thread or its instance, and resumes when
+# a running call of the activity completes or the rate allows it, so a slow downstream system only slows down
+# the calls of its own activities.
+isolated class ActivityLimiter {
+
+    isolated function init(map<ActivityLimits> limits) {
+        initActivityLimiter(self, limits.cloneReadOnly());
+    }
+
+    # Run an activity within the limits of its name.
+    isolated function run(string name, isolated function () returns anydata|error activity) returns anydata|error {
+        acquireActivity(self, name);
+        anydata|error result = activity();
+        releaseActivity(self, name);
+        return result;
+    }
+
+    isolated function getMetrics() returns map<ActivityLimitMetrics> = @java:Method {
+        'class: "io.ballerina.workflow.engine.ActivityLimits"
+    } external;
+}
+
+isolated function initActivityLimiter(ActivityLimiter limiter, readonly & map<ActivityLimits> limits) = @java:Method {
+    'class: "io.ballerina.workflow.engine.ActivityLimits",
+    name: "init"
+} external;
+
+isolated function acquireActivity(ActivityLimiter limiter, string name) = @java:Method {
+    'class: "io.ballerina.workflow.engine.ActivityLimits",
+    name: "acquire"
+} external;
+
+isolated function releaseActivity(ActivityLimiter limiter, string name) = @java:Method {
+    'class: "io.ballerina.workflow.engine.ActivityLimits",
+    name: "release"
+} external;
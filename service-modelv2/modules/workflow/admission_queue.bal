@@ -0,0 +1,330 @@
+import ballerina/jballerina.java;
+import ballerina/log;
+import ballerina/time;
+
+# What a start does when the admission queue is full
+#
+# REJECT - fail immediately with an `AdmissionRejectedError`
+# WAIT - wait for space in the queue, up to the configured maximum wait
+public type BackpressurePolicy "REJECT"|"WAIT";
+
+# Name of the priority class instances are started in when no class is given
+public const DEFAULT_PRIORITY = "default";
+
+# Priority class of new workflow instances
+#
+# + name - name of the class, given when starting an instance
+# + weight - number of instances of the class taken in each round of a batch, relative to the other classes
+public type PriorityClass record {|
+    string name;
+    int weight = 1;
+|};
+
+# Configuration of the admission of new workflow instances
+#
+# + capacity - maximum number of new instances waiting to be persisted
+# + batchSize - maximum number of new instances persisted in one write
+# + policy - what a start does when the queue is full
+# + maxWait - maximum time in seconds a start waits for space with the `WAIT` policy
+# + priorityClasses - priority classes of new instances, the classes listed first are taken first in each round.
+# There must be at least one class, and each class must have a positive weight.
+public type AdmissionConfig record {|
+    int capacity = 10000;
+    int batchSize = 500;
+    BackpressurePolicy policy = "REJECT";
+    decimal maxWait = 5;
+    PriorityClass[] priorityClasses = [{name: DEFAULT_PRIORITY}];
+|};
+
+# Metrics of the admission of the instances of a priority class
+#
+# + queued - number of instances of the class waiting to be admitted
+# + admitted - number of instances of the class admitted
+# + totalWait - total time in seconds admitted instances waited in the queue
+# + maxWait - longest time in seconds an admitted instance waited in the queue
+# + missedDeadlines - number of instances admitted after their deadline
+public type PriorityClassMetrics record {|
+    int queued;
+    int admitted;
+    decimal totalWait;
+    decimal maxWait;
+    int missedDeadlines;
+|};
+
+# Error returned when a new instance is not admitted because the admission queue is full
+public type AdmissionRejectedError distinct error;
+
+# Instance waiting in the admission queue
+#
+# + instance - the new instance
+# + deadline - deadline of the instance in seconds since the epoch, nil if it has none
+# + sequence - admission order of the instance, to keep instances without deadlines in FIFO order
+# + queuedAt - monotonic time in seconds the instance was queued at
+type QueuedInstance record {|
+    readonly & InstanceState instance;
+    decimal? deadline;
+    int sequence;
+    decimal queuedAt;
+|};
+
+# Bounded queue of new workflow instances.
+#
+# Starts return as soon as the instance is queued. Queued instances are put in the instance cache as changed before
+# the start returns, so they can be looked up, signalled and stopped before they are persisted. A single drain strand,
+# started when the queue becomes non-empty, persists the queued instances in batches with one write per batch, marks
+# them clean in the cache and starts running them. Instances of a batch that could not be persisted stay changed in
+# the cache, so they are written back later. Starts waiting for space with the `WAIT` policy are woken by the drain
+# as soon as it takes a batch.
+#
+# Each priority class has its own queue, ordered by earliest deadline first and then by admission order. A batch
+# is filled in rounds that take up to the weight of each class from its queue, so urgent classes are not stuck
+# behind a backlog of bulk instances, while bulk instances still get a share of every batch and do not starve.
+isolated class AdmissionQueue {
+
+    private final PersistentProvider provider;
+    private final InstanceCache instances;
+    private final ReplayEngine replay;
+    private final int capacity;
+    private final int batchSize;
+    private final BackpressurePolicy policy;
+    private final decimal maxWait;
+    private final readonly & PriorityClass[] classes;
+    // Binary heap of the queued instances of each priority class
+    private final map<QueuedInstance[]> queues = {};
+    private final map<PriorityClassMetrics> metrics = {};
+    private int count = 0;
+    private int sequence = 0;
+    private boolean draining = false;
+
+    isolated function init(PersistentProvider provider, InstanceCache instances, ReplayEngine replay,
+            AdmissionConfig config) returns error? {
+        // A round of a batch takes the weight of each class, so a round taking nothing would never end
+        if config.priorityClasses.length() == 0 {
+            return error("The admission configuration needs at least one priority class");
+        }
+        foreach PriorityClass priorityClass in config.priorityClasses {
+            if priorityClass.weight <= 0 {
+                return error(string `The weight of priority class '${priorityClass.name}' must be positive`);
+            }
+        }
+        self.provider = provider;
+        self.instances = instances;
+        self.replay = replay;
+        self.capacity = config.capacity;
+        self.batchSize = config.batchSize;
+        self.policy = config.policy;
+        self.maxWait = config.maxWait;
+        self.classes = config.priorityClasses.cloneReadOnly();
+        initAdmissionWaits(self);
+        lock {
+            foreach PriorityClass priorityClass in self.classes {
+                self.queues[priorityClass.name] = [];
+                self.metrics[priorityClass.name] = {queued: 0, admitted: 0, totalWait: 0, maxWait: 0,
+                    missedDeadlines: 0};
+            }
+        }
+    }
+
+    # Queue a new instance, applying the backpressure policy when the queue is full.
+    isolated function admit(readonly & InstanceState instance) returns error? {
+        lock {
+            if !self.queues.hasKey(instance.priority) {
+                return error("Unknown workflow priority class: " + instance.priority);
+            }
+        }
+        time:Utc? deadline = instance.deadline;
+        decimal? deadlineSeconds = deadline is () ? () : <decimal>deadline[0] + deadline[1];
+        decimal waitUntil = time:monotonicNow() + self.maxWait;
+        while true {
+            boolean admitted;
+            boolean startDrain = false;
+            int spaceVersion;
+            lock {
+                // Read before the queue is checked, so space freed after the check wakes the wait below
+                spaceVersion = getAdmissionSpaceVersion(self);
+                admitted = self.count < self.capacity;
+                if admitted {
+                    QueuedInstance[] queue = self.queues.get(instance.priority);
+                    pushQueued(queue, {instance, deadline: deadlineSeconds, sequence: self.sequence,
+                        queuedAt: time:monotonicNow()});
+                    self.sequence += 1;
+                    self.count += 1;
+                    PriorityClassMetrics metrics = self.metrics.get(instance.priority);
+                    metrics.queued += 1;
+                    if !self.draining {
+                        self.draining = true;
+                        startDrain = true;
+                    }
+                }
+            }
+            if admitted {
+                (readonly & InstanceState)|error added = self.instances.add(instance, true);
+                if added is error {
+                    log:printError("Failed to write back evicted workflow instances", 'error = added);
+                }
+                if startDrain {
+                    _ = start self.drain();
+                }
+                return;
+            }
+            decimal remaining = waitUntil - time:monotonicNow();
+            if self.policy == "REJECT" || remaining <= 0
+                    || !awaitAdmissionSpace(self, spaceVersion, <int>decimal:ceiling(remaining * 1000)) {
+                return error AdmissionRejectedError("Workflow admission queue is full");
+            }
+        }
+    }
+
+    # Get the number of queued instances.
+    isolated function size() returns int {
+        lock {
+            return self.count;
+        }
+    }
+
+    # Get the admission metrics of each priority class.
+    isolated function getMetrics() returns map<PriorityClassMetrics> {
+        lock {
+            return self.metrics.cloneReadOnly();
+        }
+    }
+
+    isolated function drain() {
+        while true {
+            readonly & (readonly & InstanceState)[] batch;
+            lock {
+                (readonly & InstanceState)[] taken = [];
+                decimal now = time:monotonicNow();
+                time:Utc utcNow = time:utcNow();
+                decimal epochNow = <decimal>utcNow[0] + utcNow[1];
+                while taken.length() < self.batchSize && self.count > 0 {
+                    foreach PriorityClass priorityClass in self.classes {
+                        QueuedInstance[] queue = self.queues.get(priorityClass.name);
+                        PriorityClassMetrics metrics = self.metrics.get(priorityClass.name);
+                        int quota = priorityClass.weight;
+                        while quota > 0 && queue.length() > 0 && taken.length() < self.batchSize {
+                            QueuedInstance next = popQueued(queue);
+                            decimal wait = now - next.queuedAt;
+                            metrics.queued -= 1;
+                            metrics.admitted += 1;
+                            metrics.totalWait += wait;
+                            metrics.maxWait = decimal:max(metrics.maxWait, wait);
+                            decimal? deadline = next.deadline;
+                            if deadline is decimal && deadline < epochNow {
+                                metrics.missedDeadlines += 1;
+                            }
+                            taken.push(next.instance);
+                            self.count -= 1;
+                            quota -= 1;
+                        }
+                    }
+                }
+                if taken.length() == 0 {
+                    self.draining = false;
+                }
+                batch = taken.cloneReadOnly();
+            }
+            if batch.length() == 0 {
+                return;
+            }
+            signalAdmissionSpace(self);
+
+            error? persisted = self.provider.saveAll(batch);
+            if persisted is error {
+                log:printError("Failed to persist new workflow instances, keeping them in memory", 'error = persisted,
+                        count = batch.length());
+            }
+            foreach readonly & InstanceState instance in batch {
+                if persisted !is error {
+                    self.instances.saved(instance);
+                }
+                // An instance stopped while it was queued is not run
+                (readonly & InstanceState)|error? current = self.instances.get(instance.id);
+                if current is error {
+                    log:printError("Failed to look up new workflow instance", 'error = current);
+                } else if current !is () && current.status != "STOPPED" {
+                    _ = start self.replay.run(instance);
+                }
+            }
+        }
+    }
+}
+
+# Whether a queued instance is admitted before another one: earliest deadline first, instances without
+# a deadline after those with one, and in admission order otherwise.
+isolated function isBefore(QueuedInstance a, QueuedInstance b) returns boolean {
+    decimal? first = a.deadline;
+    decimal? second = b.deadline;
+    if first is decimal && second is decimal && first != second {
+        return first < second;
+    }
+    if first is decimal && second is () {
+        return true;
+    }
+    if first is () && second is decimal {
+        return false;
+    }
+    return a.sequence < b.sequence;
+}
+
+isolated function pushQueued(QueuedInstance[] heap, QueuedInstance queued) {
+    heap.push(queued);
+    int child = heap.length() - 1;
+    while child > 0 {
+        int parent = (child - 1) / 2;
+        if !isBefore(heap[child], heap[parent]) {
+            break;
+        }
+        QueuedInstance swapped = heap[parent];
+        heap[parent] = heap[child];
+        heap[child] = swapped;
+        child = parent;
+    }
+}
+
+isolated function popQueued(QueuedInstance[] heap) returns QueuedInstance {
+    QueuedInstance first = heap[0];
+    QueuedInstance last = heap.pop();
+    int size = heap.length();
+    if size == 0 {
+        return first;
+    }
+    heap[0] = last;
+    int parent = 0;
+    while true {
+        int earliest = parent;
+        foreach int child in [2 * parent + 1, 2 * parent + 2] {
+            if child < size && isBefore(heap[child], heap[earliest]) {
+                earliest = child;
+            }
+        }
+        if earliest == parent {
+            return first;
+        }
+        QueuedInstance swapped = heap[parent];
+        heap[parent] = heap[earliest];
+        heap[earliest] = swapped;
+        parent = earliest;
+    }
+}
+
+
+isolated function initAdmissionWaits(AdmissionQueue queue) = @java:Method {
+    'class: "io.ballerina.workflow.engine.AdmissionWaits",
+    name: "init"
+} external;
+
+isolated function getAdmissionSpaceVersion(AdmissionQueue queue) returns int = @java:Method {
+    'class: "io.ballerina.workflow.engine.AdmissionWaits",
+    name: "getVersion"
+} external;
+
+isolated function signalAdmissionSpace(AdmissionQueue queue) = @java:Method {
+    'class: "io.ballerina.workflow.engine.AdmissionWaits",
+    name: "signal"
+} external;
+
+isolated function awaitAdmissionSpace(AdmissionQueue queue, int version, int millis) returns boolean = @java:Method {
+    'class: "io.ballerina.workflow.engine.AdmissionWaits",
+    name: "await"
+} external;
@@ -0,0 +1,173 @@
+import ballerina/time;
+
+# Filter selecting workflow instances for bulk operations
+#
+# + workflowName - name of the workflow service of the instances
+# + statuses - statuses of the instances, any status if not set
+# + correlationPrefix - prefixes the string values of correlation keys of the instances start with
+# + searchAttributes - values of search attributes of the instances
+# + startedAfter - earliest start time of the instances, inclusive
+# + startedBefore - latest start time of the instances, exclusive
+# + closedAfter - earliest time the instances completed, failed or were stopped at, inclusive
+# + closedBefore - latest time the instances completed, failed or were stopped at, exclusive
+public type InstanceFilter record {|
+    string workflowName?;
+    InstanceStatus[] statuses?;
+    map<string> correlationPrefix?;
+    map<SearchAttribute> searchAttributes?;
+    time:Utc startedAfter?;
+    time:Utc startedBefore?;
+    time:Utc closedAfter?;
+    time:Utc closedBefore?;
+|};
+
+# Options of bulk operations
+#
+# + pageSize - number of instances read from persistence at a time
+# + parallelism - maximum number of instances operated on at the same time
+public type BulkOptions record {|
+    int pageSize = 1000;
+    int parallelism = 32;
+|};
+
+# Outcome of a bulk stop
+#
+# + matched - number of instances matching the filter
+# + stopped - number of instances stopped
+# + failures - error messages of the instances that could not be stopped, by instance id
+public type BulkStopResult record {|
+    int matched;
+    int stopped;
+    map<string> failures;
+|};
+
+# Result of a query on one of the instances of a bulk query
+#
+# + id - identifier of the instance
+# + result - result of the query, if it succeeded
+# + failure - error message of the query, if it failed
+public type BulkQueryResult record {|
+    string id;
+    anydata result = ();
+    string failure?;
+|};
+
+# Check whether an instance matches a filter, for providers that filter instances in memory
+#
+# + instance - state of the instance
+# + filter - the filter
+# + return - true if the instance matches all the criteria of the filter
+public isolated function matchesFilter(InstanceState instance, InstanceFilter filter) returns boolean {
+    string? workflowName = filter?.workflowName;
+    if workflowName is string && instance.workflowName != workflowName {
+        return false;
+    }
+    InstanceStatus[]? statuses = filter?.statuses;
+    if statuses is InstanceStatus[] && statuses.indexOf(instance.status) is () {
+        return false;
+    }
+    foreach [string, string] [key, prefix] in (filter?.correlationPrefix ?: {}).entries() {
+        anydata value = instance.correlation[key];
+        if value is () || !value.toString().startsWith(prefix) {
+            return false;
+        }
+    }
+    foreach [string, SearchAttribute] [name, value] in (filter?.searchAttributes ?: {}).entries() {
+        if instance.searchAttributes[name] != value {
+            return false;
+        }
+    }
+    return isInRange(instance.startedAt, filter?.startedAfter, filter?.startedBefore)
+        && isInRange(instance.closedAt, filter?.closedAfter, filter?.closedBefore);
+}
+
+isolated function isInRange(time:Utc? utc, time:Utc? after, time:Utc? before) returns boolean {
+    if after is () && before is () {
+        return true;
+    }
+    if utc is () {
+        return false;
+    }
+    return (after is () || time:utcDiffSeconds(utc, after) >= 0d)
+        && (before is () || time:utcDiffSeconds(utc, before) < 0d);
+}
+
+# Runs a query on the instances matching a filter, page by page, as a stream.
+#
+# Each page of matching instances is read from persistence when the previous one is consumed, and its queries
+# run with bounded parallelism, so memory stays bounded by the page size whatever the number of instances.
+isolated class BulkQueryIterator {
+
+    private final WorkflowEngineClient 'client;
+    private final PersistentProvider provider;
+    private final readonly & InstanceFilter filter;
+    private final string queryName;
+    private final readonly & anydata[] args;
+    private final readonly & BulkOptions options;
+    private string? after = ();
+    private boolean done = false;
+    private BulkQueryResult[] results = [];
+
+    isolated function init(WorkflowEngineClient 'client, PersistentProvider provider, readonly & InstanceFilter filter,
+            string queryName, readonly & anydata[] args, readonly & BulkOptions options) {
+        self.'client = 'client;
+        self.provider = provider;
+        self.filter = filter;
+        self.queryName = queryName;
+        self.args = args;
+        self.options = options;
+    }
+
+    public isolated function next() returns record {|BulkQueryResult value;|}|error? {
+        while true {
+            string? after;
+            lock {
+                if self.results.length() > 0 {
+                    return {value: self.results.shift().cloneReadOnly()};
+                }
+                if self.done {
+                    return;
+                }
+                after = self.after;
+            }
+            readonly & string[] ids = check scanPage(self.provider, self.filter, after, self.options.pageSize);
+            readonly & BulkQueryResult[] page = forEachBounded(ids, self.options.parallelism,
+                    isolated function(string id) returns anydata|error {
+                        return self.'client.query({id}, self.queryName, ...self.args);
+                    }).cloneReadOnly();
+            lock {
+                self.results.push(...page);
+                self.after = ids.length() > 0 ? ids[ids.length() - 1] : ();
+                self.done = ids.length() < self.options.pageSize;
+            }
+        }
+    }
+}
+
+# Read the ids of a page of the instances matching a filter.
+isolated function scanPage(PersistentProvider provider, readonly & InstanceFilter filter, string? after, int limit)
+        returns readonly & string[]|error {
+    InstanceState[] instances = check provider.scan(filter, after, limit);
+    return instances.'map(instance => instance.id).cloneReadOnly();
+}
+
+# Run an operation on instances, at most `parallelism` at a time, in the order of the ids.
+isolated function forEachBounded(readonly & string[] ids, int parallelism,
+        isolated function (string id) returns anydata|error operation) returns BulkQueryResult[] {
+    BulkQueryResult[] outcomes = [];
+    int chunk = parallelism > 0 ? parallelism : 1;
+    int i = 0;
+    while i < ids.length() {
+        readonly & string[] batch = ids.slice(i, int:min(i + chunk, ids.length())).cloneReadOnly();
+        future<anydata|error>[] running = [];
+        foreach string id in batch {
+            running.push(start operation(id));
+        }
+        foreach int j in 0 ..< batch.length() {
+            anydata|error result = wait running[j];
+            outcomes.push(result is error ? {id: batch[j], failure: result.message()} : {id: batch[j], result});
+        }
+        i += chunk;
+    }
+    return outcomes;
+}
@@ -0,0 +1,308 @@
+# Configuration of the in-memory instance cache
+#
+# + capacity - maximum number of instances kept in memory
+# + maxWeight - maximum total weight of the instances kept in memory
+# + weigher - function that estimates the weight of an instance, by default the length of its state
+public type InstanceCacheConfig record {|
+    int capacity = 10000;
+    int maxWeight = 256 * 1024 * 1024;
+    InstanceWeigher weigher = defaultWeigher;
+|};
+
+# Function that estimates the weight of an instance
+public type InstanceWeigher isolated function (InstanceState instance) returns int;
+
+# Metrics of the in-memory instance cache
+#
+# + hits - number of lookups served from memory
+# + misses - number of lookups that went to persistence
+# + evictions - number of instances evicted from memory
+# + size - number of instances in memory
+# + weight - total weight of the instances in memory
+# + writes - number of instance states written to the provider
+public type InstanceCacheMetrics record {|
+    int hits;
+    int misses;
+    int evictions;
+    int size;
+    int weight;
+    int writes;
+|};
+
+isolated function defaultWeigher(InstanceState instance) returns int {
+    return instance.state.toString().length();
+}
+
+type CacheEntry record {|
+    readonly & InstanceState instance;
+    int weight;
+    boolean dirty;
+    string? previous;
+    string? next;
+|};
+
+type WriteBack record {|
+    readonly & InstanceState instance;
+    boolean failed;
+|};
+
+# Size and weight bounded LRU cache of workflow instances.
+#
+# Instances changed in memory are written back to the persistent provider when they are evicted,
+# and instances that are not in memory are rehydrated from the provider on lookup. Evicted instances
+# stay visible until their write back completes, so a lookup never reads a stale state from the provider.
+# A failed write back is kept and retried with the next eviction or flush, and an instance is only marked
+# clean once its state is saved.
+isolated class InstanceCache {
+
+    private final PersistentProvider provider;
+    private final int capacity;
+    private final int maxWeight;
+    private final InstanceWeigher weigher;
+    private final map<CacheEntry> entries = {};
+    private final map<WriteBack> writingBack = {};
+    // Most and least recently used instances
+    private string? head = ();
+    private string? tail = ();
+    private int weight = 0;
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+    private int writes = 0;
+
+    isolated function init(PersistentProvider provider, InstanceCacheConfig config) {
+        self.provider = provider;
+        self.capacity = config.capacity;
+        self.maxWeight = config.maxWeight;
+        self.weigher = config.weigher;
+    }
+
+    # Get an instance, rehydrating it from the provider if it is not in memory.
+    isolated function get(string id) returns (readonly & InstanceState)|error? {
+        lock {
+            CacheEntry? entry = self.entries[id];
+            if entry !is () {
+                self.hits += 1;
+                self.unlink(id, entry);
+                self.linkFirst(id, entry);
+                return entry.instance;
+            }
+            self.misses += 1;
+        }
+        (readonly & InstanceState)? instance;
+        lock {
+            WriteBack? writeBack = self.writingBack[id];
+            instance = writeBack is () ? () : writeBack.instance;
+        }
+        if instance is () {
+            InstanceState? loaded = check self.provider.load(id);
+            if loaded is () {
+                return ();
+            }
+            return self.add(loaded.cloneReadOnly(), false);
+        }
+        // The write back may still be in flight or have failed, so the instance stays dirty
+        readonly & InstanceState current = check self.add(instance, false);
+        lock {
+            CacheEntry? entry = self.entries[id];
+            if entry !is () && entry.instance === current {
+                entry.dirty = true;
+            }
+        }
+        return current;
+    }
+
+    # Put an instance that changed in memory, it is written back to the provider when evicted.
+    isolated function put(readonly & InstanceState instance) returns error? {
+        _ = check self.add(instance, true);
+    }
+
+    # Put an instance that changed in memory and write it to the provider before returning. The write also
+    # persists the changes made in memory since the previous write of the instance.
+    isolated function persist(readonly & InstanceState instance) returns error? {
+        _ = check self.add(instance, true);
+        check self.provider.save(instance);
+        self.saved(instance);
+    }
+
+    # Remove an instance from memory without writing it back.
+    isolated function remove(string id) {
+        lock {
+            CacheEntry? entry = self.entries.removeIfHasKey(id);
+            if entry !is () {
+                self.unlink(id, entry);
+                self.weight -= entry.weight;
+            }
+        }
+    }
+
+    # Write all instances changed in memory, and the failed write backs, to the provider. Every instance is
+    # attempted, and the first error is returned.
+    isolated function flush() returns error? {
+        readonly & (readonly & InstanceState)[] dirty;
+        lock {
+            (readonly & InstanceState)[] changed = [];
+            foreach CacheEntry entry in self.entries {
+                if entry.dirty {
+                    changed.push(entry.instance);
+                }
+            }
+            foreach WriteBack writeBack in self.writingBack {
+                if writeBack.failed {
+                    writeBack.failed = false;
+                    changed.push(writeBack.instance);
+                }
+            }
+            dirty = changed.cloneReadOnly();
+        }
+        error? firstError = ();
+        foreach readonly & InstanceState instance in dirty {
+            error? result = self.provider.save(instance);
+            if result is error {
+                self.writeFailed(instance);
+                firstError = firstError ?: result;
+            } else {
+                self.saved(instance);
+            }
+        }
+        return firstError;
+    }
+
+    # Mark an instance clean once its state is saved, unless it changed again in the meantime.
+    isolated function saved(readonly & InstanceState instance) {
+        lock {
+            self.writes += 1;
+            CacheEntry? entry = self.entries[instance.id];
+            if entry !is () && entry.instance === instance {
+                entry.dirty = false;
+            }
+            WriteBack? writeBack = self.writingBack[instance.id];
+            if writeBack !is () && writeBack.instance === instance {
+                _ = self.writingBack.remove(instance.id);
+            }
+        }
+    }
+
+    # Keep a write back that failed, so it is retried.
+    isolated function writeFailed(readonly & InstanceState instance) {
+        lock {
+            WriteBack? writeBack = self.writingBack[instance.id];
+            if writeBack !is () && writeBack.instance === instance {
+                writeBack.failed = true;
+            }
+        }
+    }
+
+    isolated function getMetrics() returns InstanceCacheMetrics {
+        lock {
+            return {
+                hits: self.hits,
+                misses: self.misses,
+                evictions: self.evictions,
+                size: self.entries.length(),
+                weight: self.weight,
+                writes: self.writes
+            };
+        }
+    }
+
+    isolated function add(readonly & InstanceState instance, boolean dirty) returns (readonly & InstanceState)|error {
+        int weight = self.weigher(instance);
+        readonly & InstanceState current = instance;
+        readonly & (readonly & InstanceState)[] evicted;
+        lock {
+            (readonly & InstanceState)[] writeBack = [];
+            CacheEntry? existing = self.entries[instance.id];
+            if existing !is () {
+                self.unlink(instance.id, existing);
+                if dirty {
+                    self.weight += weight - existing.weight;
+                    existing.instance = instance;
+                    existing.weight = weight;
+                    existing.dirty = true;
+                } else {
+                    // A concurrent lookup loaded the instance already, keep the state in memory
+                    current = existing.instance;
+                }
+                self.linkFirst(instance.id, existing);
+            } else {
+                CacheEntry entry = {instance, weight, dirty, previous: (), next: ()};
+                self.entries[instance.id] = entry;
+                self.weight += weight;
+                self.linkFirst(instance.id, entry);
+            }
+
+            // Evict the least recently used instances, always keeping the one just added
+            string? victimId = self.tail;
+            while victimId is string && victimId != instance.id
+                    && (self.entries.length() > self.capacity || self.weight > self.maxWeight) {
+                CacheEntry victim = self.entries.remove(victimId);
+                self.unlink(victimId, victim);
+                self.weight -= victim.weight;
+                self.evictions += 1;
+                if victim.dirty {
+                    self.writingBack[victimId] = {instance: victim.instance, failed: false};
+                    writeBack.push(victim.instance);
+                }
+                victimId = self.tail;
+            }
+            // Retry the write backs that failed earlier along with the new ones
+            if writeBack.length() > 0 {
+                foreach WriteBack pending in self.writingBack {
+                    if pending.failed {
+                        pending.failed = false;
+                        writeBack.push(pending.instance);
+                    }
+                }
+            }
+            evicted = writeBack.cloneReadOnly();
+        }
+
+        error? firstError = ();
+        foreach readonly & InstanceState victim in evicted {
+            error? result = self.provider.save(victim);
+            if result is error {
+                self.writeFailed(victim);
+                firstError = firstError ?: result;
+            } else {
+                self.saved(victim);
+            }
+        }
+        check firstError;
+        return current;
+    }
+
+    isolated function linkFirst(string id, CacheEntry entry) {
+        lock {
+            entry.previous = ();
+            entry.next = self.head;
+            string? head = self.head;
+            if head is string {
+                self.entries.get(head).previous = id;
+            }
+            self.head = id;
+            if self.tail is () {
+                self.tail = id;
+            }
+        }
+    }
+
+    isolated function unlink(string id, CacheEntry entry) {
+        lock {
+            string? previous = entry.previous;
+            string? next = entry.next;
+            if previous is string {
+                self.entries.get(previous).next = next;
+            } else if self.head == id {
+                self.head = next;
+            }
+            if next is string {
+                self.entries.get(next).previous = previous;
+            } else if self.tail == id {
+                self.tail = previous;
+            }
+            entry.previous = ();
+            entry.next = ();
+        }
+    }
+}
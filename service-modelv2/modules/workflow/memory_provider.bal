@@ -0,0 +1,442 @@
+import ballerina/time;
+
+# Sorted strings kept in blocks of bounded size, so inserting or removing a string only shifts the strings of one
+# block, and the blocks themselves when a block is split or emptied. Blocks are never empty.
+type SortedBlocks string[][];
+
+// Number of strings a block is split at
+const MAX_BLOCK_SIZE = 512;
+
+// Length of the time prefix of the keys of a time index: seconds, a dot, nanoseconds and a slash
+const TIME_KEY_LENGTH = 23;
+
+# Position of a string in sorted blocks
+#
+# + block - index of the block
+# + position - position in the block
+# + rank - position among all the strings of the blocks
+type BlockPosition record {|
+    int block;
+    int position;
+    int rank;
+|};
+
+# Range of a time index
+#
+# + index - the time index
+# + from - position of the first key of the range
+# + to - rank of the end of the range, exclusive
+type TimeRange record {|
+    SortedBlocks index;
+    BlockPosition 'from;
+    int to;
+|};
+
+# Embedded provider keeping the instance states in memory, with secondary indexes.
+#
+# Instances are indexed by workflow name, status, search attribute values, start time and close time. Each index
+# keeps sorted blocks of instance ids, or of time keys for the time indexes, so a scan starts from the smallest set
+# of candidates selected by the filter and pages through it with a binary search, instead of checking every
+# instance. The candidates are chosen by their number before any of them is read: the lists of several statuses
+# are merged in id order from the page cursor, and a time range is located with binary searches. Only a scan
+# without any indexed criteria goes through all the instances, from the sorted ids of all the instances. Scans
+# read the indexes in place under the lock of the provider and only copy the page they return.
+public isolated class InMemoryProvider {
+    *PersistentProvider;
+
+    private final map<readonly & InstanceState> states = {};
+    // Sorted ids of all the instances
+    private final SortedBlocks ids = [];
+    // Sorted ids of the instances by indexed value
+    private final map<SortedBlocks> byWorkflow = {};
+    private final map<SortedBlocks> byStatus = {};
+    private final map<SortedBlocks> byAttribute = {};
+    // Time keys of the instances, which sort by time and then by id
+    private final SortedBlocks byStartTime = [];
+    private final SortedBlocks byCloseTime = [];
+
+    public isolated function save(InstanceState instance) returns error? {
+        readonly & InstanceState state = instance.cloneReadOnly();
+        lock {
+            (readonly & InstanceState)? previous = self.states[state.id];
+            self.states[state.id] = state;
+            self.reindex(previous, state);
+        }
+    }
+
+    public isolated function saveAll(InstanceState[] instances) returns error? {
+        foreach InstanceState instance in instances {
+            check self.save(instance);
+        }
+    }
+
+    public isolated function load(string id) returns InstanceState|error? {
+        lock {
+            return self.states[id];
+        }
+    }
+
+    public isolated function delete(string id) returns error? {
+        lock {
+            (readonly & InstanceState)? previous = self.states.removeIfHasKey(id);
+            self.reindex(previous, ());
+        }
+    }
+
+    public isolated function scan(InstanceFilter filter, string? after, int 'limit) returns InstanceState[]|error {
+        readonly & InstanceFilter scanFilter = filter.cloneReadOnly();
+        lock {
+            SortedBlocks[] lists = [self.ids];
+            int size = blocksSize(self.ids);
+            foreach SortedBlocks[] candidates in idCandidates(scanFilter, self.byWorkflow, self.byStatus,
+                    self.byAttribute) {
+                int candidatesSize = 0;
+                foreach SortedBlocks list in candidates {
+                    candidatesSize += blocksSize(list);
+                }
+                if candidatesSize < size {
+                    lists = candidates;
+                    size = candidatesSize;
+                }
+            }
+            TimeRange? range = ();
+            foreach TimeRange candidates in timeCandidates(scanFilter, self.byStartTime, self.byCloseTime) {
+                if candidates.to - candidates.'from.rank < size {
+                    range = candidates;
+                    size = candidates.to - candidates.'from.rank;
+                }
+            }
+            InstanceState[] page = range is () ? scanLists(lists, after, 'limit, self.states, scanFilter)
+                : scanTimeRange(range, after, 'limit, self.states, scanFilter);
+            return page.cloneReadOnly();
+        }
+    }
+
+    # Update the indexes of an instance whose state changed, only touching the indexes whose value changed.
+    isolated function reindex((readonly & InstanceState)? previous, (readonly & InstanceState)? current) {
+        lock {
+            string id = current is () ? (previous is () ? "" : previous.id) : current.id;
+            if previous is () && current !is () {
+                insertBlocks(self.ids, id);
+            } else if previous !is () && current is () {
+                removeBlocks(self.ids, id);
+            }
+            if previous?.workflowName != current?.workflowName {
+                removeFromIndex(self.byWorkflow, previous?.workflowName, id);
+                addToIndex(self.byWorkflow, current?.workflowName, id);
+            }
+            if previous?.status != current?.status {
+                removeFromIndex(self.byStatus, previous?.status, id);
+                addToIndex(self.byStatus, current?.status, id);
+            }
+            map<SearchAttribute> previousAttributes = previous is () ? {} : previous.searchAttributes;
+            map<SearchAttribute> currentAttributes = current is () ? {} : current.searchAttributes;
+            if previousAttributes != currentAttributes {
+                foreach [string, SearchAttribute] [name, value] in previousAttributes.entries() {
+                    removeFromIndex(self.byAttribute, attributeKey(name, value), id);
+                }
+                foreach [string, SearchAttribute] [name, value] in currentAttributes.entries() {
+                    addToIndex(self.byAttribute, attributeKey(name, value), id);
+                }
+            }
+            time:Utc? previousStart = previous is () ? () : previous.startedAt;
+            time:Utc? currentStart = current is () ? () : current.startedAt;
+            if previousStart != currentStart {
+                updateTimeIndex(self.byStartTime, previousStart, currentStart, id);
+            }
+            time:Utc? previousClose = previous is () ? () : previous.closedAt;
+            time:Utc? currentClose = current is () ? () : current.closedAt;
+            if previousClose != currentClose {
+                updateTimeIndex(self.byCloseTime, previousClose, currentClose, id);
+            }
+        }
+    }
+}
+
+# Get the candidates of the id criteria of a filter. The ids of each criterion are the union of one or more
+# disjoint indexes, which are returned in place and must only be read while the lock of the provider is held.
+isolated function idCandidates(readonly & InstanceFilter filter, map<SortedBlocks> byWorkflow,
+        map<SortedBlocks> byStatus, map<SortedBlocks> byAttribute) returns SortedBlocks[][] {
+    SortedBlocks[][] candidates = [];
+    string? workflowName = filter?.workflowName;
+    if workflowName is string {
+        candidates.push([byWorkflow[workflowName] ?: []]);
+    }
+    InstanceStatus[]? statuses = filter?.statuses;
+    if statuses is InstanceStatus[] {
+        // An instance has one status, so the lists of distinct statuses do not overlap
+        SortedBlocks[] lists = [];
+        foreach int i in 0 ..< statuses.length() {
+            if statuses.indexOf(statuses[i]) == i {
+                lists.push(byStatus[statuses[i]] ?: []);
+            }
+        }
+        candidates.push(lists);
+    }
+    foreach [string, SearchAttribute] [name, value] in (filter?.searchAttributes ?: {}).entries() {
+        candidates.push([byAttribute[attributeKey(name, value)] ?: []]);
+    }
+    return candidates;
+}
+
+# Get the candidates of the time criteria of a filter, located in the time indexes with binary searches
+isolated function timeCandidates(readonly & InstanceFilter filter, SortedBlocks byStartTime,
+        SortedBlocks byCloseTime) returns TimeRange[] {
+    TimeRange[] ranges = [];
+    time:Utc? startedAfter = filter?.startedAfter;
+    time:Utc? startedBefore = filter?.startedBefore;
+    if startedAfter is time:Utc || startedBefore is time:Utc {
+        ranges.push(timeRange(byStartTime, startedAfter, startedBefore));
+    }
+    time:Utc? closedAfter = filter?.closedAfter;
+    time:Utc? closedBefore = filter?.closedBefore;
+    if closedAfter is time:Utc || closedBefore is time:Utc {
+        ranges.push(timeRange(byCloseTime, closedAfter, closedBefore));
+    }
+    return ranges;
+}
+
+# Get a page of the matching instances of disjoint sorted lists of ids, merging the lists from the page cursor
+isolated function scanLists(SortedBlocks[] lists, string? after, int 'limit, map<readonly & InstanceState> states,
+        readonly & InstanceFilter filter) returns InstanceState[] {
+    BlockPosition[] cursors = [];
+    foreach SortedBlocks list in lists {
+        cursors.push(positionAfter(list, after));
+    }
+    InstanceState[] page = [];
+    while page.length() < 'limit {
+        int next = -1;
+        string? smallest = ();
+        foreach int i in 0 ..< lists.length() {
+            string? id = stringAt(lists[i], cursors[i]);
+            if id is string && (smallest is () || id < smallest) {
+                next = i;
+                smallest = id;
+            }
+        }
+        if smallest is () {
+            break;
+        }
+        advance(lists[next], cursors[next]);
+        (readonly & InstanceState)? state = states[smallest];
+        if state !is () && matchesFilter(state, filter) {
+            page.push(state);
+        }
+    }
+    return page;
+}
+
+# Get a page of the matching instances of a time range. The range is in time order, so only the ids of the
+# matching instances after the page cursor are collected, and sorted to return the page in id order.
+isolated function scanTimeRange(TimeRange range, string? after, int 'limit, map<readonly & InstanceState> states,
+        readonly & InstanceFilter filter) returns InstanceState[] {
+    string[] matching = [];
+    BlockPosition cursor = range.'from.clone();
+    while cursor.rank < range.to {
+        string id = (<string>stringAt(range.index, cursor)).substring(TIME_KEY_LENGTH);
+        advance(range.index, cursor);
+        (readonly & InstanceState)? state = states[id];
+        if (after is () || id > after) && state !is () && matchesFilter(state, filter) {
+            matching.push(id);
+        }
+    }
+    InstanceState[] page = [];
+    foreach string id in matching.sort() {
+        if page.length() == 'limit {
+            break;
+        }
+        page.push(states.get(id));
+    }
+    return page;
+}
+
+isolated function attributeKey(string name, SearchAttribute value) returns string {
+    // The value is in its literal form, so string and numeric values do not collide
+    return name + "=" + value.toBalString();
+}
+
+isolated function addToIndex(map<SortedBlocks> index, string? key, string id) {
+    if key is () {
+        return;
+    }
+    SortedBlocks? ids = index[key];
+    if ids is () {
+        index[key] = [[id]];
+        return;
+    }
+    insertBlocks(ids, id);
+}
+
+isolated function removeFromIndex(map<SortedBlocks> index, string? key, string id) {
+    if key is () {
+        return;
+    }
+    SortedBlocks? ids = index[key];
+    if ids is () {
+        return;
+    }
+    removeBlocks(ids, id);
+    if ids.length() == 0 {
+        _ = index.remove(key);
+    }
+}
+
+# Get the number of strings in sorted blocks
+isolated function blocksSize(SortedBlocks blocks) returns int {
+    int size = 0;
+    foreach string[] block in blocks {
+        size += block.length();
+    }
+    return size;
+}
+
+# Get the index of the first block whose last string is not less than the given one, the number of blocks if none
+isolated function blockIndex(SortedBlocks blocks, string value) returns int {
+    int low = 0;
+    int high = blocks.length();
+    while low < high {
+        int middle = (low + high) / 2;
+        string[] block = blocks[middle];
+        if block[block.length() - 1] < value {
+            low = middle + 1;
+        } else {
+            high = middle;
+        }
+    }
+    return low;
+}
+
+# Get the position of the first string greater than the given one in sorted blocks, the first string if the given
+# one is nil
+isolated function positionAfter(SortedBlocks blocks, string? after) returns BlockPosition {
+    if after is () {
+        return {block: 0, position: 0, rank: 0};
+    }
+    int block = blockIndex(blocks, after);
+    if block < blocks.length() && blocks[block][blocks[block].length() - 1] == after {
+        block += 1;
+    }
+    int rank = 0;
+    foreach int i in 0 ..< block {
+        rank += blocks[i].length();
+    }
+    int position = block < blocks.length() ? indexAfter(blocks[block], after) : 0;
+    return {block, position, rank: rank + position};
+}
+
+# Get the string at a position of sorted blocks, nil past the last string
+isolated function stringAt(SortedBlocks blocks, BlockPosition cursor) returns string? {
+    return cursor.block < blocks.length() ? blocks[cursor.block][cursor.position] : ();
+}
+
+# Move a position of sorted blocks to the next string
+isolated function advance(SortedBlocks blocks, BlockPosition cursor) {
+    cursor.position += 1;
+    cursor.rank += 1;
+    if cursor.position == blocks[cursor.block].length() {
+        cursor.block += 1;
+        cursor.position = 0;
+    }
+}
+
+# Insert a string in sorted blocks, unless it is already there, splitting its block once it is full
+isolated function insertBlocks(SortedBlocks blocks, string value) {
+    if blocks.length() == 0 {
+        blocks.push([value]);
+        return;
+    }
+    // A string greater than all the others goes to the last block
+    int index = int:min(blockIndex(blocks, value), blocks.length() - 1);
+    string[] block = blocks[index];
+    insertSorted(block, value);
+    if block.length() > MAX_BLOCK_SIZE {
+        int half = block.length() / 2;
+        string[] upper = block.slice(half);
+        block.setLength(half);
+        blocks.push(upper);
+        int i = blocks.length() - 1;
+        while i > index + 1 {
+            blocks[i] = blocks[i - 1];
+            i -= 1;
+        }
+        blocks[index + 1] = upper;
+    }
+}
+
+# Remove a string from sorted blocks, if it is there, dropping its block once it is empty
+isolated function removeBlocks(SortedBlocks blocks, string value) {
+    int index = blockIndex(blocks, value);
+    if index == blocks.length() {
+        return;
+    }
+    string[] block = blocks[index];
+    removeSorted(block, value);
+    if block.length() == 0 {
+        _ = blocks.remove(index);
+    }
+}
+
+# Insert an id in sorted ids, unless it is already there
+isolated function insertSorted(string[] ids, string id) {
+    int position = indexAfter(ids, id);
+    if position > 0 && ids[position - 1] == id {
+        return;
+    }
+    ids.push(id);
+    int i = ids.length() - 1;
+    while i > position {
+        ids[i] = ids[i - 1];
+        i -= 1;
+    }
+    ids[position] = id;
+}
+
+# Remove an id from sorted ids, if it is there
+isolated function removeSorted(string[] ids, string id) {
+    int position = indexAfter(ids, id) - 1;
+    if position < 0 || ids[position] != id {
+        return;
+    }
+    _ = ids.remove(position);
+}
+
+# Get the position of the first id greater than the given one in sorted ids, 0 if the given id is nil.
+isolated function indexAfter(string[] ids, string? after) returns int {
+    if after is () {
+        return 0;
+    }
+    int low = 0;
+    int high = ids.length();
+    while low < high {
+        int middle = (low + high) / 2;
+        if ids[middle] <= after {
+            low = middle + 1;
+        } else {
+            high = middle;
+        }
+    }
+    return low;
+}
+
+# Get the key of an instance in a time index. Keys sort by time and then by instance id, for times after the epoch.
+isolated function timeKey(time:Utc utc, string id) returns string {
+    int nanos = <int>(utc[1] * 1000000000d).floor();
+    return utc[0].toString().padZero(12) + "." + nanos.toString().padZero(9) + "/" + id;
+}
+
+isolated function updateTimeIndex(SortedBlocks index, time:Utc? previous, time:Utc? current, string id) {
+    if previous is time:Utc {
+        removeBlocks(index, timeKey(previous, id));
+    }
+    if current is time:Utc {
+        insertBlocks(index, timeKey(current, id));
+    }
+}
+
+# Get the range of a time index between two times. The keys of the times have an empty id, which sorts before
+# the keys of all the instances with the same time.
+isolated function timeRange(SortedBlocks index, time:Utc? after, time:Utc? before) returns TimeRange {
+    BlockPosition 'from = positionAfter(index, after is () ? () : timeKey(after, ""));
+    int to = before is () ? blocksSize(index) : positionAfter(index, timeKey(before, "")).rank;
+    return {index, 'from, to};
+}
@@ -0,0 +1,386 @@
+import ballerina/jballerina.java;
+import ballerina/random;
+import ballerina/time;
+
+# Recorded result of an activity call
+#
+# + sequence - position of the call among the activity calls of the invocation that made it
+# + handler - index in the handlers of the instance of the signal or update that made the call, -1 for the start
+# method
+# + name - name of the activity
+# + attempt - attempt of the activity call the record is for, starting at 1
+# + result - result of the activity, if it succeeded
+# + failure - error message of the activity, if it failed
+# + failureType - name of the error type of the activity, if it failed, so the failure is retried the same way when
+# it is replayed
+public type ActivityRecord record {|
+    int sequence;
+    int handler = -1;
+    string name;
+    int attempt = 1;
+    anydata result = ();
+    string failure?;
+    string failureType?;
+|};
+
+# Recorded invocation of a signal or update of an instance
+#
+# + position - number of activity calls of the start method recorded when the signal or update ran
+# + method - name of the remote method
+# + args - arguments of the method
+public type HandlerRecord record {|
+    int position;
+    string method;
+    anydata[] args = [];
+|};
+
+# Retry policy of an activity
+#
+# + maxAttempts - maximum number of attempts of a call, including the first one
+# + initialInterval - delay in seconds before the first retry
+# + backoffCoefficient - factor the delay is multiplied by after each retry
+# + maxInterval - maximum delay in seconds between two attempts
+# + jitter - fraction of the delay it is randomly shortened or lengthened by, so that the retries of many
+# instances failing together are spread out
+# + nonRetryableErrors - names of the error types that fail the call without retrying it
+public type RetryPolicy record {|
+    int maxAttempts = 3;
+    decimal initialInterval = 1;
+    decimal backoffCoefficient = 2;
+    decimal maxInterval = 100;
+    decimal jitter = 0.2;
+    string[] nonRetryableErrors = [];
+|};
+
+# Error returned when a replayed instance calls different activities than the ones recorded
+public type NonDeterminismError distinct error;
+
+# Error returned when an instance calls an activity, awaits or sleeps after it was stopped or closed
+public type InstanceStoppedError distinct error;
+
+# Detail of a replayed activity failure
+#
+# + errorType - name of the error type of the original failure
+public type ReplayedFailureDetail record {|
+    string errorType;
+|};
+
+# Failure of an activity call returned from the history of a replayed instance, in place of the original error
+public type ReplayedActivityError distinct error<ReplayedFailureDetail>;
+
+# Call an activity of the current workflow instance
+#
+# The first time an instance makes its n-th activity call, the activity runs and its result is recorded.
+# When the instance is replayed, for example after it was recovered from persistence, the n-th call returns
+# the recorded result without running the activity again. Outside of workflow methods the activity just runs.
+#
+# Each result is written to persistence before the call returns, except for the results of local activities,
+# which are kept in memory and written with the next result of a regular activity, or when the instance is
+# written back. Short idempotent activities, such as validations, can be local: if the instance is lost before
+# their results are written, they just run again when it is replayed.
+#
+# A failed call is retried according to the retry policy of the activity in the engine. Each attempt is recorded,
+# and the delays between attempts are durable sleeps, so a retrying instance holds no thread while it waits and
+# resumes its retries where they were if it is recovered from persistence.
+#
+# An activity is not run for an instance that was stopped or closed while the method was suspended.
+#
+# + name - The name of the activity
+# + activity - The function running the activity
+# + return - The result of the activity, or an `InstanceStoppedError` if the instance was stopped or closed
+public isolated function callActivity(string name, isolated function () returns anydata|error activity)
+        returns anydata|error {
+    ReplayEngine? replay = currentReplayEngine();
+    string? instanceId = currentInstanceId();
+    if replay is () || instanceId is () {
+        return activity();
+    }
+    return replay.callWithRetry(instanceId, name, activity);
+}
+
+# Set search attributes of the current workflow instance
+#
+# The attributes are merged into the attributes already set and written to persistence, where they are indexed,
+# so instances can be searched by them, for example by the stage of a business process the instance is in.
+#
+# + attributes - The attributes to set
+# + return - An error if the attributes cannot be written, or if the current strand does not run a workflow method
+public isolated function setSearchAttributes(map<SearchAttribute> attributes) returns error? {
+    ReplayEngine? replay = currentReplayEngine();
+    string? instanceId = currentInstanceId();
+    if replay is () || instanceId is () {
+        return error("Search attributes can only be set in workflow methods");
+    }
+    return replay.setSearchAttributes(instanceId, attributes.cloneReadOnly());
+}
+
+# Runs workflow instances, fast-forwarding through their recorded activity results.
+#
+# Instances are looked up through the instance cache, so the activity history of a recently used instance is
+# already in memory when it resumes, and only instances evicted from memory are loaded from persistence.
+isolated class ReplayEngine {
+
+    private final string nodeId;
+    private final InstanceCache instances;
+    private final ActivityLimiter limiter;
+    private final readonly & map<RetryPolicy> retryPolicies;
+    private final readonly & string[] localActivities;
+
+    isolated function init(string nodeId, InstanceCache instances, ActivityLimiter limiter,
+            map<RetryPolicy> retryPolicies, string[] localActivities) {
+        self.nodeId = nodeId;
+        self.instances = instances;
+        self.limiter = limiter;
+        self.retryPolicies = retryPolicies.cloneReadOnly();
+        self.localActivities = localActivities.cloneReadOnly();
+    }
+
+    # Run the start method of an instance from the beginning, replaying the activities it already called.
+    #
+    # The method runs on a new value of the workflow service, so the state fields of the instance are rebuilt
+    # from its history only, and not from the state left by an earlier run. The recorded signals and updates are
+    # applied again when the start method reaches the activity call or the await they ran before.
+    isolated function run(readonly & InstanceState instance) returns anydata|error {
+        check resetInstanceValue(self.nodeId, instance.id, instance.workflowName);
+        // The start method does not go through the mailbox, so signals and updates run while it is suspended
+        anydata|error result = invokeDirectOnInstance(self.nodeId, instance.id, instance.workflowName,
+                instance.startMethod, instance.args, true);
+
+        (readonly & InstanceState)? current = check self.instances.get(instance.id);
+        if current !is () && current.status != "STOPPED" {
+            InstanceState completed = copyInstance(current);
+            completed.closedAt = time:utcNow();
+            if result is error {
+                completed.status = "FAILED";
+                completed.result = result.message();
+            } else {
+                completed.status = "COMPLETED";
+                completed.result = result;
+            }
+            check self.instances.put(completed.cloneReadOnly());
+        }
+        releaseInstanceValue(self.nodeId, instance.id, instance.workflowName);
+        return result;
+    }
+
+    # Call an activity, retrying it with backoff while it fails with a retryable error.
+    isolated function callWithRetry(string instanceId, string name,
+            isolated function () returns anydata|error activity) returns anydata|error {
+        RetryPolicy? policy = self.retryPolicies[name];
+        int attempt = 1;
+        while true {
+            anydata|error result = self.callActivity(instanceId, name, activity, attempt);
+            if result !is error || result is NonDeterminismError || policy is () || attempt >= policy.maxAttempts
+                    || !isRetryable(result, policy.nonRetryableErrors) {
+                return result;
+            }
+            // The wake up time is recorded, so the random jitter of a replayed delay is not recomputed
+            check sleepFor(retryDelay(policy, attempt));
+            attempt += 1;
+        }
+    }
+
+    # Check that an instance was not stopped or closed
+    isolated function checkOpen(string instanceId) returns error? {
+        (readonly & InstanceState)? instance = check self.instances.get(instanceId);
+        if instance is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+        check checkOpen(instance);
+    }
+
+    isolated function setSearchAttributes(string instanceId, readonly & map<SearchAttribute> attributes)
+            returns error? {
+        (readonly & InstanceState)? instance = check self.instances.get(instanceId);
+        if instance is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+        InstanceState updated = copyInstance(instance);
+        map<SearchAttribute> merged = instance.searchAttributes.clone();
+        foreach [string, SearchAttribute] [name, value] in attributes.entries() {
+            merged[name] = value;
+        }
+        updated.searchAttributes = merged;
+        check self.instances.persist(updated.cloneReadOnly());
+    }
+
+    # Record a signal or update of an instance before it runs, so it is applied again when the instance is replayed.
+    # InstanceActors calls this with the lock of the instance held.
+    #
+    # + return - index of the signal or update in the handlers of the instance
+    isolated function recordHandler(string instanceId, string method, readonly & anydata[] args) returns int|error {
+        (readonly & InstanceState)? instance = check self.instances.get(instanceId);
+        if instance is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+        int position = 0;
+        foreach ActivityRecord recorded in instance.activities {
+            if recorded.handler == -1 {
+                position += 1;
+            }
+        }
+        InstanceState updated = copyInstance(instance);
+        updated.handlers = [...instance.handlers, {position, method, args}];
+        check self.instances.persist(updated.cloneReadOnly());
+        return instance.handlers.length();
+    }
+
+    # Apply the recorded signals and updates of an instance that ran before the given number of activity calls of
+    # its start method, and were not applied yet on the service value the start method runs on.
+    #
+    # + return - whether any signal or update was applied
+    isolated function replayHandlers(string instanceId, int position) returns boolean|error {
+        (readonly & InstanceState)? instance = check self.instances.get(instanceId);
+        if instance is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+        boolean applied = false;
+        // Signals and updates that ran live on the value are marked applied, so they are skipped
+        int index = getPendingHandler();
+        while index < instance.handlers.length() && instance.handlers[index].position <= position {
+            HandlerRecord handler = instance.handlers[index];
+            // An update returning an error is still applied, only a replay diverging from the history fails
+            anydata|error result = replayHandler(index, handler.method, handler.args);
+            if result is NonDeterminismError {
+                return result;
+            }
+            applied = true;
+            index = getPendingHandler();
+        }
+        return applied;
+    }
+
+    isolated function callActivity(string instanceId, string name, isolated function () returns anydata|error activity,
+            int attempt = 1) returns anydata|error {
+        int[]? call = nextActivityCall();
+        if call is () {
+            return error(string `Activity '${name}' can only be called by the start method, signals and updates`);
+        }
+        int handler = call[0];
+        int sequence = call[1];
+        if handler == -1 {
+            _ = check self.replayHandlers(instanceId, sequence);
+        }
+        (readonly & InstanceState)? instance = check self.instances.get(instanceId);
+        if instance is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+
+        ActivityRecord? recorded = findActivity(instance.activities, handler, sequence);
+        if recorded is ActivityRecord {
+            if recorded.name != name {
+                return error NonDeterminismError(string `Activity call ${sequence} of instance ${instanceId} is '${
+                        name}', but '${recorded.name}' was recorded`);
+            }
+            string? failure = recorded.failure;
+            return failure is string ? error ReplayedActivityError(failure, errorType = recorded.failureType ?: "")
+                : recorded.result;
+        }
+        check checkOpen(instance);
+
+        anydata|error result = self.limiter.run(name, activity);
+        ActivityRecord newRecord = result is error
+            ? {sequence, handler, name, attempt, failure: result.message(), failureType: getErrorTypeName(result)}
+            : {sequence, handler, name, attempt, result};
+        // A call parked by the activity limits releases the instance, so signals and updates may have recorded
+        // their invocations and activity calls in the meantime
+        (readonly & InstanceState)? current = check self.instances.get(instanceId);
+        if current is () {
+            return error("No workflow instance found: " + instanceId);
+        }
+        InstanceState updated = copyInstance(current);
+        updated.activities = [...current.activities, newRecord];
+        if self.localActivities.indexOf(name) is int {
+            check self.instances.put(updated.cloneReadOnly());
+        } else {
+            check self.instances.persist(updated.cloneReadOnly());
+        }
+        return result;
+    }
+}
+
+# Check that an instance was not stopped or closed, for example while its method was suspended
+isolated function checkOpen(readonly & InstanceState instance) returns InstanceStoppedError? {
+    if instance.status is "STOPPED"|"COMPLETED"|"FAILED" {
+        return error InstanceStoppedError(string `Workflow instance ${instance.id} is ${instance.status}`);
+    }
+}
+
+# Find the recorded activity call with the given number in the start method or in a signal or update
+isolated function findActivity(readonly & ActivityRecord[] activities, int handler, int sequence)
+        returns ActivityRecord? {
+    // Without signals or updates calling activities, the n-th call of the start method is the n-th record
+    if sequence < activities.length() && activities[sequence].handler == handler
+            && activities[sequence].sequence == sequence {
+        return activities[sequence];
+    }
+    foreach ActivityRecord recorded in activities {
+        if recorded.handler == handler && recorded.sequence == sequence {
+            return recorded;
+        }
+    }
+    return ();
+}
+
+# Apply the recorded signals and updates of the current instance that ran before the point its start method reached,
+# when the start method is replayed. This is done before the start method suspends, so it does not wait for a
+# change that was already made.
+#
+# + return - whether any signal or update was applied
+isolated function replayPendingHandlers() returns boolean|error {
+    ReplayEngine? replay = currentReplayEngine();
+    string? instanceId = currentInstanceId();
+    int? position = getActivityPosition();
+    if replay is () || instanceId is () || position is () {
+        return false;
+    }
+    return replay.replayHandlers(instanceId, position);
+}
+
+# Delay before the next attempt of an activity: exponential backoff from the initial interval, capped at the
+# maximum interval, with random jitter.
+isolated function retryDelay(RetryPolicy policy, int attempt) returns decimal {
+    decimal delay = policy.initialInterval;
+    foreach int _ in 1 ..< attempt {
+        delay = decimal:min(delay * policy.backoffCoefficient, policy.maxInterval);
+    }
+    decimal spread = delay * policy.jitter * (<decimal>random:createDecimal() * 2 - 1);
+    return decimal:max(0, delay + spread);
+}
+
+# Check whether an activity error can be retried, that is whether its type is not one of the non-retryable error types
+# of the retry policy. A replayed failure is matched by the type of the original error.
+isolated function isRetryable(error 'error, readonly & string[] nonRetryableErrors) returns boolean {
+    string errorType = 'error is ReplayedActivityError ? 'error.detail().errorType : getErrorTypeName('error);
+    return nonRetryableErrors.indexOf(errorType) is ();
+}
+
+isolated function getErrorTypeName(error 'error) returns string = @java:Method {
+    'class: "io.ballerina.workflow.engine.ActivityRetries"
+} external;
+
+isolated function currentInstanceId() returns string? = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "currentInstance"
+} external;
+
+isolated function currentReplayEngine() returns ReplayEngine? = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors"
+} external;
+
+isolated function nextActivityCall() returns int[]? = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors"
+} external;
+
+isolated function getActivityPosition() returns int? = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors"
+} external;
+
+isolated function getPendingHandler() returns int = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors"
+} external;
+
+isolated function replayHandler(int handler, string method, readonly & anydata[] args) returns anydata|error
+        = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors"
+} external;
@@ -0,0 +1,223 @@
+import ballerina/jballerina.java;
+import ballerina/lang.runtime;
+import ballerina/log;
+import ballerina/time;
+
+# Store archiving the states of closed workflow instances before they are purged from persistence
+public type ArchiveStore isolated object {
+
+    # Append the states of instances to the archive, durably, before returning
+    public isolated function append(InstanceState[] instances) returns error?;
+};
+
+# Archive store writing compressed, append-only segment files
+#
+# Each batch of instances is appended to the current segment as a gzip member of newline delimited JSON states,
+# and a new segment is started once the current one reaches the segment size.
+public isolated class FileArchiveStore {
+    *ArchiveStore;
+
+    # Initialize the archive store
+    #
+    # + directory - directory of the segment files, created if it does not exist
+    # + segmentSize - size in bytes after which a new segment is started
+    # + return - an error if the directory cannot be created
+    public isolated function init(string directory, int segmentSize = 64 * 1024 * 1024) returns error? {
+        check initArchiveSegments(self, directory, segmentSize);
+    }
+
+    public isolated function append(InstanceState[] instances) returns error? {
+        string[] records = from InstanceState instance in instances select instance.toJsonString();
+        return appendArchiveSegment(self, string:'join("\n", ...records) + "\n");
+    }
+}
+
+# Configuration of the retention of closed workflow instances
+#
+# + ttl - time in seconds closed instances are kept in persistence after they closed
+# + interval - time in seconds between two runs of the retention job
+# + batchSize - number of instances archived and purged at a time
+# + batchDelay - time in seconds the job waits between two batches, so it does not compete with live traffic
+# + archive - store closed instances are archived to before they are purged, they are only purged if not set
+public type RetentionConfig record {|
+    decimal ttl = 7 * 24 * 3600;
+    decimal interval = 60;
+    int batchSize = 100;
+    decimal batchDelay = 0.1;
+    ArchiveStore archive?;
+|};
+
+# Metrics of the retention of closed workflow instances
+#
+# + archived - number of instances archived
+# + purged - number of instances purged from persistence
+# + runs - number of completed runs of the retention job
+public type RetentionMetrics record {|
+    int archived;
+    int purged;
+    int runs;
+|};
+
+# Background job moving closed instances out of persistence once their TTL expired.
+#
+# Each run finds the expired instances through the close time and status indexes of the provider, appends them to
+# the archive and then deletes them from persistence and memory, one throttled batch at a time. A batch is only
+# purged once it is in the archive, so a failure leaves the instances in persistence for the next run. Instances
+# archived by a run whose purge failed are not archived again by the next runs of the job, but may be if the engine
+# restarts before they are purged.
+#
+# Each start of the job begins a new generation of its loop, and a loop stops at its next batch or run once it is
+# not the current generation, so stopping and starting the job again never leaves two loops running.
+isolated class RetentionJob {
+
+    private final PersistentProvider provider;
+    private final InstanceCache instances;
+    private final decimal ttl;
+    private final decimal interval;
+    private final int batchSize;
+    private final decimal batchDelay;
+    private final ArchiveStore? archive;
+    private boolean running = false;
+    private int generation = 0;
+    // Ids of the instances archived but not purged yet
+    private final map<boolean> archivedIds = {};
+    private int archived = 0;
+    private int purged = 0;
+    private int runs = 0;
+
+    isolated function init(PersistentProvider provider, InstanceCache instances, RetentionConfig config) {
+        self.provider = provider;
+        self.instances = instances;
+        self.ttl = config.ttl;
+        self.interval = config.interval;
+        self.batchSize = config.batchSize;
+        self.batchDelay = config.batchDelay;
+        self.archive = config?.archive;
+    }
+
+    isolated function 'start() {
+        int generation;
+        lock {
+            if self.running {
+                return;
+            }
+            self.running = true;
+            self.generation += 1;
+            generation = self.generation;
+        }
+        _ = start self.run(generation);
+    }
+
+    isolated function stop() {
+        lock {
+            self.running = false;
+        }
+    }
+
+    isolated function getMetrics() returns RetentionMetrics {
+        lock {
+            return {archived: self.archived, purged: self.purged, runs: self.runs};
+        }
+    }
+
+    isolated function run(int generation) {
+        while self.isRunning(generation) {
+            error? result = self.purgeExpired(generation);
+            if result is error {
+                log:printError("Failed to archive expired workflow instances", 'error = result);
+            }
+            runtime:sleep(self.interval);
+        }
+    }
+
+    # Archive and purge the instances closed for longer than the TTL.
+    isolated function purgeExpired(int generation) returns error? {
+        readonly & InstanceFilter filter = {
+            statuses: ["COMPLETED", "FAILED", "STOPPED"],
+            closedBefore: time:utcAddSeconds(time:utcNow(), -self.ttl)
+        };
+        string? after = ();
+        while self.isRunning(generation) {
+            InstanceState[] batch = check self.provider.scan(filter, after, self.batchSize);
+            if batch.length() == 0 {
+                break;
+            }
+            ArchiveStore? archive = self.archive;
+            if archive !is () {
+                InstanceState[] unarchived = [];
+                foreach InstanceState instance in batch {
+                    if !self.isArchived(instance.id) {
+                        unarchived.push(instance);
+                    }
+                }
+                if unarchived.length() > 0 {
+                    check archive.append(unarchived);
+                    foreach InstanceState instance in unarchived {
+                        self.setArchived(instance.id, true);
+                    }
+                    lock {
+                        self.archived += unarchived.length();
+                    }
+                }
+            }
+            // Instances failing to be deleted stay archived, the others of the batch are still purged
+            error? failure = ();
+            foreach InstanceState instance in batch {
+                error? deleted = self.provider.delete(instance.id);
+                if deleted is error {
+                    failure = deleted;
+                    continue;
+                }
+                self.instances.remove(instance.id);
+                self.setArchived(instance.id, false);
+                lock {
+                    self.purged += 1;
+                }
+            }
+            if failure is error {
+                return failure;
+            }
+            if batch.length() < self.batchSize {
+                break;
+            }
+            after = batch[batch.length() - 1].id;
+            runtime:sleep(self.batchDelay);
+        }
+        lock {
+            self.runs += 1;
+        }
+    }
+
+    isolated function isRunning(int generation) returns boolean {
+        lock {
+            return self.running && self.generation == generation;
+        }
+    }
+
+    isolated function isArchived(string id) returns boolean {
+        lock {
+            return self.archivedIds.hasKey(id);
+        }
+    }
+
+    isolated function setArchived(string id, boolean archived) {
+        lock {
+            if archived {
+                self.archivedIds[id] = true;
+            } else {
+                _ = self.archivedIds.removeIfHasKey(id);
+            }
+        }
+    }
+}
+
+isolated function initArchiveSegments(FileArchiveStore archive, string directory, int segmentSize)
+        returns error? = @java:Method {
+    'class: "io.ballerina.workflow.engine.ArchiveSegments",
+    name: "init"
+} external;
+
+isolated function appendArchiveSegment(FileArchiveStore archive, string records) returns error? = @java:Method {
+    'class: "io.ballerina.workflow.engine.ArchiveSegments",
+    name: "append"
+} external;
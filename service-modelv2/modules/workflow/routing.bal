@@ -0,0 +1,185 @@
+import ballerina/time;
+import ballerina/uuid;
+
+# Kind of an operation on a workflow instance
+public type RequestKind "SIGNAL"|"UPDATE"|"QUERY"|"STOP";
+
+# Operation on a workflow instance, handled by the engine node owning the instance
+#
+# + kind - kind of the operation
+# + instanceId - identifier of the instance
+# + name - name of the signal, update or query method
+# + args - arguments of the method
+public type EngineRequest record {|
+    RequestKind kind;
+    string instanceId;
+    string name = "";
+    anydata[] args = [];
+|};
+
+# Handler of the operations forwarded to an engine node
+public type RequestHandler isolated object {
+    public isolated function handle(readonly & EngineRequest request) returns anydata|error;
+};
+
+# Transport forwarding operations between engine nodes
+public type Transport isolated object {
+
+    # Register the handler of a node
+    public isolated function register(string nodeId, RequestHandler handler);
+
+    # Unregister the handler of a node
+    public isolated function unregister(string nodeId);
+
+    # Forward an operation to a node, failing with a `NodeUnavailableError` if the node is gone
+    public isolated function forward(string nodeId, readonly & EngineRequest request) returns anydata|error;
+};
+
+# Directory of the engine nodes owning the workflow instances
+public type OwnershipDirectory isolated object {
+
+    # Get the node owning an instance, nil if no node owns it
+    public isolated function getOwner(string instanceId) returns string?|error;
+
+    # Make a node the owner of an instance
+    public isolated function claim(string instanceId, string nodeId) returns error?;
+
+    # Release all the instances owned by a node
+    public isolated function releaseAll(string nodeId) returns error?;
+};
+
+# Error returned when an operation is forwarded to a node that is gone
+public type NodeUnavailableError distinct error;
+
+# Configuration of the routing of instance operations between engine nodes
+#
+# + nodeId - identifier of this engine node
+# + directory - directory of the nodes owning the instances, operations are handled locally if not set
+# + transport - transport forwarding operations to the owning nodes, operations are handled locally if not set
+public type RoutingConfig record {|
+    string nodeId = uuid:createType4AsString();
+    OwnershipDirectory directory?;
+    Transport transport?;
+|};
+
+# Ownership directory kept in memory, shared by the engines of a process
+public isolated class LocalOwnershipDirectory {
+    *OwnershipDirectory;
+
+    private final map<string> owners = {};
+
+    public isolated function getOwner(string instanceId) returns string?|error {
+        lock {
+            return self.owners[instanceId];
+        }
+    }
+
+    public isolated function claim(string instanceId, string nodeId) returns error? {
+        lock {
+            self.owners[instanceId] = nodeId;
+        }
+    }
+
+    public isolated function releaseAll(string nodeId) returns error? {
+        lock {
+            foreach [string, string] [instanceId, owner] in self.owners.entries() {
+                if owner == nodeId {
+                    _ = self.owners.remove(instanceId);
+                }
+            }
+        }
+    }
+}
+
+# Transport calling the handlers of the engines of a process directly
+public isolated class LocalTransport {
+    *Transport;
+
+    private final map<RequestHandler> handlers = {};
+
+    public isolated function register(string nodeId, RequestHandler handler) {
+        lock {
+            self.handlers[nodeId] = handler;
+        }
+    }
+
+    public isolated function unregister(string nodeId) {
+        lock {
+            _ = self.handlers.removeIfHasKey(nodeId);
+        }
+    }
+
+    public isolated function forward(string nodeId, readonly & EngineRequest request) returns anydata|error {
+        RequestHandler? handler;
+        lock {
+            handler = self.handlers[nodeId];
+        }
+        if handler is () {
+            return error NodeUnavailableError("Workflow engine node is not available: " + nodeId);
+        }
+        return handler.handle(request);
+    }
+}
+
+# Handles the operations on the instances of an engine node.
+isolated class InstanceOperations {
+    *RequestHandler;
+
+    private final string nodeId;
+    private final InstanceCache instances;
+
+    isolated function init(string nodeId, InstanceCache instances) {
+        self.nodeId = nodeId;
+        self.instances = instances;
+    }
+
+    public isolated function handle(readonly & EngineRequest request) returns anydata|error {
+        readonly & InstanceState instance = check self.getInstance(request.instanceId);
+        match request.kind {
+            "SIGNAL" => {
+                _ = start invokeOnInstance(self.nodeId, instance.id, instance.workflowName, request.name,
+                        request.args);
+                return;
+            }
+            "UPDATE" => {
+                return invokeOnInstance(self.nodeId, instance.id, instance.workflowName, request.name, request.args);
+            }
+            "QUERY" => {
+                return invokeDirectOnInstance(self.nodeId, instance.id, instance.workflowName, request.name,
+                        request.args, false);
+            }
+        }
+        return self.stop(instance.id);
+    }
+
+    isolated function stop(string id) returns error? {
+        final string nodeId = self.nodeId;
+        final InstanceCache instances = self.instances;
+        anydata|error stopped = withInstanceLock(id, isolated function() returns anydata|error {
+            (readonly & InstanceState)? instance = check instances.get(id);
+            if instance is () {
+                return error("No workflow instance found: " + id);
+            }
+            InstanceState updated = copyInstance(instance);
+            updated.status = "STOPPED";
+            updated.closedAt = time:utcNow();
+            check instances.put(updated.cloneReadOnly());
+            releaseInstanceValue(nodeId, id, instance.workflowName);
+        });
+        if stopped is error {
+            return stopped;
+        }
+        // The suspended methods of the instance resume to find it stopped, instead of waiting for a change or a
+        // timer that will never come
+        interruptInstance(nodeId, id);
+    }
+
+    # Get the state of an instance, rehydrating it from persistence if it was evicted from memory
+    isolated function getInstance(string id) returns readonly & InstanceState|error {
+        (readonly & InstanceState)? instance = check self.instances.get(id);
+        if instance is () {
+            return error("No workflow instance found: " + id);
+        }
+        return instance;
+    }
+}
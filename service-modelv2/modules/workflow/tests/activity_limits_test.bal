@@ -0,0 +1,116 @@
+import ballerina/lang.runtime;
+import ballerina/time;
+import ballerina/test;
+
+isolated boolean gateOpen = false;
+
+isolated function setGate(boolean open) {
+    lock {
+        gateOpen = open;
+    }
+}
+
+# Activity holding its call until the gate is opened
+isolated function holdUntilOpen() returns anydata|error {
+    while true {
+        lock {
+            if gateOpen {
+                return 0;
+            }
+        }
+        runtime:sleep(0.01);
+    }
+}
+
+function waitUntil(function () returns boolean condition) returns error? {
+    foreach int _ in 0 ..< 500 {
+        if condition() {
+            return;
+        }
+        runtime:sleep(0.01);
+    }
+    return error("Timed out waiting for the condition");
+}
+
+isolated function getLimitMetrics(ActivityLimiter limiter, string name) returns ActivityLimitMetrics {
+    return limiter.getMetrics()[name] ?: {active: 0, waiting: 0, throttled: 0};
+}
+
+@test:Config {}
+function testParksCallsOverMaxConcurrency() returns error? {
+    setGate(false);
+    ActivityLimiter limiter = new ({held: {maxConcurrency: 1}});
+    future<anydata|error> first = start limiter.run("held", holdUntilOpen);
+    check waitUntil(() => getLimitMetrics(limiter, "held").active == 1);
+    future<anydata|error> second = start limiter.run("held", holdUntilOpen);
+    check waitUntil(() => getLimitMetrics(limiter, "held").waiting == 1);
+    test:assertEquals(getLimitMetrics(limiter, "held").active, 1);
+
+    setGate(true);
+    _ = check wait first;
+    _ = check wait second;
+    ActivityLimitMetrics metrics = getLimitMetrics(limiter, "held");
+    test:assertEquals([metrics.active, metrics.waiting, metrics.throttled], [0, 0, 1]);
+}
+
+@test:Config {
+    dependsOn: [testParksCallsOverMaxConcurrency]
+}
+function testParkedCallKeepsRecordsOfSignals() returns error? {
+    setGate(false);
+    ActivityLimiter limiter = new ({held: {maxConcurrency: 1}});
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("limits-test", instances, limiter, {}, []);
+    registerWorkflow("limits-test", "Limited", service object {
+        private boolean approved = false;
+
+        remote function run() returns string|error {
+            _ = check callActivity("held", holdUntilOpen);
+            check await(function() returns boolean => self.approved);
+            return "approved";
+        }
+
+        remote function approve() returns error? {
+            _ = check callActivity("record", isolated function() returns anydata|error => true);
+            self.approved = true;
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "limited-1", workflowName: "Limited", status: "RUNNING",
+        startMethod: "run"};
+    check instances.put(instance);
+
+    // The start method parks in the activity limits, releasing the instance to the signal
+    future<anydata|error> holder = start limiter.run("held", holdUntilOpen);
+    check waitUntil(() => getLimitMetrics(limiter, "held").active == 1);
+    future<anydata|error> running = start replay.run(instance);
+    check waitUntil(() => getLimitMetrics(limiter, "held").waiting == 1);
+    _ = check invokeOnInstance("limits-test", instance.id, instance.workflowName, "approve", []);
+    setGate(true);
+    _ = check wait holder;
+    test:assertEquals(check wait running, "approved");
+
+    (readonly & InstanceState)? completed = check instances.get(instance.id);
+    if completed is () {
+        return error("Instance not found");
+    }
+    test:assertEquals(completed.handlers.length(), 1);
+    test:assertEquals(completed.activities.map(recorded => recorded.name).sort(), ["held", "record"]);
+}
+
+@test:Config {}
+function testThrottlesCallsOverRate() returns error? {
+    ActivityLimiter limiter = new ({rated: {rate: 4, burst: 1}});
+    time:Utc startedAt = time:utcNow();
+    future<anydata|error>[] calls = [];
+    foreach int _ in 0 ..< 3 {
+        calls.push(start limiter.run("rated", isolated function() returns anydata|error => true));
+    }
+    foreach future<anydata|error> call in calls {
+        _ = check wait call;
+    }
+
+    // The first call uses the burst, and the two others wait a quarter of a second each for the rate
+    test:assertTrue(time:utcDiffSeconds(time:utcNow(), startedAt) >= 0.45d);
+    ActivityLimitMetrics metrics = getLimitMetrics(limiter, "rated");
+    test:assertEquals([metrics.active, metrics.waiting, metrics.throttled], [0, 0, 2]);
+}
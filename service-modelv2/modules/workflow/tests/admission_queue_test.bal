@@ -0,0 +1,28 @@
+import ballerina/test;
+
+@test:Config {}
+function testHeapTakesEarliestDeadlineFirst() {
+    QueuedInstance[] heap = [];
+    decimal?[] deadlines = [30, (), 10, 20, (), 10];
+    foreach int i in 0 ..< deadlines.length() {
+        pushQueued(heap, {instance: testInstance(i.toString()), deadline: deadlines[i], sequence: i, queuedAt: 0});
+    }
+
+    string[] order = [];
+    while heap.length() > 0 {
+        order.push(popQueued(heap).instance.id);
+    }
+    // Equal deadlines and instances without deadlines keep their admission order, after those with deadlines
+    test:assertEquals(order, ["2", "5", "3", "0", "1", "4"]);
+}
+
+@test:Config {}
+function testRejectsInvalidPriorityClasses() {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("admission-test", instances, new ({}), {}, []);
+    AdmissionQueue|error empty = new (new InMemoryProvider(), instances, replay, {priorityClasses: []});
+    test:assertTrue(empty is error);
+    AdmissionQueue|error weightless = new (new InMemoryProvider(), instances, replay,
+            {priorityClasses: [{name: "urgent", weight: 2}, {name: "bulk", weight: 0}]});
+    test:assertTrue(weightless is error);
+}
@@ -0,0 +1,29 @@
+import ballerina/test;
+
+@test:Config {}
+function testBulkOperationsReadEveryPage() returns error? {
+    InMemoryProvider provider = new;
+    foreach int i in 0 ..< 5 {
+        check provider.save({id: string `bulk-${i}`, workflowName: "Bulk", status: "RUNNING", startMethod: "run"});
+    }
+    check provider.save({id: "bulk-other", workflowName: "Other", status: "RUNNING", startMethod: "run"});
+    WorkflowEngine engine = check new (provider, routing = {nodeId: "bulk"});
+    check engine.attach(service object {
+        remote function run() {
+        }
+
+        remote function echo(int value) returns int => value;
+    }, "Bulk");
+    WorkflowEngineClient 'client = engine.getClient();
+    BulkOptions options = {pageSize: 2, parallelism: 2};
+
+    stream<BulkQueryResult, error?> results = 'client.queryAll({workflowName: "Bulk"}, "echo", [7], options);
+    BulkQueryResult[] queried = check from BulkQueryResult result in results select result;
+    test:assertEquals(queried, from int i in 0 ..< 5 select {id: string `bulk-${i}`, result: 7});
+
+    BulkStopResult stopped = check 'client.stopAll({workflowName: "Bulk", statuses: ["RUNNING"]}, options);
+    test:assertEquals(stopped, {matched: 5, stopped: 5, failures: {}});
+    check engine.gracefulStop();
+    InstanceState[] running = check provider.scan({statuses: ["RUNNING"]}, (), 10);
+    test:assertEquals(running.map(instance => instance.id), ["bulk-other"]);
+}
@@ -0,0 +1,50 @@
+import ballerina/test;
+
+@test:Config {}
+function testEnginesWithTheSameWorkflowName() returns error? {
+    WorkflowEngine first = check new (new InMemoryProvider(), routing = {nodeId: "first"});
+    WorkflowEngine second = check new (new InMemoryProvider(), routing = {nodeId: "second"});
+    check first.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "first";
+    }, "Greeter");
+    check second.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "second";
+    }, "Greeter");
+
+    // Each update runs on the workflow attached to the engine of the instance, not on the last one attached
+    Execution firstExecution = check first.getClient().startNew("Greeter", "run");
+    Execution secondExecution = check second.getClient().startNew("Greeter", "run");
+    test:assertEquals(check first.getClient().update(firstExecution, "whoAmI"), "first");
+    test:assertEquals(check second.getClient().update(secondExecution, "whoAmI"), "second");
+
+    check first.immediateStop();
+    check second.immediateStop();
+}
+
+@test:Config {}
+function testStartRecoversRunningInstances() returns error? {
+    InMemoryProvider provider = new;
+    check provider.save({id: "recovered-1", workflowName: "Recovered", status: "RUNNING", startMethod: "run",
+        activities: [{sequence: 0, name: "prepare", result: 0}]});
+    WorkflowEngine engine = check new (provider, routing = {nodeId: "recovery"});
+    check engine.attach(service object {
+        remote function run() returns anydata|error {
+            _ = check callActivity("prepare",
+                    isolated function() returns anydata|error => countRun("recovered-prepare"));
+            check sleep({milliseconds: 10});
+            return callActivity("finish", isolated function() returns anydata|error => countRun("recovered-finish"));
+        }
+    }, "Recovered");
+
+    // The instance replays its recorded activity and re-arms its sleep when the engine starts
+    check engine.'start();
+    check waitUntil(() => getRuns("recovered-finish") == 1);
+    test:assertEquals(getRuns("recovered-prepare"), 0);
+    check engine.immediateStop();
+}
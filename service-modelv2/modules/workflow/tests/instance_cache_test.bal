@@ -0,0 +1,97 @@
+import ballerina/test;
+
+@test:Config {}
+function testEvictsLeastRecentlyUsedInstance() returns error? {
+    InMemoryProvider provider = new;
+    InstanceCache cache = new (provider, {capacity: 2});
+    check cache.put(testInstance("a"));
+    check cache.put(testInstance("b"));
+    _ = check cache.get("a");
+    check cache.put(testInstance("c"));
+
+    // b is the least recently used instance, so it is evicted and written back
+    InstanceCacheMetrics metrics = cache.getMetrics();
+    test:assertEquals(metrics.size, 2);
+    test:assertEquals(metrics.evictions, 1);
+    test:assertEquals(metrics.writes, 1);
+    test:assertTrue(check provider.load("b") is InstanceState);
+    test:assertTrue(check provider.load("a") is ());
+
+    // An evicted instance is rehydrated from the provider
+    test:assertEquals((check cache.get("b"))?.id, "b");
+    test:assertEquals(cache.getMetrics().misses, 1);
+}
+
+@test:Config {}
+function testEvictsByWeight() returns error? {
+    InstanceWeigher weigher = isolated function(InstanceState instance) returns int => 4;
+    InstanceCache cache = new (new InMemoryProvider(), {maxWeight: 10, weigher});
+    check cache.put(testInstance("a"));
+    check cache.put(testInstance("b"));
+    check cache.put(testInstance("c"));
+
+    InstanceCacheMetrics metrics = cache.getMetrics();
+    test:assertEquals(metrics.size, 2);
+    test:assertEquals(metrics.weight, 8);
+}
+
+@test:Config {}
+function testKeepsFailedWriteBack() returns error? {
+    UnavailableProvider provider = new;
+    InstanceCache cache = new (provider, {capacity: 1});
+    check cache.put(testInstance("a"));
+    test:assertTrue(cache.put(testInstance("b")) is error);
+
+    // The evicted instance is still visible while its write back has not succeeded
+    test:assertEquals((check cache.get("a"))?.id, "a");
+
+    provider.setAvailable(true);
+    check cache.flush();
+    test:assertTrue(check provider.load("a") is InstanceState);
+    test:assertTrue(check provider.load("b") is InstanceState);
+}
+
+isolated function testInstance(string id) returns readonly & InstanceState {
+    return {id, workflowName: "Test", status: "RUNNING", startMethod: "run"};
+}
+
+# Provider failing every write until it is made available
+isolated class UnavailableProvider {
+    *PersistentProvider;
+
+    private final InMemoryProvider store = new;
+    private boolean available = false;
+
+    isolated function setAvailable(boolean available) {
+        lock {
+            self.available = available;
+        }
+    }
+
+    public isolated function save(InstanceState instance) returns error? {
+        lock {
+            if !self.available {
+                return error("Provider unavailable");
+            }
+        }
+        return self.store.save(instance);
+    }
+
+    public isolated function saveAll(InstanceState[] instances) returns error? {
+        foreach InstanceState instance in instances {
+            check self.save(instance);
+        }
+    }
+
+    public isolated function load(string id) returns InstanceState|error? {
+        return self.store.load(id);
+    }
+
+    public isolated function delete(string id) returns error? {
+        return self.store.delete(id);
+    }
+
+    public isolated function scan(InstanceFilter filter, string? after, int 'limit) returns InstanceState[]|error {
+        return self.store.scan(filter, after, 'limit);
+    }
+}
@@ -0,0 +1,21 @@
+import ballerina/test;
+
+@test:Config {}
+function testContendedLocksAreMeasured() returns error? {
+    InstanceLockMetrics baseline = getInstanceLockMetrics();
+    setGate(false);
+    future<anydata|error> holder = start withInstanceLock("locked-1", holdUntilOpen);
+    check waitUntil(() => getInstanceLockMetrics().acquisitions > baseline.acquisitions);
+    future<anydata|error> waiter = start withInstanceLock("locked-1",
+        isolated function() returns anydata|error => true);
+    check waitUntil(() => getInstanceLockMetrics().contended > baseline.contended);
+
+    setGate(true);
+    _ = check wait holder;
+    test:assertEquals(check wait waiter, true);
+    InstanceLockMetrics metrics = getInstanceLockMetrics();
+    test:assertEquals(metrics.stripes, baseline.stripes);
+    test:assertEquals(metrics.acquisitions - baseline.acquisitions, 2);
+    test:assertEquals(metrics.contended - baseline.contended, 1);
+    test:assertTrue(metrics.waitTime > baseline.waitTime);
+}
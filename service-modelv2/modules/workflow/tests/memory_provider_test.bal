@@ -0,0 +1,83 @@
+import ballerina/test;
+
+@test:Config {}
+function testScanPagesMergedStatuses() returns error? {
+    InMemoryProvider provider = new;
+    // More instances than a block holds, so the indexes are split into several blocks
+    foreach int i in 0 ..< 1200 {
+        InstanceStatus status = i % 3 == 0 ? "RUNNING" : i % 3 == 1 ? "COMPLETED" : "FAILED";
+        check provider.save({id: string `i${i.toString().padZero(4)}`, workflowName: "Test", status,
+            startMethod: "run"});
+    }
+
+    // Pages of two statuses are merged in id order, and a status listed twice is only read once
+    string[] ids = [];
+    string? after = ();
+    while true {
+        InstanceState[] page = check provider.scan({statuses: ["FAILED", "RUNNING", "FAILED"]}, after, 7);
+        ids.push(...page.map(instance => instance.id));
+        if page.length() < 7 {
+            break;
+        }
+        after = page[page.length() - 1].id;
+    }
+    test:assertEquals(ids.length(), 800);
+    test:assertEquals(ids, ids.sort());
+    test:assertEquals(ids.slice(0, 3), ["i0000", "i0002", "i0003"]);
+
+    // Removed and changed instances leave the indexes they were in
+    foreach int i in 0 ..< 1200 {
+        string id = string `i${i.toString().padZero(4)}`;
+        if i % 2 == 0 {
+            check provider.delete(id);
+        }
+    }
+    check provider.save({id: "i0001", workflowName: "Test", status: "RUNNING", startMethod: "run"});
+    InstanceState[] running = check provider.scan({statuses: ["RUNNING"]}, (), 1000);
+    test:assertEquals(running.length(), 201);
+    test:assertEquals(running[0].id, "i0001");
+    test:assertEquals((check provider.scan({}, "i1197", 10)).map(instance => instance.id), ["i1199"]);
+}
+
+@test:Config {}
+function testScanPagesTimeRange() returns error? {
+    InMemoryProvider provider = new;
+    // Later ids start earlier, so the time order of the index is the reverse of the id order
+    foreach int i in 0 ..< 10 {
+        check provider.save({id: string `t${i}`, workflowName: "Test", status: "COMPLETED", startMethod: "run",
+            startedAt: [1000 - i * 10, 0.5d], closedAt: [2000, 0]});
+    }
+
+    InstanceState[] first = check provider.scan({startedAfter: [930, 0.5d], startedBefore: [990, 0.5d]}, (), 3);
+    test:assertEquals(first.map(instance => instance.id), ["t2", "t3", "t4"]);
+    InstanceState[] second = check provider.scan({startedAfter: [930, 0.5d], startedBefore: [990, 0.5d]}, "t4", 3);
+    test:assertEquals(second.map(instance => instance.id), ["t5", "t6", "t7"]);
+    test:assertEquals((check provider.scan({closedBefore: [2000, 0]}, (), 10)).length(), 0);
+}
+
+@test:Config {}
+function testScanIntersectsIndexes() returns error? {
+    InMemoryProvider provider = new;
+    foreach int i in 0 ..< 20 {
+        string workflowName = i % 2 == 0 ? "Order" : "Refund";
+        InstanceStatus status = i % 4 < 2 ? "RUNNING" : "COMPLETED";
+        check provider.save({id: string `a${i.toString().padZero(2)}`, workflowName, status, startMethod: "run",
+            searchAttributes: {region: i % 5 == 0 ? "eu" : "us", tier: i % 5}});
+    }
+
+    InstanceState[] matching = check provider.scan({workflowName: "Order", statuses: ["RUNNING"],
+        searchAttributes: {region: "eu"}}, (), 10);
+    test:assertEquals(matching.map(instance => instance.id), ["a00"]);
+    InstanceState[] tiers = check provider.scan({searchAttributes: {tier: 0}}, (), 10);
+    test:assertEquals(tiers.map(instance => instance.id), ["a00", "a05", "a10", "a15"]);
+    // String and numeric values of an attribute are indexed apart
+    test:assertEquals((check provider.scan({searchAttributes: {tier: "0"}}, (), 10)).length(), 0);
+
+    // Changed attributes move the instance to the index of their new value
+    check provider.save({id: "a05", workflowName: "Refund", status: "RUNNING", startMethod: "run",
+        searchAttributes: {region: "us", tier: 1}});
+    tiers = check provider.scan({searchAttributes: {tier: 0}}, (), 10);
+    test:assertEquals(tiers.map(instance => instance.id), ["a00", "a10", "a15"]);
+    InstanceState[] refunds = check provider.scan({workflowName: "Refund", searchAttributes: {region: "eu"}}, (), 10);
+    test:assertEquals(refunds.map(instance => instance.id), ["a15"]);
+}
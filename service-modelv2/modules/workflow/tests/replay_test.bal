@@ -0,0 +1,95 @@
+import ballerina/test;
+
+isolated map<int> activityRuns = {};
+
+isolated function countRun(string name) returns int {
+    lock {
+        int runs = (activityRuns[name] ?: 0) + 1;
+        activityRuns[name] = runs;
+        return runs;
+    }
+}
+
+isolated function getRuns(string name) returns int {
+    lock {
+        return activityRuns[name] ?: 0;
+    }
+}
+
+@test:Config {}
+function testReplayReturnsRecordedResults() returns error? {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("replay-test", instances, new ({}), {}, []);
+    registerWorkflow("replay-test", "Approval", service object {
+        private boolean approved = false;
+
+        remote function run() returns string|error {
+            _ = check callActivity("prepare", isolated function() returns anydata|error => countRun("prepare"));
+            check await(function() returns boolean => self.approved);
+            _ = check callActivity("ship", isolated function() returns anydata|error => countRun("ship"));
+            return "shipped";
+        }
+
+        remote function approve() returns error? {
+            _ = check callActivity("audit", isolated function() returns anydata|error => countRun("audit"));
+            self.approved = true;
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "approval-1", workflowName: "Approval", status: "RUNNING",
+        startMethod: "run"};
+    check instances.put(instance);
+
+    future<anydata|error> running = start replay.run(instance);
+    _ = check invokeOnInstance("replay-test", instance.id, instance.workflowName, "approve", []);
+    test:assertEquals(check wait running, "shipped");
+
+    // The signal is recorded with its own activity calls, which do not shift the calls of the start method
+    (readonly & InstanceState)? completed = check instances.get(instance.id);
+    if completed is () {
+        return error("Instance not found");
+    }
+    test:assertEquals(completed.status, "COMPLETED");
+    test:assertEquals(completed.handlers.length(), 1);
+    map<int[]> calls = {};
+    foreach ActivityRecord recorded in completed.activities {
+        calls[recorded.name] = [recorded.handler, recorded.sequence];
+    }
+    test:assertEquals(calls, {prepare: [-1, 0], audit: [0, 0], ship: [-1, 1]});
+
+    // The replay applies the recorded signal again at the await, and runs no activity again
+    test:assertEquals(check replay.run(completed), "shipped");
+    test:assertEquals([getRuns("prepare"), getRuns("audit"), getRuns("ship")], [1, 1, 1]);
+}
+
+@test:Config {}
+function testReplayDetectsNonDeterminism() returns error? {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("determinism-test", instances, new ({}), {}, []);
+    registerWorkflow("determinism-test", "Changed", service object {
+        remote function run() returns anydata|error {
+            return callActivity("validate", isolated function() returns anydata|error => true);
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "changed-1", workflowName: "Changed", status: "RUNNING",
+        startMethod: "run", activities: [{sequence: 0, name: "charge", result: true}]};
+    check instances.put(instance);
+
+    test:assertTrue(replay.run(instance) is NonDeterminismError);
+}
+
+@test:Config {}
+function testStoppedInstanceRunsNoActivity() returns error? {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("stopped-test", instances, new ({}), {}, []);
+    registerWorkflow("stopped-test", "Stopped", service object {
+        remote function run() returns anydata|error {
+            return callActivity("charge", isolated function() returns anydata|error => countRun("stopped-charge"));
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "stopped-1", workflowName: "Stopped", status: "STOPPED",
+        startMethod: "run"};
+    check instances.put(instance);
+
+    test:assertTrue(replay.run(instance) is InstanceStoppedError);
+    test:assertEquals(getRuns("stopped-charge"), 0);
+}
@@ -0,0 +1,100 @@
+import ballerina/test;
+
+# Archive store keeping the ids of the instances appended to it
+isolated class RecordingArchive {
+    *ArchiveStore;
+
+    private final string[] ids = [];
+
+    public isolated function append(InstanceState[] instances) returns error? {
+        foreach InstanceState instance in instances {
+            string id = instance.id;
+            lock {
+                self.ids.push(id);
+            }
+        }
+    }
+
+    isolated function getIds() returns string[] {
+        lock {
+            return self.ids.clone();
+        }
+    }
+}
+
+# Provider failing the first delete of an instance
+isolated class FailingDeleteProvider {
+    *PersistentProvider;
+
+    private final InMemoryProvider provider = new;
+    private final string failingId;
+    private boolean failed = false;
+
+    isolated function init(string failingId) {
+        self.failingId = failingId;
+    }
+
+    public isolated function save(InstanceState instance) returns error? {
+        return self.provider.save(instance);
+    }
+
+    public isolated function saveAll(InstanceState[] instances) returns error? {
+        return self.provider.saveAll(instances);
+    }
+
+    public isolated function load(string id) returns InstanceState|error? {
+        return self.provider.load(id);
+    }
+
+    public isolated function delete(string id) returns error? {
+        lock {
+            if id == self.failingId && !self.failed {
+                self.failed = true;
+                return error("Delete failed: " + id);
+            }
+        }
+        return self.provider.delete(id);
+    }
+
+    public isolated function scan(InstanceFilter filter, string? after, int 'limit) returns InstanceState[]|error {
+        return self.provider.scan(filter, after, 'limit);
+    }
+}
+
+@test:Config {}
+function testFailedPurgeIsNotArchivedAgain() returns error? {
+    FailingDeleteProvider provider = new ("expired-1");
+    foreach int i in 0 ..< 3 {
+        check provider.save({id: string `expired-${i}`, workflowName: "Expired", status: "COMPLETED",
+            startMethod: "run", closedAt: [1000, 0]});
+    }
+    check provider.save({id: "running-1", workflowName: "Expired", status: "RUNNING", startMethod: "run"});
+    RecordingArchive archive = new;
+    RetentionJob job = new (provider, new (provider, {}), {ttl: 0, interval: 0.05, batchDelay: 0, archive});
+
+    // The first run purges the instances it could delete, and the next one purges the last one without
+    // archiving it again
+    job.'start();
+    check waitUntil(() => job.getMetrics().runs >= 1);
+    job.stop();
+    test:assertEquals(archive.getIds(), ["expired-0", "expired-1", "expired-2"]);
+    RetentionMetrics metrics = job.getMetrics();
+    test:assertEquals([metrics.archived, metrics.purged], [3, 3]);
+    InstanceState[] remaining = check provider.scan({}, (), 10);
+    test:assertEquals(remaining.map(instance => instance.id), ["running-1"]);
+}
+
+@test:Config {}
+function testRestartedJobRunsOneLoop() returns error? {
+    RetentionJob job = new (new InMemoryProvider(), new (new InMemoryProvider(), {}), {interval: 3600});
+    job.'start();
+    job.stop();
+    job.'start();
+
+    // The loop of the first start stops at its next run, as it is not the current generation anymore
+    test:assertFalse(job.isRunning(1));
+    test:assertTrue(job.isRunning(2));
+    check waitUntil(() => job.getMetrics().runs >= 1);
+    job.stop();
+    test:assertFalse(job.isRunning(2));
+}
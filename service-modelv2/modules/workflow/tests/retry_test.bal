@@ -0,0 +1,55 @@
+import ballerina/test;
+
+type ValidationError distinct error;
+
+@test:Config {}
+function testRetriesAreReplayed() returns error? {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    RetryPolicy policy = {initialInterval: 0, jitter: 0, nonRetryableErrors: ["ValidationError"]};
+    ReplayEngine replay = new ("retry-test", instances, new ({}), {flaky: policy, validate: policy}, []);
+    registerWorkflow("retry-test", "Retrying", service object {
+        remote function run() returns anydata|error {
+            anydata|error validated = callActivity("validate", isolated function() returns anydata|error
+                    => error ValidationError("Invalid order", runs = countRun("validate")));
+            if validated !is ValidationError && validated !is ReplayedActivityError {
+                return error("Unexpected validation result");
+            }
+            return callActivity("flaky", isolated function() returns anydata|error {
+                int runs = countRun("flaky");
+                return runs < 3 ? error("Unavailable") : runs;
+            });
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "retrying-1", workflowName: "Retrying", status: "RUNNING",
+        startMethod: "run"};
+    check instances.put(instance);
+
+    test:assertEquals(check replay.run(instance), 3);
+    test:assertEquals([getRuns("validate"), getRuns("flaky")], [1, 3]);
+
+    // Replayed failures are retried, or not, as they were, so no activity runs again
+    (readonly & InstanceState)? completed = check instances.get(instance.id);
+    if completed is () {
+        return error("Instance not found");
+    }
+    test:assertEquals(check replay.run(completed), 3);
+    test:assertEquals([getRuns("validate"), getRuns("flaky")], [1, 3]);
+}
+
+@test:Config {}
+function testRetryDelay() {
+    RetryPolicy policy = {initialInterval: 1, backoffCoefficient: 2, maxInterval: 5, jitter: 0};
+    test:assertEquals([1, 2, 3, 4].map(attempt => retryDelay(policy, attempt)), [1d, 2d, 4d, 5d]);
+
+    decimal delay = retryDelay({initialInterval: 2, jitter: 0.5}, 1);
+    test:assertTrue(delay >= 1d && delay <= 3d);
+}
+
+@test:Config {}
+function testRetryableErrors() {
+    readonly & string[] nonRetryable = ["ValidationError"];
+    test:assertFalse(isRetryable(error ValidationError("Invalid order"), nonRetryable));
+    test:assertTrue(isRetryable(error("Unavailable"), nonRetryable));
+    test:assertFalse(isRetryable(error ReplayedActivityError("Invalid order", errorType = "ValidationError"),
+            nonRetryable));
+}
@@ -0,0 +1,67 @@
+import ballerina/test;
+
+@test:Config {}
+function testOperationsAreForwardedToTheOwner() returns error? {
+    InMemoryProvider provider = new;
+    LocalOwnershipDirectory directory = new;
+    LocalTransport transport = new;
+    WorkflowEngine owner = check new (provider, routing = {nodeId: "owner", directory, transport});
+    WorkflowEngine peer = check new (provider, routing = {nodeId: "peer", directory, transport});
+    check owner.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "owner";
+    }, "Routed");
+    check peer.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "peer";
+    }, "Routed");
+
+    Execution execution = check owner.getClient().startNew("Routed", "run");
+    check waitUntil(() => provider.load(execution.id) is InstanceState);
+    test:assertEquals(check directory.getOwner(execution.id), "owner");
+    test:assertEquals(check peer.getClient().update(execution, "whoAmI"), "owner");
+
+    // The owner is gone without releasing its instances, so the operation falls back to the peer, which
+    // rehydrates the instance and becomes its owner
+    transport.unregister("owner");
+    test:assertEquals(check peer.getClient().update(execution, "whoAmI"), "peer");
+    test:assertEquals(check directory.getOwner(execution.id), "peer");
+    test:assertEquals(check owner.getClient().update(execution, "whoAmI"), "peer");
+
+    check owner.immediateStop();
+    check peer.immediateStop();
+}
+
+@test:Config {}
+function testLeavingNodeReleasesItsInstances() returns error? {
+    InMemoryProvider provider = new;
+    LocalOwnershipDirectory directory = new;
+    LocalTransport transport = new;
+    WorkflowEngine leaving = check new (provider, routing = {nodeId: "leaving", directory, transport});
+    WorkflowEngine staying = check new (provider, routing = {nodeId: "staying", directory, transport});
+    check leaving.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "leaving";
+    }, "Released");
+    check staying.attach(service object {
+        remote function run() {
+        }
+
+        remote function whoAmI() returns string => "staying";
+    }, "Released");
+
+    Execution execution = check leaving.getClient().startNew("Released", "run");
+    check waitUntil(() => provider.load(execution.id) is InstanceState);
+    check leaving.immediateStop();
+    test:assertEquals(check directory.getOwner(execution.id), ());
+
+    test:assertEquals(check staying.getClient().update(execution, "whoAmI"), "staying");
+    test:assertEquals(check directory.getOwner(execution.id), "staying");
+    check staying.immediateStop();
+}
@@ -0,0 +1,37 @@
+import ballerina/test;
+
+isolated boolean suspending = false;
+
+isolated function setSuspending() {
+    lock {
+        suspending = true;
+    }
+}
+
+isolated function isSuspending() returns boolean {
+    lock {
+        return suspending;
+    }
+}
+
+@test:Config {}
+function testStopResumesSuspendedMethods() returns error? {
+    InstanceCache instances = new (new InMemoryProvider(), {});
+    ReplayEngine replay = new ("stop-test", instances, new ({}), {}, []);
+    registerWorkflow("stop-test", "Suspended", service object {
+        remote function run() returns error? {
+            setSuspending();
+            check sleep({hours: 1});
+        }
+    }, replay);
+    readonly & InstanceState instance = {id: "suspended-1", workflowName: "Suspended", status: "RUNNING",
+        startMethod: "run"};
+    check instances.put(instance);
+
+    // The start method holds the instance until it suspends, so the stop waits for the sleep to begin
+    future<anydata|error> running = start replay.run(instance);
+    check waitUntil(isSuspending);
+    check new InstanceOperations("stop-test", instances).stop(instance.id);
+    anydata|error result = wait running;
+    test:assertTrue(result is InstanceStoppedError);
+}
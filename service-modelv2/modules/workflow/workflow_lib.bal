@@ -1,3 +1,7 @@
+import ballerina/jballerina.java;
+import ballerina/time;
+import ballerina/uuid;
+
 public annotation Activity on function;
 
 public annotation StartEvent on service remote function;
@@ -12,46 +16,347 @@ public annotation Correlation on parameter;
 
 public isolated class WorkflowEngine {
 
-    public isolated function init(PersistentProvider provider) {
+    private final PersistentProvider provider;
+    private final InstanceCache instances;
+    private final ActivityLimiter limiter;
+    private final ReplayEngine replay;
+    private final AdmissionQueue admission;
+    private final InstanceOperations operations;
+    private final string nodeId;
+    private final OwnershipDirectory? directory;
+    private final Transport? transport;
+    private final RetentionJob? retention;
+
+    public isolated function init(PersistentProvider provider, InstanceCacheConfig cacheConfig = {},
+            AdmissionConfig admissionConfig = {}, RoutingConfig routing = {}, map<ActivityLimits> activityLimits = {},
+            map<RetryPolicy> retryPolicies = {}, string[] localActivities = [], RetentionConfig? retention = ())
+            returns error? {
+        self.provider = provider;
+        self.instances = new (provider, cacheConfig);
+        self.limiter = new (activityLimits);
+        self.nodeId = routing.nodeId;
+        self.replay = new (self.nodeId, self.instances, self.limiter, retryPolicies, localActivities);
+        self.admission = check new (provider, self.instances, self.replay, admissionConfig);
+        self.operations = new (self.nodeId, self.instances);
+        self.directory = routing?.directory;
+        self.transport = routing?.transport;
+        self.retention = retention is () ? () : new (provider, self.instances, retention);
+        Transport? transport = self.transport;
+        if transport !is () {
+            transport.register(self.nodeId, self.operations);
+        }
     }
 
     public isolated function attach(WorkflowModel svc, string attachPoint) returns error? {
+        registerWorkflow(self.nodeId, attachPoint, svc, self.replay);
     }
 
     public isolated function detach(WorkflowModel svc) returns error? {
+        unregisterWorkflow(self.nodeId, svc);
     }
 
     public isolated function 'start() returns error? {
+        check self.recover();
+        RetentionJob? retention = self.retention;
+        if retention !is () {
+            retention.'start();
+        }
+    }
+
+    # Run again the instances that were running when the engines stopped, so they replay their history and
+    # re-arm the timers of their sleeps and retries. With an ownership directory, only the instances owned by
+    # this node or by no node are recovered, and the latter are claimed first.
+    isolated function recover() returns error? {
+        string? after = ();
+        while true {
+            InstanceState[] page = check self.provider.scan({statuses: ["RUNNING"]}, after, RECOVERY_PAGE_SIZE);
+            foreach InstanceState instance in page {
+                if check self.claimForRecovery(instance.id) {
+                    _ = start self.replay.run(instance.cloneReadOnly());
+                }
+            }
+            if page.length() < RECOVERY_PAGE_SIZE {
+                return;
+            }
+            after = page[page.length() - 1].id;
+        }
+    }
+
+    isolated function claimForRecovery(string instanceId) returns boolean|error {
+        OwnershipDirectory? directory = self.directory;
+        if directory is () {
+            return true;
+        }
+        string? owner = check directory.getOwner(instanceId);
+        if owner is () {
+            check directory.claim(instanceId, self.nodeId);
+            return true;
+        }
+        return owner == self.nodeId;
     }
 
     public isolated function gracefulStop() returns error? {
+        check self.leave();
+        return self.instances.flush();
     }
 
     public isolated function immediateStop() returns error? {
+        return self.leave();
     }
 
     public isolated function getClient() returns WorkflowEngineClient {
-        return new ();
+        return new (self.provider, self.replay, self.admission, self.operations, self.nodeId, self.directory,
+            self.transport);
+    }
+
+    # Stop the retention job, stop receiving forwarded operations and give up the ownership of the instances
+    # of this node
+    isolated function leave() returns error? {
+        RetentionJob? retention = self.retention;
+        if retention !is () {
+            retention.stop();
+        }
+        Transport? transport = self.transport;
+        if transport !is () {
+            transport.unregister(self.nodeId);
+        }
+        OwnershipDirectory? directory = self.directory;
+        if directory !is () {
+            check directory.releaseAll(self.nodeId);
+        }
+    }
+
+    # Get the metrics of the instance locks
+    #
+    # + return - acquisitions and contended acquisitions of the instance locks, and the time spent waiting for them
+    public isolated function getLockMetrics() returns InstanceLockMetrics {
+        return getInstanceLockMetrics();
+    }
+
+    # Get the metrics of the in-memory instance cache
+    #
+    # + return - hits, misses, evictions and writes of the cache, and its current size and weight
+    public isolated function getCacheMetrics() returns InstanceCacheMetrics {
+        return self.instances.getMetrics();
+    }
+
+    # Get the admission metrics of each priority class
+    #
+    # + return - queued and admitted instances of each class, and the time they waited in the admission queue
+    public isolated function getAdmissionMetrics() returns map<PriorityClassMetrics> {
+        return self.admission.getMetrics();
+    }
+
+    # Get the metrics of the limited activities
+    #
+    # + return - running, parked and throttled calls of each activity with limits
+    public isolated function getActivityMetrics() returns map<ActivityLimitMetrics> {
+        return self.limiter.getMetrics();
+    }
+
+    # Get the metrics of the retention of closed instances
+    #
+    # + return - archived and purged instances and completed runs of the retention job, nil if retention is off
+    public isolated function getRetentionMetrics() returns RetentionMetrics? {
+        RetentionJob? retention = self.retention;
+        return retention is () ? () : retention.getMetrics();
     }
 
 }
 
 public type WorkflowModel distinct service object {};
 
-public type PersistentProvider distinct object {};
+// Number of running instances read from persistence at a time when an engine starts
+const RECOVERY_PAGE_SIZE = 1000;
+
+public type PersistentProvider distinct isolated object {
+
+    # Save the state of a workflow instance
+    isolated function save(InstanceState instance) returns error?;
+
+    # Save the states of several workflow instances in one transaction
+    isolated function saveAll(InstanceState[] instances) returns error?;
+
+    # Load the state of a workflow instance, nil if there is no such instance
+    isolated function load(string id) returns InstanceState|error?;
+
+    # Delete the state of a workflow instance
+    isolated function delete(string id) returns error?;
 
-public class RdbmsProvider {
+    # Get a page of the states of the workflow instances matching a filter, in the order of their ids
+    isolated function scan(InstanceFilter filter, string? after, int 'limit) returns InstanceState[]|error;
+};
+
+# Provider storing the instance states in a relational database
+#
+# Not implemented yet: every operation returns an error. Use the `InMemoryProvider` until it is.
+public isolated class RdbmsProvider {
     *PersistentProvider;
+
+    public isolated function save(InstanceState instance) returns error? {
+        return error("Not implemented");
+    }
+
+    public isolated function saveAll(InstanceState[] instances) returns error? {
+        return error("Not implemented");
+    }
+
+    public isolated function load(string id) returns InstanceState|error? {
+        return error("Not implemented");
+    }
+
+    public isolated function delete(string id) returns error? {
+        return error("Not implemented");
+    }
+
+    public isolated function scan(InstanceFilter filter, string? after, int 'limit) returns InstanceState[]|error {
+        return error("Not implemented");
+    }
+}
+
+# Metrics of the instance locks
+#
+# + stripes - number of lock stripes
+# + acquisitions - number of times an instance lock was acquired
+# + contended - number of acquisitions that had to wait for another operation
+# + waitTime - total time in seconds spent waiting for instance locks
+public type InstanceLockMetrics record {|
+    int stripes;
+    int acquisitions;
+    int contended;
+    decimal waitTime;
+|};
+
+public type InstanceStatus "RUNNING"|"WAITING"|"COMPLETED"|"FAILED"|"STOPPED";
+
+# Persisted state of a workflow instance
+#
+# + id - identifier of the instance
+# + workflowName - name of the workflow service
+# + status - status of the instance
+# + startMethod - remote method the instance was started with
+# + args - arguments the instance was started with
+# + correlation - correlation values the instance is searched by
+# + state - state fields of the workflow service
+# + activities - recorded results of the activities called by the instance, in call order
+# + handlers - recorded signals and updates of the instance, in the order they ran
+# + result - result of the start method once the instance completed, or its error message if it failed
+# + priority - priority class the instance was started in
+# + deadline - time by which the instance should be admitted, nil if it has no deadline
+# + startedAt - time the instance was started at
+# + closedAt - time the instance completed, failed or was stopped at
+# + searchAttributes - attributes set by the instance to search instances by
+public type InstanceState record {|
+    string id;
+    string workflowName;
+    InstanceStatus status;
+    string startMethod;
+    anydata[] args = [];
+    map<anydata> correlation = {};
+    map<anydata> state = {};
+    ActivityRecord[] activities = [];
+    HandlerRecord[] handlers = [];
+    anydata result = ();
+    string priority = DEFAULT_PRIORITY;
+    time:Utc? deadline = ();
+    time:Utc? startedAt = ();
+    time:Utc? closedAt = ();
+    map<SearchAttribute> searchAttributes = {};
+|};
+
+# Value of a search attribute of a workflow instance
+public type SearchAttribute string|int|decimal|boolean;
+
+# Shallow mutable copy of an instance state, to derive an updated state from
+isolated function copyInstance(readonly & InstanceState instance) returns InstanceState {
+    return {
+        id: instance.id,
+        workflowName: instance.workflowName,
+        status: instance.status,
+        startMethod: instance.startMethod,
+        args: instance.args,
+        correlation: instance.correlation,
+        state: instance.state,
+        activities: instance.activities,
+        handlers: instance.handlers,
+        result: instance.result,
+        priority: instance.priority,
+        deadline: instance.deadline,
+        startedAt: instance.startedAt,
+        closedAt: instance.closedAt,
+        searchAttributes: instance.searchAttributes
+    };
 }
 
-public function await((function () returns boolean)|boolean conditionFunc) returns error? {
-    // Implementation for pausing the workflow until the condition is true
+# Suspend the workflow until the condition is true
+#
+# The condition is checked again each time a signal or an update of the instance completes, so it is a function
+# rather than a value, which would never change. While the workflow is suspended it releases its instance and
+# holds no thread. If the instance is stopped meanwhile, an `InstanceStoppedError` is returned.
+public function await(function () returns boolean conditionFunc) returns error? {
+    while !conditionFunc() {
+        if check replayPendingHandlers() {
+            continue;
+        }
+        check awaitChange();
+        check checkCurrentInstanceOpen();
+    }
 }
 
+# Suspend the workflow for the specified duration
+#
+# The wake up time is recorded like an activity result, so a replayed workflow only sleeps for the remaining
+# time. While the workflow is suspended it releases its instance and holds no thread. If the instance is stopped
+# meanwhile, an `InstanceStoppedError` is returned.
 public function sleep(Duration duration) returns error? {
-    // Implementation for sleeping/waiting for the specified duration
+    return sleepFor(toSeconds(duration));
+}
+
+isolated function sleepFor(decimal seconds) returns error? {
+    if currentInstanceId() is () {
+        suspendFor(<int>(seconds * 1000));
+        return;
+    }
+    time:Utc wakeUpTime = check (check callActivity(SLEEP_ACTIVITY,
+            isolated function() returns anydata => time:utcAddSeconds(time:utcNow(), seconds))).cloneWithType();
+    decimal remaining = time:utcDiffSeconds(wakeUpTime, time:utcNow());
+    if remaining > 0d {
+        suspendFor(<int>(remaining * 1000));
+        check checkCurrentInstanceOpen();
+    }
+}
+
+# Check that the instance of the current workflow method was not stopped or closed while the method was suspended
+isolated function checkCurrentInstanceOpen() returns error? {
+    ReplayEngine? replay = currentReplayEngine();
+    string? instanceId = currentInstanceId();
+    if replay !is () && instanceId !is () {
+        check replay.checkOpen(instanceId);
+    }
 }
 
+const SLEEP_ACTIVITY = "workflow:sleep";
+
+isolated function toSeconds(Duration duration) returns decimal {
+    int days = (duration.months ?: 0) * 30 + (duration.days ?: 0);
+    int seconds = ((days * 24 + (duration.hours ?: 0)) * 60 + (duration.minutes ?: 0)) * 60 + (duration.seconds ?: 0);
+    return <decimal>seconds + <decimal>(duration.milliseconds ?: 0) / 1000;
+}
+
+isolated function awaitChange() returns error? = @java:Method {
+    'class: "io.ballerina.workflow.engine.Suspensions"
+} external;
+
+isolated function suspendFor(int millis) = @java:Method {
+    'class: "io.ballerina.workflow.engine.Suspensions",
+    name: "sleep"
+} external;
+
+isolated function interruptInstance(string nodeId, string instanceId) = @java:Method {
+    'class: "io.ballerina.workflow.engine.Suspensions",
+    name: "interrupt"
+} external;
+
 public type Duration record {
     int months?;
     int days?;
@@ -65,29 +370,226 @@ public type Execution record {|
     string id;
 |};
 
+# Options of a new workflow instance
+#
+# + priority - priority class of the instance, one of the classes of the admission configuration
+# + deadline - time in seconds from now by which the instance should be admitted
+public type StartOptions record {|
+    string priority = DEFAULT_PRIORITY;
+    decimal deadline?;
+|};
+
 public isolated class WorkflowEngineClient {
 
+    private final PersistentProvider provider;
+    private final ReplayEngine replay;
+    private final AdmissionQueue admission;
+    private final InstanceOperations operations;
+    private final string nodeId;
+    private final OwnershipDirectory? directory;
+    private final Transport? transport;
+
+    isolated function init(PersistentProvider provider, ReplayEngine replay, AdmissionQueue admission,
+            InstanceOperations operations, string nodeId, OwnershipDirectory? directory, Transport? transport) {
+        self.provider = provider;
+        self.replay = replay;
+        self.admission = admission;
+        self.operations = operations;
+        self.nodeId = nodeId;
+        self.directory = directory;
+        self.transport = transport;
+    }
+
     public isolated function search(string process, map<anydata> cid) returns Execution?|error {
     }
 
+    # Start a new workflow instance
+    #
+    # The instance is queued for admission and the call returns without waiting for it to be persisted.
+    # When the admission queue is full, the call fails with an `AdmissionRejectedError` or waits for space,
+    # depending on the backpressure policy of the engine.
     public isolated function startNew(string workflowName, string methodName, anydata... args) returns Execution|error {
-        return error("Not implemented");
+        return self.startNewWithOptions(workflowName, methodName, {}, ...args);
     }
 
+    # Start a new workflow instance in a priority class, optionally with a deadline
+    #
+    # Instances of a class are admitted earliest deadline first, and each class gets a share of every admission
+    # batch according to its weight, so urgent instances do not wait behind bulk ones.
+    public isolated function startNewWithOptions(string workflowName, string methodName, StartOptions options,
+            anydata... args) returns Execution|error {
+        decimal? deadline = options?.deadline;
+        InstanceState instance = {
+            id: uuid:createType4AsString(),
+            workflowName,
+            status: "RUNNING",
+            startMethod: methodName,
+            args,
+            priority: options.priority,
+            deadline: deadline is () ? () : time:utcAddSeconds(time:utcNow(), deadline),
+            startedAt: time:utcNow()
+        };
+        check self.admission.admit(instance.cloneReadOnly());
+        OwnershipDirectory? directory = self.directory;
+        if directory !is () {
+            check directory.claim(instance.id, self.nodeId);
+        }
+        return {id: instance.id};
+    }
+
+    # Send a signal to a workflow instance without waiting for it to be handled
+    #
+    # Signals of an instance are handled one at a time, in order, and wake up the instance if it awaits a condition.
     public isolated function signal(Execution execution, string signalName, anydata... args) returns error? {
-        return error("Not implemented");
+        _ = check self.route({kind: "SIGNAL", instanceId: execution.id, name: signalName, args: args.cloneReadOnly()});
     }
 
+    # Run an update on a workflow instance
+    #
+    # Updates of an instance run one at a time, in order, serialized with the other operations of the instance,
+    # while updates of different instances run in parallel.
     public isolated function update(Execution execution, string updateName, anydata... args) returns anydata|error {
-        return error("Not implemented");
+        return self.route({kind: "UPDATE", instanceId: execution.id, name: updateName, args: args.cloneReadOnly()});
+    }
+
+    # Run an update on a workflow instance without waiting for its result
+    public isolated function updateAsync(Execution execution, string updateName, anydata... args)
+            returns future<anydata|error> {
+        readonly & anydata[] arguments = args.cloneReadOnly();
+        return start self.update(execution, updateName, ...arguments);
     }
 
     public isolated function query(Execution execution, string queryName, anydata... args) returns anydata|error {
-        return error("Not implemented");
+        return self.route({kind: "QUERY", instanceId: execution.id, name: queryName, args: args.cloneReadOnly()});
     }
 
     public isolated function stop(Execution execution) returns error? {
-        return error("Not implemented");
+        _ = check self.route({kind: "STOP", instanceId: execution.id});
+    }
+
+    # Stop the instances matching a filter
+    #
+    # Matching instances are read from persistence page by page and stopped with bounded parallelism, each one on
+    # the engine node owning it.
+    public isolated function stopAll(InstanceFilter filter, BulkOptions options = {}) returns BulkStopResult|error {
+        readonly & InstanceFilter scanFilter = filter.cloneReadOnly();
+        BulkStopResult outcome = {matched: 0, stopped: 0, failures: {}};
+        string? after = ();
+        while true {
+            readonly & string[] ids = check scanPage(self.provider, scanFilter, after, options.pageSize);
+            BulkQueryResult[] results = forEachBounded(ids, options.parallelism,
+                    isolated function(string id) returns anydata|error {
+                        return self.stop({id});
+                    });
+            foreach BulkQueryResult result in results {
+                outcome.matched += 1;
+                string? failure = result.failure;
+                if failure is string {
+                    outcome.failures[result.id] = failure;
+                } else {
+                    outcome.stopped += 1;
+                }
+            }
+            if ids.length() < options.pageSize {
+                return outcome;
+            }
+            after = ids[ids.length() - 1];
+        }
+    }
+
+    # Run a query on the instances matching a filter
+    #
+    # Matching instances are read from persistence page by page as the stream is consumed, and queried with
+    # bounded parallelism, each one on the engine node owning it.
+    public isolated function queryAll(InstanceFilter filter, string queryName, anydata[] args = [],
+            BulkOptions options = {}) returns stream<BulkQueryResult, error?> {
+        BulkQueryIterator iterator = new (self, self.provider, filter.cloneReadOnly(), queryName, args.cloneReadOnly(),
+                options.cloneReadOnly());
+        return new (iterator);
     }
 
+    # Resume an instance, for example after it was recovered from persistence
+    #
+    # The start method of the instance runs again from the beginning, and the activities it already called
+    # return their recorded results instead of running again.
+    public isolated function resume(Execution execution) returns anydata|error {
+        return self.replay.run(check self.operations.getInstance(execution.id));
+    }
+
+    # Route an operation to the engine node owning the instance, which most likely has it in memory.
+    # If the owner is gone, the operation is handled here, rehydrating the instance from persistence,
+    # and this node becomes the owner.
+    isolated function route(readonly & EngineRequest request) returns anydata|error {
+        OwnershipDirectory? directory = self.directory;
+        Transport? transport = self.transport;
+        if directory is () || transport is () {
+            return self.operations.handle(request);
+        }
+        string? owner = check directory.getOwner(request.instanceId);
+        if owner is string && owner != self.nodeId {
+            anydata|error result = transport.forward(owner, request);
+            if result !is NodeUnavailableError {
+                return result;
+            }
+        }
+        anydata|error result = self.operations.handle(request);
+        if owner != self.nodeId {
+            check directory.claim(request.instanceId, self.nodeId);
+        }
+        return result;
+    }
 }
+
+# Register a workflow service of an engine node
+#
+# Workflows are registered per node, so engines in the same runtime can attach workflows with the same name.
+isolated function registerWorkflow(string nodeId, string name, WorkflowModel svc, ReplayEngine replay)
+        = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "register"
+} external;
+
+isolated function unregisterWorkflow(string nodeId, WorkflowModel svc) = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "unregister"
+} external;
+
+isolated function invokeDirectOnInstance(string nodeId, string instanceId, string workflowName, string method,
+        readonly & anydata[] args, boolean startMethod) returns anydata|error = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "invokeDirect"
+} external;
+
+# Create a new value of the workflow service for an instance to run on, with the initial state of the service
+isolated function resetInstanceValue(string nodeId, string instanceId, string workflowName) returns error?
+        = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "reset"
+} external;
+
+# Release the value of the workflow service an instance ran on, once the instance is closed
+isolated function releaseInstanceValue(string nodeId, string instanceId, string workflowName) = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "release"
+} external;
+
+# Run a function with exclusive access to a workflow instance
+#
+# Instance ids are hashed onto a fixed table of locks with many more stripes than cores, so operations on
+# different instances rarely contend. All engine operations on an instance hold its lock while they run.
+isolated function withInstanceLock(string instanceId, isolated function () returns anydata|error operation)
+        returns anydata|error = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceLocks",
+    name: "withLock"
+} external;
+
+isolated function getInstanceLockMetrics() returns InstanceLockMetrics = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceLocks",
+    name: "getMetrics"
+} external;
+
+isolated function invokeOnInstance(string nodeId, string instanceId, string workflowName, string method,
+        readonly & anydata[] args) returns anydata|error = @java:Method {
+    'class: "io.ballerina.workflow.engine.InstanceActors",
+    name: "invoke"
+} external;
@@ -17,9 +17,9 @@ service "OrderWorkflow" on workflowEngine {
     remote function processOrder(@workflow:Correlation string orderId) returns string|error {
 
         // This call is deterministic. On replay, it provides the
-        // saved result without re-running the function. Compiler will
-        // optimize this call. something like loadState("processPayment") ?: processPayment();
-        boolean|error paymentResult = processPayment(orderId);
+        // saved result without re-running the function.
+        anydata|error paymentResult = workflow:callActivity("processPayment",
+                isolated function () returns anydata|error => processPayment(orderId));
 
         if paymentResult is error {
             self.status = "PAYMENT_FAILED";
@@ -31,9 +31,9 @@ service "OrderWorkflow" on workflowEngine {
 
         // 3. THE AWAIT
         // The workflow pauses here (thread is released)
-        // and waits for the condition to be true.
-        // If boolean, this will be wrapped in to a closure. Need to see if we can make it work without closures.
-        check workflow:await(self.isApproved || self.isRejected);
+        // and waits for the condition to be true. The condition is a function,
+        // so it is checked again each time a signal or an update completes.
+        check workflow:await(function () returns boolean => self.isApproved || self.isRejected);
 
         // 4. RESUMPTION
         // Code continues here after a signal is received.
@@ -50,9 +50,9 @@ service "OrderWorkflow" on workflowEngine {
 
         // Execute the final activity
         // This call is deterministic. On replay, it provides the
-        // saved result without re-running the function. Compiler will
-        // optimize this call. something like loadState("shipOrder") ?: shipOrder();
-        check shipOrder(orderId);
+        // saved result without re-running the function.
+        _ = check workflow:callActivity("shipOrder",
+                isolated function () returns anydata|error => shipOrder(orderId));
 
         self.status = "COMPLETED";
         return "COMPLETED";